@@ -0,0 +1,107 @@
+package org.aforgues.rubikscube.ai;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.aforgues.rubikscube.core.DefinedMove;
+import org.aforgues.rubikscube.core.RubiksCube;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Solver bounded by a time budget and a {@link CancellationToken}, which returns the best solution found when one of
+ * them runs out : meant for interactive callers which need a bounded latency more than a short solution.
+ *
+ * A 3x3 Rubik's Cube first gets a solution of the beginner method (100+ moves, a few milliseconds), then shorter and
+ * shorter ones from the {@link TwoPhaseSolver} until one has at most <code>targetLength</code> moves.
+ * 2x2 and bigger Rubik's Cube are solved by their own solver (cf. {@link PocketCubeSolver} and {@link ReductionSolver}),
+ * which cannot be stopped but takes milliseconds. Tables are built on first use (about a second for the two-phase ones),
+ * which is not bounded by the budget either : they should be loaded once at startup by a first solve.
+ *
+ * This is the composite entry of the registry (cf. {@link Solvers}) : the engines it chains are also registered on their own.
+ */
+public class AnytimeSolver implements Solver {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AnytimeSolver.class);
+
+	private final BeginnerMethodSolver beginnerMethodSolver = new BeginnerMethodSolver();
+	private final TwoPhaseSolver twoPhaseSolver = new TwoPhaseSolver();
+	private final ReductionSolver reductionSolver = new ReductionSolver();
+
+	@Override
+	public String getName() {
+		return "anytime two-phase";
+	}
+
+	@Override
+	public boolean supports(int size) {
+		return size >= PocketCubeSolver.SIZE;
+	}
+
+	/**
+	 * Those of the solver used for this size
+	 */
+	@Override
+	public long getExpectedLatencyMillis(int size) {
+		if (size == PocketCubeSolver.SIZE)
+			return 1;
+		if (size == 3)
+			return twoPhaseSolver.getExpectedLatencyMillis(size);
+		return reductionSolver.getExpectedLatencyMillis(size);
+	}
+
+	@Override
+	public int getExpectedLength(int size) {
+		if (size == PocketCubeSolver.SIZE)
+			return 9;
+		if (size == 3)
+			return twoPhaseSolver.getExpectedLength(size);
+		return reductionSolver.getExpectedLength(size);
+	}
+
+	/**
+	 * Returns a solution of at most {@link TwoPhaseSolver#DEFAULT_MAX_LENGTH} moves or the best one found in time,
+	 * <code>null</code> when no solution was found
+	 */
+	public List<DefinedMove> solve(RubiksCube rc, long timeBudgetMillis, CancellationToken token) {
+		return solve(rc, TwoPhaseSolver.DEFAULT_MAX_LENGTH, timeBudgetMillis, token);
+	}
+
+	/**
+	 * Returns a solution of at most <code>targetLength</code> moves or the best one found in time (the RubiksCube is
+	 * left unchanged), <code>null</code> when no solution was found
+	 */
+	@Override
+	public List<DefinedMove> solve(RubiksCube rc, int targetLength, long timeBudgetMillis, CancellationToken token) {
+		long start = System.currentTimeMillis();
+		long deadline = start + timeBudgetMillis;
+
+		if (rc.getSize() == PocketCubeSolver.SIZE)
+			return solvePocketCube(rc);
+		if (rc.getSize() > 3)
+			return reductionSolver.solve(rc);
+
+		List<DefinedMove> best = beginnerMethodSolver.solve(rc, targetLength, timeBudgetMillis, token);
+		if (LOGGER.isDebugEnabled())
+			LOGGER.debug("AI : anytime solution of {} moves after {} ms", best == null ? null : best.size(), System.currentTimeMillis() - start);
+
+		if ((best == null || best.size() > targetLength) && ! token.isCancelled() && System.currentTimeMillis() < deadline) {
+			List<DefinedMove> twoPhase = twoPhaseSolver.solve(rc, targetLength, deadline - System.currentTimeMillis(), token);
+			if (twoPhase != null && (best == null || twoPhase.size() < best.size()))
+				best = twoPhase;
+		}
+
+		LOGGER.info("AI : anytime solution of {} moves in {} ms{}", best == null ? null : best.size(),
+					System.currentTimeMillis() - start, token.isCancelled() ? " (cancelled)" : "");
+		return best;
+	}
+
+	private List<DefinedMove> solvePocketCube(RubiksCube rc) {
+		try {
+			return PocketCubeSolver.getInstance().solve(rc);
+		} catch (IOException e) {
+			LOGGER.error("### ERROR : cannot load the 2x2 distance table", e);
+			return null;
+		}
+	}
+}
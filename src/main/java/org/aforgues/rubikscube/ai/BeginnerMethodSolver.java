@@ -0,0 +1,63 @@
+package org.aforgues.rubikscube.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.aforgues.rubikscube.core.DefinedMove;
+import org.aforgues.rubikscube.core.RubiksCube;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Seven step beginner method of the {@link RubiksCubeAI} as a {@link Solver} : instant but long solutions of the 3x3
+ * Rubik's Cube, which cannot be improved (the target length, the time budget and the cancellation are ignored).
+ */
+public class BeginnerMethodSolver implements Solver {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BeginnerMethodSolver.class);
+
+	private static final int SIZE = 3;
+
+	@Override
+	public String getName() {
+		return "beginner method";
+	}
+
+	@Override
+	public boolean supports(int size) {
+		return size == SIZE;
+	}
+
+	@Override
+	public long getExpectedLatencyMillis(int size) {
+		return 2;
+	}
+
+	@Override
+	public int getExpectedLength(int size) {
+		return 180;
+	}
+
+	/**
+	 * The beginner method moves the cube it solves : it runs on a copy, in simulation mode so that it is done synchronously
+	 */
+	@Override
+	public List<DefinedMove> solve(RubiksCube rc, int targetLength, long timeBudgetMillis, CancellationToken token) {
+		RubiksCube copy;
+		try {
+			copy = (RubiksCube) rc.clone();
+		} catch (CloneNotSupportedException e) {
+			LOGGER.error("Unable to clone {} - {}", rc, e.getMessage());
+			return null;
+		}
+
+		RubiksCubeAI ai = new RubiksCubeAI(copy, true, SolvingStrategy.BEGINNER_METHOD);
+		ai.computeArtificialIntelligence();
+
+		List<DefinedMove> path = new ArrayList<DefinedMove>();
+		for (DefinedMove move = ai.getNextMove(); move != null; move = ai.getNextMove()) {
+			path.add(move);
+		}
+		return copy.isSolved() ? path : null;
+	}
+}
@@ -0,0 +1,18 @@
+package org.aforgues.rubikscube.ai;
+
+/**
+ * Cancellation of a running computation, requested from any thread : the computation checks the token regularly and
+ * stops as soon as possible, returning the best result found so far.
+ */
+public class CancellationToken {
+
+	private volatile boolean cancelled;
+
+	public void cancel() {
+		this.cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+}
@@ -0,0 +1,536 @@
+package org.aforgues.rubikscube.ai;
+
+import java.util.Arrays;
+
+import org.aforgues.rubikscube.core.Cubie;
+import org.aforgues.rubikscube.core.DefinedMove;
+import org.aforgues.rubikscube.core.Face;
+import org.aforgues.rubikscube.core.Facelet;
+import org.aforgues.rubikscube.core.Move;
+import org.aforgues.rubikscube.core.PackedRubiksCube;
+import org.aforgues.rubikscube.core.RubiksCube;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 3x3 Rubik's Cube described at the cubie level, as used by the solvers (cf. {@link TwoPhaseSolver} and {@link OptimalSolver}) :
+ * permutation and orientation of the 8 corners and of the 12 edges.
+ *
+ * Faces are named U(p), R(ight), F(ront), D(own), L(eft) and B(ack), which are respectively the TOP, RIGHT, FRONT,
+ * BOTTOM, LEFT and BACK faces of a {@link RubiksCube}.
+ * Corners : URF, UFL, ULB, UBR, DFR, DLF, DBL, DRB - Edges : UR, UF, UL, UB, DR, DF, DL, DB, FR, FL, BL, BR
+ */
+class CubieCube {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CubieCube.class);
+
+	static final int CORNER_COUNT = 8;
+	static final int EDGE_COUNT = 12;
+
+	// Facelet faces, in the U R F D L B order
+	static final int U = 0;
+	static final int R = 1;
+	static final int F = 2;
+	static final int D = 3;
+	static final int L = 4;
+	static final int B = 5;
+
+	static final Face[] FACES = { Face.TOP, Face.RIGHT, Face.FRONT, Face.BOTTOM, Face.LEFT, Face.BACK };
+
+	/**
+	 * Facelets of each corner and edge (index <code>face * 9 + row * 3 + column</code>), each face being read
+	 * row by row as seen from outside of the cube, with U on top of the side faces, B on top of U and F on top of D
+	 */
+	private static final int[][] CORNER_FACELETS = {
+		{ 8, 9, 20 }, { 6, 18, 38 }, { 0, 36, 47 }, { 2, 45, 11 },
+		{ 29, 26, 15 }, { 27, 44, 24 }, { 33, 53, 42 }, { 35, 17, 51 }
+	};
+	private static final int[][] EDGE_FACELETS = {
+		{ 5, 10 }, { 7, 19 }, { 3, 37 }, { 1, 46 }, { 32, 16 }, { 28, 25 },
+		{ 30, 43 }, { 34, 52 }, { 23, 12 }, { 21, 41 }, { 50, 39 }, { 48, 14 }
+	};
+	private static final int[][] CORNER_COLORS = {
+		{ U, R, F }, { U, F, L }, { U, L, B }, { U, B, R }, { D, F, R }, { D, L, F }, { D, B, L }, { D, R, B }
+	};
+	private static final int[][] EDGE_COLORS = {
+		{ U, R }, { U, F }, { U, L }, { U, B }, { D, R }, { D, F }, { D, L }, { D, B }, { F, R }, { F, L }, { B, L }, { B, R }
+	};
+
+	/**
+	 * Clockwise quarter turn of each face, in the U R F D L B order
+	 */
+	static final CubieCube[] MOVES = {
+		new CubieCube(new int[] { 3, 0, 1, 2, 4, 5, 6, 7 }, new int[] { 0, 0, 0, 0, 0, 0, 0, 0 },
+					  new int[] { 3, 0, 1, 2, 4, 5, 6, 7, 8, 9, 10, 11 }, new int[] { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 }),
+		new CubieCube(new int[] { 4, 1, 2, 0, 7, 5, 6, 3 }, new int[] { 2, 0, 0, 1, 1, 0, 0, 2 },
+					  new int[] { 8, 1, 2, 3, 11, 5, 6, 7, 4, 9, 10, 0 }, new int[] { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 }),
+		new CubieCube(new int[] { 1, 5, 2, 3, 0, 4, 6, 7 }, new int[] { 1, 2, 0, 0, 2, 1, 0, 0 },
+					  new int[] { 0, 9, 2, 3, 4, 8, 6, 7, 1, 5, 10, 11 }, new int[] { 0, 1, 0, 0, 0, 1, 0, 0, 1, 1, 0, 0 }),
+		new CubieCube(new int[] { 0, 1, 2, 3, 5, 6, 7, 4 }, new int[] { 0, 0, 0, 0, 0, 0, 0, 0 },
+					  new int[] { 0, 1, 2, 3, 5, 6, 7, 4, 8, 9, 10, 11 }, new int[] { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 }),
+		new CubieCube(new int[] { 0, 2, 6, 3, 4, 1, 5, 7 }, new int[] { 0, 1, 2, 0, 0, 2, 1, 0 },
+					  new int[] { 0, 1, 10, 3, 4, 5, 9, 7, 8, 2, 6, 11 }, new int[] { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 }),
+		new CubieCube(new int[] { 0, 1, 3, 7, 4, 5, 2, 6 }, new int[] { 0, 0, 1, 2, 0, 0, 2, 1 },
+					  new int[] { 0, 1, 2, 11, 4, 5, 6, 10, 8, 9, 3, 7 }, new int[] { 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 1, 1 })
+	};
+
+	/**
+	 * Moves of the solvers (cf. {@link #move(int)}) as RubiksCube moves
+	 */
+	private static final DefinedMove[] DEFINED_MOVES = {
+		DefinedMove.of(Move.YAW, 3),     DefinedMove.of(Move.DOUBLE_YAW, 3),   DefinedMove.of(Move.UNYAW, 3),
+		DefinedMove.of(Move.PITCH, 3),   DefinedMove.of(Move.DOUBLE_PITCH, 3), DefinedMove.of(Move.UNPITCH, 3),
+		DefinedMove.of(Move.ROLL, 3),    DefinedMove.of(Move.DOUBLE_ROLL, 3),  DefinedMove.of(Move.UNROLL, 3),
+		DefinedMove.of(Move.UNYAW, 1),   DefinedMove.of(Move.DOUBLE_YAW, 1),   DefinedMove.of(Move.YAW, 1),
+		DefinedMove.of(Move.UNPITCH, 1), DefinedMove.of(Move.DOUBLE_PITCH, 1), DefinedMove.of(Move.PITCH, 1),
+		DefinedMove.of(Move.UNROLL, 1),  DefinedMove.of(Move.DOUBLE_ROLL, 1),  DefinedMove.of(Move.ROLL, 1)
+	};
+
+	final int[] cornerPermutation;
+	final int[] cornerOrientation;
+	final int[] edgePermutation;
+	final int[] edgeOrientation;
+
+	/**
+	 * Solved cube
+	 */
+	CubieCube() {
+		this(new int[] { 0, 1, 2, 3, 4, 5, 6, 7 }, new int[CORNER_COUNT],
+			 new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 }, new int[EDGE_COUNT]);
+	}
+
+	CubieCube(CubieCube cube) {
+		this(cube.cornerPermutation.clone(), cube.cornerOrientation.clone(), cube.edgePermutation.clone(), cube.edgeOrientation.clone());
+	}
+
+	/**
+	 * Copies the cubies of <code>cube</code> into this one, without allocation
+	 */
+	void set(CubieCube cube) {
+		System.arraycopy(cube.cornerPermutation, 0, cornerPermutation, 0, CORNER_COUNT);
+		System.arraycopy(cube.cornerOrientation, 0, cornerOrientation, 0, CORNER_COUNT);
+		System.arraycopy(cube.edgePermutation, 0, edgePermutation, 0, EDGE_COUNT);
+		System.arraycopy(cube.edgeOrientation, 0, edgeOrientation, 0, EDGE_COUNT);
+	}
+
+	private CubieCube(int[] cornerPermutation, int[] cornerOrientation, int[] edgePermutation, int[] edgeOrientation) {
+		this.cornerPermutation = cornerPermutation;
+		this.cornerOrientation = cornerOrientation;
+		this.edgePermutation = edgePermutation;
+		this.edgeOrientation = edgeOrientation;
+	}
+
+	/**
+	 * Reads the cubies of a 3x3 RubiksCube : the colour of each face is given by its center cubie.
+	 * A bigger RubiksCube is read the same way once reduced (centers solved and edges paired, cf. {@link ReductionSolver}) :
+	 * only its corners, one wing of each edge and one center facelet of each face are read.
+	 * Returns <code>null</code> when the configuration cannot be reached from a solved cube.
+	 */
+	static CubieCube fromRubiksCube(RubiksCube rc) {
+		if (rc.getSize() < 3) {
+			LOGGER.error("### ERROR : Cannot read a RubiksCube of size {} as a 3x3 cubie cube", rc.getSize());
+			return null;
+		}
+		return fromColors(getColors(rc), rc);
+	}
+
+	/**
+	 * Same as {@link #fromRubiksCube(RubiksCube)} for a PackedRubiksCube
+	 */
+	static CubieCube fromPackedRubiksCube(PackedRubiksCube packedCube) {
+		if (packedCube.getSize() < 3) {
+			LOGGER.error("### ERROR : Cannot read a RubiksCube of size {} as a 3x3 cubie cube", packedCube.getSize());
+			return null;
+		}
+		return fromColors(getColors(packedCube), packedCube);
+	}
+
+	private static CubieCube fromColors(Facelet[] colors, Object rc) {
+		Facelet[] centerColors = new Facelet[FACES.length];
+		for (int face = 0; face < FACES.length; face++) {
+			centerColors[face] = colors[face * 9 + 4];
+		}
+
+		CubieCube cube = fromColors(colors, centerColors);
+		if (! cube.isValid()) {
+			LOGGER.error("### ERROR : RubiksCube configuration cannot be solved : {}", rc);
+			return null;
+		}
+		return cube;
+	}
+
+	/**
+	 * Reads the cubies from the colours of the 54 facelets (cf. {@link #CORNER_FACELETS}), <code>faceColors</code> being
+	 * the colour of each face : the cubies which cannot be read are left to -1, the cube is not validated
+	 */
+	static CubieCube fromColors(Facelet[] colors, Facelet[] faceColors) {
+		int[] facelets = new int[colors.length];
+		for (int i = 0; i < colors.length; i++) {
+			facelets[i] = Arrays.asList(faceColors).indexOf(colors[i]);
+		}
+
+		CubieCube cube = new CubieCube();
+		Arrays.fill(cube.cornerPermutation, -1);
+		Arrays.fill(cube.edgePermutation, -1);
+
+		for (int i = 0; i < CORNER_COUNT; i++) {
+			cube.setCorner(i, new int[] { facelets[CORNER_FACELETS[i][0]], facelets[CORNER_FACELETS[i][1]], facelets[CORNER_FACELETS[i][2]] });
+		}
+
+		for (int i = 0; i < EDGE_COUNT; i++) {
+			int color1 = facelets[EDGE_FACELETS[i][0]];
+			int color2 = facelets[EDGE_FACELETS[i][1]];
+			for (int j = 0; j < EDGE_COUNT; j++) {
+				if (color1 == EDGE_COLORS[j][0] && color2 == EDGE_COLORS[j][1]) {
+					cube.edgePermutation[i] = j;
+					cube.edgeOrientation[i] = 0;
+				}
+				else if (color1 == EDGE_COLORS[j][1] && color2 == EDGE_COLORS[j][0]) {
+					cube.edgePermutation[i] = j;
+					cube.edgeOrientation[i] = 1;
+				}
+			}
+		}
+		return cube;
+	}
+
+	/**
+	 * Sets the corner at <code>position</code> from the faces of its 3 facelets, given clockwise starting with the
+	 * U or D facelet of the position (cf. {@link #CORNER_COLORS})
+	 */
+	void setCorner(int position, int[] faces) {
+		// The orientation is given by the position of the U or D facelet
+		int orientation = 0;
+		while (orientation < 2 && faces[orientation] != U && faces[orientation] != D)
+			orientation++;
+		int color1 = faces[(orientation + 1) % 3];
+		int color2 = faces[(orientation + 2) % 3];
+		for (int j = 0; j < CORNER_COUNT; j++) {
+			if (color1 == CORNER_COLORS[j][1] && color2 == CORNER_COLORS[j][2]) {
+				cornerPermutation[position] = j;
+				cornerOrientation[position] = orientation;
+			}
+		}
+	}
+
+	/**
+	 * Colours of the 54 facelets of a 3x3 RubiksCube, or of the 3x3 view of a bigger one (cf. {@link #getCoordinates(int, int, int, int)})
+	 */
+	static Facelet[] getColors(RubiksCube rc) {
+		Facelet[] colors = new Facelet[FACES.length * 9];
+		for (int face = 0; face < FACES.length; face++) {
+			for (int row = 0; row < 3; row++) {
+				for (int column = 0; column < 3; column++) {
+					int[] coordinates = getCoordinates(face, row, column, rc.getSize());
+					Cubie cubie = rc.getCubie(coordinates[0], coordinates[1], coordinates[2]);
+					colors[face * 9 + row * 3 + column] = cubie.getFace(FACES[face]);
+				}
+			}
+		}
+		return colors;
+	}
+
+	static Facelet[] getColors(PackedRubiksCube packedCube) {
+		Facelet[] colors = new Facelet[FACES.length * 9];
+		for (int face = 0; face < FACES.length; face++) {
+			for (int row = 0; row < 3; row++) {
+				for (int column = 0; column < 3; column++) {
+					int[] coordinates = getCoordinates(face, row, column, packedCube.getSize());
+					colors[face * 9 + row * 3 + column] = packedCube.getFacelet(FACES[face], coordinates[0], coordinates[1], coordinates[2]);
+				}
+			}
+		}
+		return colors;
+	}
+
+	/**
+	 * Coordinates (x, y, z) of the facelet (row, column) of a face, as seen from outside of the cube (cf. {@link #CORNER_FACELETS}) :
+	 * on a bigger RubiksCube, the middle row and column are its second ones
+	 */
+	private static int[] getCoordinates(int face, int row, int column, int size) {
+		int x, y, z;
+		switch (face) {
+			case U:
+				x = 1 + column; y = 3;       z = 1 + row;
+				break;
+			case R:
+				x = 3;          y = 3 - row; z = 3 - column;
+				break;
+			case F:
+				x = 1 + column; y = 3 - row; z = 3;
+				break;
+			case D:
+				x = 1 + column; y = 1;       z = 3 - row;
+				break;
+			case L:
+				x = 1;          y = 3 - row; z = 1 + column;
+				break;
+			default:
+				x = 3 - column; y = 3 - row; z = 1;
+				break;
+		}
+		return new int[] { x == 3 ? size : x, y == 3 ? size : y, z == 3 ? size : z };
+	}
+
+	/**
+	 * Each cubie is present once, and the orientations and permutation parities are those of a reachable cube
+	 */
+	boolean isValid() {
+		boolean[] corners = new boolean[CORNER_COUNT];
+		int twist = 0;
+		for (int i = 0; i < CORNER_COUNT; i++) {
+			if (cornerPermutation[i] < 0 || corners[cornerPermutation[i]])
+				return false;
+			corners[cornerPermutation[i]] = true;
+			twist += cornerOrientation[i];
+		}
+
+		boolean[] edges = new boolean[EDGE_COUNT];
+		int flip = 0;
+		for (int i = 0; i < EDGE_COUNT; i++) {
+			if (edgePermutation[i] < 0 || edges[edgePermutation[i]])
+				return false;
+			edges[edgePermutation[i]] = true;
+			flip += edgeOrientation[i];
+		}
+
+		return twist % 3 == 0 && flip % 2 == 0 && parity(cornerPermutation) == parity(edgePermutation);
+	}
+
+	/**
+	 * Parity of the corner permutation : 0 when even, 1 when odd
+	 */
+	int getCornerParity() {
+		return parity(cornerPermutation);
+	}
+
+	private static int parity(int[] permutation) {
+		int parity = 0;
+		for (int i = 0; i < permutation.length; i++) {
+			for (int j = i + 1; j < permutation.length; j++) {
+				if (permutation[j] < permutation[i])
+					parity++;
+			}
+		}
+		return parity % 2;
+	}
+
+	/**
+	 * Applies the cube <code>move</code> after this one (e.g. one of the {@link #MOVES})
+	 */
+	void multiply(CubieCube move) {
+		int[] corners = new int[CORNER_COUNT];
+		int[] cornerOrientations = new int[CORNER_COUNT];
+		for (int i = 0; i < CORNER_COUNT; i++) {
+			corners[i] = cornerPermutation[move.cornerPermutation[i]];
+			cornerOrientations[i] = (cornerOrientation[move.cornerPermutation[i]] + move.cornerOrientation[i]) % 3;
+		}
+
+		int[] edges = new int[EDGE_COUNT];
+		int[] edgeOrientations = new int[EDGE_COUNT];
+		for (int i = 0; i < EDGE_COUNT; i++) {
+			edges[i] = edgePermutation[move.edgePermutation[i]];
+			edgeOrientations[i] = (edgeOrientation[move.edgePermutation[i]] + move.edgeOrientation[i]) % 2;
+		}
+
+		System.arraycopy(corners, 0, cornerPermutation, 0, CORNER_COUNT);
+		System.arraycopy(cornerOrientations, 0, cornerOrientation, 0, CORNER_COUNT);
+		System.arraycopy(edges, 0, edgePermutation, 0, EDGE_COUNT);
+		System.arraycopy(edgeOrientations, 0, edgeOrientation, 0, EDGE_COUNT);
+	}
+
+	/**
+	 * Applies a move of the solver : face * 3 + (number of clockwise quarter turns - 1)
+	 */
+	void move(int move) {
+		for (int i = 0; i <= move % 3; i++) {
+			multiply(MOVES[move / 3]);
+		}
+	}
+
+	static DefinedMove toDefinedMove(int move) {
+		return toDefinedMove(move, 3);
+	}
+
+	/**
+	 * Same move on a Rubik's Cube of any size : U, R and F turn its last slice
+	 */
+	static DefinedMove toDefinedMove(int move, int size) {
+		return DefinedMove.of(DEFINED_MOVES[move].getMove(), DEFINED_MOVES[move].getFaceIndex() == 1 ? 1 : size);
+	}
+
+	/**
+	 * Two moves of the same face are merged, and two moves of opposite faces are only tried in one order (U before D, etc.)
+	 */
+	static boolean isRedundant(int previousMove, int move) {
+		int previousFace = previousMove / 3;
+		int face = move / 3;
+		return face == previousFace || face == previousFace - 3;
+	}
+
+	// Phase one coordinates
+	//----------------------
+
+	/**
+	 * Orientation of the first 7 corners, in base 3 : [0-2186]
+	 */
+	int getTwist() {
+		int twist = 0;
+		for (int i = 0; i < CORNER_COUNT - 1; i++) {
+			twist = 3 * twist + cornerOrientation[i];
+		}
+		return twist;
+	}
+
+	void setTwist(int twist) {
+		int sum = 0;
+		for (int i = CORNER_COUNT - 2; i >= 0; i--) {
+			cornerOrientation[i] = twist % 3;
+			sum += cornerOrientation[i];
+			twist /= 3;
+		}
+		cornerOrientation[CORNER_COUNT - 1] = (3 - sum % 3) % 3;
+	}
+
+	/**
+	 * Orientation of the first 11 edges, in base 2 : [0-2047]
+	 */
+	int getFlip() {
+		int flip = 0;
+		for (int i = 0; i < EDGE_COUNT - 1; i++) {
+			flip = 2 * flip + edgeOrientation[i];
+		}
+		return flip;
+	}
+
+	void setFlip(int flip) {
+		int sum = 0;
+		for (int i = EDGE_COUNT - 2; i >= 0; i--) {
+			edgeOrientation[i] = flip % 2;
+			sum += edgeOrientation[i];
+			flip /= 2;
+		}
+		edgeOrientation[EDGE_COUNT - 1] = sum % 2;
+	}
+
+	/**
+	 * Positions of the 4 UD-slice edges (FR, FL, BL, BR), whatever their order : [0-494], 0 when they are all in the slice
+	 */
+	int getSlice() {
+		int slice = 0;
+		int found = 0;
+		for (int i = EDGE_COUNT - 1; i >= 0; i--) {
+			if (edgePermutation[i] >= 8) {
+				slice += binomial(EDGE_COUNT - 1 - i, found + 1);
+				found++;
+			}
+		}
+		return slice;
+	}
+
+	void setSlice(int slice) {
+		int remaining = 4;
+		int sliceEdge = 8;
+		int otherEdge = 0;
+		for (int i = 0; i < EDGE_COUNT; i++) {
+			if (remaining > 0 && slice >= binomial(EDGE_COUNT - 1 - i, remaining)) {
+				slice -= binomial(EDGE_COUNT - 1 - i, remaining);
+				edgePermutation[i] = sliceEdge++;
+				remaining--;
+			}
+			else {
+				edgePermutation[i] = otherEdge++;
+			}
+		}
+	}
+
+	// Phase two coordinates (only meaningful once phase one is done)
+	//----------------------
+
+	/**
+	 * Permutation of the 8 corners : [0-40319]
+	 */
+	int getCornerPermutation() {
+		return getPermutation(cornerPermutation, 0, CORNER_COUNT);
+	}
+
+	void setCornerPermutation(int permutation) {
+		setPermutation(cornerPermutation, 0, CORNER_COUNT, permutation);
+	}
+
+	/**
+	 * Permutation of the 8 edges of the U and D faces : [0-40319]
+	 */
+	int getUDEdgePermutation() {
+		return getPermutation(edgePermutation, 0, 8);
+	}
+
+	void setUDEdgePermutation(int permutation) {
+		setPermutation(edgePermutation, 0, 8, permutation);
+	}
+
+	/**
+	 * Permutation of the 4 UD-slice edges : [0-23]
+	 */
+	int getSlicePermutation() {
+		return getPermutation(edgePermutation, 8, 4);
+	}
+
+	void setSlicePermutation(int permutation) {
+		setPermutation(edgePermutation, 8, 4, permutation);
+	}
+
+	/**
+	 * Lehmer code of <code>permutation[start, start + length[</code>, whose values are in <code>[start, start + length[</code>
+	 */
+	private static int getPermutation(int[] permutation, int start, int length) {
+		int index = 0;
+		for (int i = start; i < start + length; i++) {
+			int smaller = 0;
+			for (int j = i + 1; j < start + length; j++) {
+				if (permutation[j] < permutation[i])
+					smaller++;
+			}
+			index = index * (start + length - i) + smaller;
+		}
+		return index;
+	}
+
+	private static void setPermutation(int[] permutation, int start, int length, int index) {
+		int[] digits = new int[length];
+		for (int i = length - 1; i >= 0; i--) {
+			digits[i] = index % (length - i);
+			index /= length - i;
+		}
+
+		boolean[] used = new boolean[length];
+		for (int i = 0; i < length; i++) {
+			int value = 0;
+			while (used[value])
+				value++;
+			for (int skipped = 0; skipped < digits[i]; skipped++) {
+				value++;
+				while (used[value])
+					value++;
+			}
+			used[value] = true;
+			permutation[start + i] = start + value;
+		}
+	}
+
+	private static int binomial(int n, int k) {
+		if (k > n)
+			return 0;
+		int result = 1;
+		for (int i = 1; i <= k; i++) {
+			result = result * (n - k + i) / i;
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "CubieCube [corners=" + Arrays.toString(cornerPermutation) + ", cornerOrientations=" + Arrays.toString(cornerOrientation)
+			 + ", edges=" + Arrays.toString(edgePermutation) + ", edgeOrientations=" + Arrays.toString(edgeOrientation) + "]";
+	}
+}
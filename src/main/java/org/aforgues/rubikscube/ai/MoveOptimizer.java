@@ -0,0 +1,85 @@
+package org.aforgues.rubikscube.ai;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.aforgues.rubikscube.core.Axis;
+import org.aforgues.rubikscube.core.DefinedMove;
+import org.aforgues.rubikscube.core.Move;
+
+/**
+ * Reduction of a path to an equivalent one with less moves.
+ *
+ * Consecutive moves around the same axis commute (slices as well as whole cube rotations) : each run of them is merged
+ * into the number of quarter turns of each slice modulo 4, then written back with at most one move per slice. A run
+ * which cancels out is removed, which may bring two runs around the same axis together : they are merged in turn. Time
+ * is linear in the length of the path (times the size of the cube for whole cube rotations).
+ *
+ * The optimized path is made of slice moves only, even if whole cube rotations were merged into it : the players of a
+ * path (such as the 3D game) animate slice moves.
+ */
+public final class MoveOptimizer {
+
+	private static final Axis[] AXES = Axis.values();
+
+	private MoveOptimizer() {
+	}
+
+	/**
+	 * Returns the optimized path of a RubiksCube of size <code>size</code> (<code>path</code> is left unchanged)
+	 */
+	public static List<DefinedMove> optimize(List<DefinedMove> path, int size) {
+		// Runs of moves around the same axis : index 0 is the axis, index i the quarter turns of slice i
+		Deque<int[]> runs = new ArrayDeque<int[]>();
+		for (DefinedMove move : path) {
+			int axis = move.getMove().getAxis().ordinal();
+			int quarterTurns = move.getMove().getQuarterTurns();
+
+			int[] run = runs.peekLast();
+			if (run == null || run[0] != axis) {
+				run = new int[size + 1];
+				run[0] = axis;
+				runs.addLast(run);
+			}
+
+			if (move.isFaceMove()) {
+				for (int index = 1; index <= size; index++) {
+					run[index] = (run[index] + quarterTurns) & 3;
+				}
+			}
+			else {
+				run[move.getFaceIndex()] = (run[move.getFaceIndex()] + quarterTurns) & 3;
+			}
+
+			if (isIdentity(run))
+				runs.removeLast();
+		}
+
+		List<DefinedMove> optimizedPath = new ArrayList<DefinedMove>(path.size());
+		for (int[] run : runs) {
+			addMoves(optimizedPath, run);
+		}
+		return optimizedPath;
+	}
+
+	private static boolean isIdentity(int[] run) {
+		for (int index = 1; index < run.length; index++) {
+			if (run[index] != 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Writes a run with one move per turned slice
+	 */
+	private static void addMoves(List<DefinedMove> path, int[] run) {
+		Axis axis = AXES[run[0]];
+		for (int index = 1; index < run.length; index++) {
+			if (run[index] != 0)
+				path.add(DefinedMove.of(Move.valueOf(axis, run[index]), index));
+		}
+	}
+}
@@ -0,0 +1,338 @@
+package org.aforgues.rubikscube.ai;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.aforgues.rubikscube.core.DefinedMove;
+import org.aforgues.rubikscube.core.RubiksCube;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Optimal 3x3 Rubik's Cube solver : IDA* search bounded by Korf's pattern databases (cf. {@link PatternDatabases}).
+ *
+ * Solutions are the shortest ones in face turn metric (at most 20 moves), which may take from milliseconds for short
+ * scrambles to minutes for random ones : this solver is meant for offline jobs, the {@link TwoPhaseSolver} being the
+ * one to use for interactive solving.
+ * The pattern databases are shared and read-only : a solver may be used by several threads at the same time.
+ *
+ * Deep iterations are searched in parallel on a {@link ForkJoinPool} : the first levels of the move tree are split into
+ * subtree tasks (cf. {@link SubtreeTask}) which share the iteration bound, and all of them stop as soon as one finds a solution.
+ *
+ * As a {@link Solver}, the search also stops when the time budget is elapsed or the token is cancelled, without solution :
+ * an optimal solution cannot be improved, so the target length is ignored.
+ */
+public class OptimalSolver implements Solver {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OptimalSolver.class);
+
+	public static final int GODS_NUMBER = 20;
+
+	/**
+	 * Number of levels of the move tree split into parallel tasks (about 3 000 subtrees at the third level)
+	 */
+	private static final int SPLIT_DEPTH = 3;
+
+	/**
+	 * Iterations up to this depth are searched sequentially : they are too short to be worth splitting
+	 */
+	private static final int MAX_SEQUENTIAL_DEPTH = 10;
+
+	/**
+	 * Each subtree task checks the time budget and the cancellation every 65536 nodes (about a millisecond)
+	 */
+	private static final int STOP_CHECK_MASK = 65536 - 1;
+
+	private static final String DEFAULT_FILE_NAME = "rubikscube-pattern-databases.bin";
+
+	private final File patternDatabasesFile;
+	private final ForkJoinPool pool;
+	private final int maxSequentialDepth;
+
+	// Loaded before each solve under the lock of loadDatabases(), which publishes it to the solving thread and its tasks
+	private PatternDatabases databases;
+
+	/**
+	 * Solver registered as a service : the pattern databases of the temporary directory are loaded on first solve
+	 * (about 40 s the first time, to generate them)
+	 */
+	public OptimalSolver() {
+		this.patternDatabasesFile = new File(System.getProperty("java.io.tmpdir"), DEFAULT_FILE_NAME);
+		this.pool = ForkJoinPool.commonPool();
+		this.maxSequentialDepth = MAX_SEQUENTIAL_DEPTH;
+	}
+
+	/**
+	 * Loads the pattern databases from <code>patternDatabasesFile</code>, generating it on first use (about 90 MB),
+	 * and searches on the common ForkJoinPool
+	 */
+	public OptimalSolver(File patternDatabasesFile) throws IOException {
+		this(patternDatabasesFile, ForkJoinPool.commonPool());
+	}
+
+	public OptimalSolver(File patternDatabasesFile, ForkJoinPool pool) throws IOException {
+		this(patternDatabasesFile, pool, MAX_SEQUENTIAL_DEPTH);
+	}
+
+	/**
+	 * Iterations deeper than <code>maxSequentialDepth</code> are searched in parallel (for test purpose)
+	 */
+	OptimalSolver(File patternDatabasesFile, ForkJoinPool pool, int maxSequentialDepth) throws IOException {
+		this.patternDatabasesFile = patternDatabasesFile;
+		this.pool = pool;
+		this.maxSequentialDepth = maxSequentialDepth;
+		this.databases = PatternDatabases.load(patternDatabasesFile);
+	}
+
+	@Override
+	public String getName() {
+		return "optimal";
+	}
+
+	@Override
+	public boolean supports(int size) {
+		return size == 3;
+	}
+
+	/**
+	 * Random scrambles take from seconds to minutes, depending on the number of cores
+	 */
+	@Override
+	public long getExpectedLatencyMillis(int size) {
+		return 60000;
+	}
+
+	@Override
+	public int getExpectedLength(int size) {
+		return 18;
+	}
+
+	/**
+	 * Returns a shortest solution found in <code>timeBudgetMillis</code> and before <code>token</code> is cancelled,
+	 * <code>null</code> otherwise
+	 */
+	@Override
+	public List<DefinedMove> solve(RubiksCube rc, int targetLength, long timeBudgetMillis, CancellationToken token) {
+		try {
+			loadDatabases();
+		} catch (IOException e) {
+			LOGGER.error("### ERROR : cannot load the pattern databases", e);
+			return null;
+		}
+
+		CubieCube cube = CubieCube.fromRubiksCube(rc);
+		if (cube == null)
+			return null;
+
+		return toDefinedMoves(solve(cube, GODS_NUMBER, System.currentTimeMillis() + timeBudgetMillis, token), rc.getSize());
+	}
+
+	/**
+	 * Returns a shortest solution, or <code>null</code> when the RubiksCube cannot be solved
+	 */
+	public List<DefinedMove> solve(RubiksCube rc) {
+		return solve(rc, GODS_NUMBER);
+	}
+
+	/**
+	 * Returns a shortest solution if it has at most <code>maxLength</code> moves, <code>null</code> otherwise
+	 */
+	public List<DefinedMove> solve(RubiksCube rc, int maxLength) {
+		CubieCube cube = CubieCube.fromRubiksCube(rc);
+		if (cube == null)
+			return null;
+
+		return toDefinedMoves(solve(cube, maxLength), rc.getSize());
+	}
+
+	int[] solve(CubieCube cube, int maxLength) {
+		return solve(cube, maxLength, Long.MAX_VALUE, null);
+	}
+
+	private int[] solve(CubieCube cube, int maxLength, long deadline, CancellationToken token) {
+		long start = System.currentTimeMillis();
+
+		int corners = databases.getCornerState(cube);
+		int firstEdges = databases.getEdgeState(cube, 0);
+		int secondEdges = databases.getEdgeState(cube, PatternDatabases.EDGE_GROUP_SIZE);
+
+		AtomicLong nodes = new AtomicLong();
+		for (int bound = distance(corners, firstEdges, secondEdges); bound <= maxLength; bound++) {
+			if (LOGGER.isDebugEnabled())
+				LOGGER.debug("AI : optimal search at depth {} ({} nodes so far)", bound, nodes.get());
+
+			Iteration iteration = new Iteration(bound, nodes, deadline, token);
+			SubtreeTask root = new SubtreeTask(iteration, new int[0], corners, firstEdges, secondEdges);
+			if (bound <= maxSequentialDepth) {
+				root.search();
+			}
+			else {
+				pool.invoke(root);
+			}
+
+			if (iteration.solution.get() != null) {
+				LOGGER.info("AI : optimal solution of {} moves found in {} ms ({} nodes)", bound, System.currentTimeMillis() - start, nodes.get());
+				return iteration.solution.get();
+			}
+			if (iteration.stopped) {
+				LOGGER.info("AI : optimal search stopped at depth {} ({} ms, {} nodes)", bound, System.currentTimeMillis() - start, nodes.get());
+				return null;
+			}
+		}
+
+		LOGGER.info("AI : no solution of at most {} moves ({} ms, {} nodes)", maxLength, System.currentTimeMillis() - start, nodes.get());
+		return null;
+	}
+
+	private synchronized void loadDatabases() throws IOException {
+		if (databases == null)
+			databases = PatternDatabases.load(patternDatabasesFile);
+	}
+
+	private static List<DefinedMove> toDefinedMoves(int[] solution, int size) {
+		if (solution == null)
+			return null;
+
+		List<DefinedMove> moves = new ArrayList<DefinedMove>(solution.length);
+		for (int move : solution) {
+			moves.add(CubieCube.toDefinedMove(move, size));
+		}
+		return moves;
+	}
+
+	private int distance(int corners, int firstEdges, int secondEdges) {
+		return Math.max(databases.getCornerDistance(corners),
+						Math.max(databases.getFirstEdgeDistance(firstEdges), databases.getSecondEdgeDistance(secondEdges)));
+	}
+
+	/**
+	 * State shared by all the tasks of an iteration : the first solution found, or the time budget elapsed or the
+	 * cancellation, stops the other tasks
+	 */
+	private static final class Iteration {
+		private final int bound;
+		private final AtomicLong nodes;
+		private final long deadline;
+		private final CancellationToken token;
+
+		private final AtomicReference<int[]> solution = new AtomicReference<int[]>();
+		private volatile boolean stopped;
+
+		Iteration(int bound, AtomicLong nodes, long deadline, CancellationToken token) {
+			this.bound = bound;
+			this.nodes = nodes;
+			this.deadline = deadline;
+			this.token = token;
+		}
+
+		boolean isDone() {
+			return stopped || solution.get() != null;
+		}
+
+		void checkStop() {
+			if ((token != null && token.isCancelled()) || System.currentTimeMillis() > deadline)
+				stopped = true;
+		}
+	}
+
+	/**
+	 * Search of the solutions of exactly <code>bound</code> moves starting with the moves <code>prefix</code> :
+	 * forks one task per child up to {@link #SPLIT_DEPTH}, then searches its subtree depth first
+	 */
+	private final class SubtreeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Iteration iteration;
+
+		private final int[] prefix;
+		private final int corners;
+		private final int firstEdges;
+		private final int secondEdges;
+
+		// Depth first search state
+		private int[] path;
+		private long subtreeNodes;
+
+		SubtreeTask(Iteration iteration, int[] prefix, int corners, int firstEdges, int secondEdges) {
+			this.iteration = iteration;
+			this.prefix = prefix;
+			this.corners = corners;
+			this.firstEdges = firstEdges;
+			this.secondEdges = secondEdges;
+		}
+
+		@Override
+		protected void compute() {
+			int depth = prefix.length;
+			iteration.checkStop();
+			if (iteration.isDone())
+				return;
+
+			if (depth >= SPLIT_DEPTH || depth == iteration.bound) {
+				search();
+				return;
+			}
+
+			List<SubtreeTask> children = new ArrayList<SubtreeTask>(PatternDatabases.MOVE_COUNT);
+			for (int move = 0; move < PatternDatabases.MOVE_COUNT; move++) {
+				if (depth > 0 && CubieCube.isRedundant(prefix[depth - 1], move))
+					continue;
+
+				int nextCorners = databases.nextCornerState(corners, move);
+				int nextFirstEdges = databases.nextEdgeState(firstEdges, move);
+				int nextSecondEdges = databases.nextEdgeState(secondEdges, move);
+				if (distance(nextCorners, nextFirstEdges, nextSecondEdges) >= iteration.bound - depth)
+					continue;
+
+				int[] childPrefix = Arrays.copyOf(prefix, depth + 1);
+				childPrefix[depth] = move;
+				children.add(new SubtreeTask(iteration, childPrefix, nextCorners, nextFirstEdges, nextSecondEdges));
+			}
+			invokeAll(children);
+		}
+
+		void search() {
+			path = Arrays.copyOf(prefix, iteration.bound);
+			if (run(corners, firstEdges, secondEdges, prefix.length, iteration.bound - prefix.length))
+				iteration.solution.compareAndSet(null, path);
+			iteration.nodes.addAndGet(subtreeNodes);
+		}
+
+		/**
+		 * Depth first search of solutions of exactly <code>depth + remaining</code> moves
+		 */
+		private boolean run(int corners, int firstEdges, int secondEdges, int depth, int remaining) {
+			if ((++subtreeNodes & STOP_CHECK_MASK) == 0)
+				iteration.checkStop();
+			if (remaining == 0)
+				return distance(corners, firstEdges, secondEdges) == 0;
+
+			// Another task found a solution of the current iteration, or the search is stopped
+			if (iteration.isDone())
+				return false;
+
+			for (int move = 0; move < PatternDatabases.MOVE_COUNT; move++) {
+				if (depth > 0 && CubieCube.isRedundant(path[depth - 1], move))
+					continue;
+
+				int nextCorners = databases.nextCornerState(corners, move);
+				int nextFirstEdges = databases.nextEdgeState(firstEdges, move);
+				int nextSecondEdges = databases.nextEdgeState(secondEdges, move);
+				if (distance(nextCorners, nextFirstEdges, nextSecondEdges) >= remaining)
+					continue;
+
+				path[depth] = move;
+				if (run(nextCorners, nextFirstEdges, nextSecondEdges, depth + 1, remaining - 1))
+					return true;
+			}
+			return false;
+		}
+	}
+}
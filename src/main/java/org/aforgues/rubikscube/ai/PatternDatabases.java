@@ -0,0 +1,326 @@
+package org.aforgues.rubikscube.ai;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Korf's pattern databases of the optimal solver (cf. {@link OptimalSolver}) : exact number of moves needed to solve
+ * the 8 corners, the first 6 edges (UR, UF, UL, UB, DR, DF) and the last 6 edges (DL, DB, FR, FL, BL, BR) of a 3x3
+ * Rubik's Cube, each one regardless of the other cubies.
+ *
+ * Distances are stored on 4 bits per state : 44 MB for the 88 179 840 corner states and 21 MB for the 42 577 920
+ * states of each edge group. They are generated once by breadth first search, written to a file and then memory mapped
+ * from this file, so that they are neither regenerated nor copied in the heap on the next loads.
+ * The move tables of the coordinates (a few MB) are computed in a few seconds on each load.
+ */
+final class PatternDatabases {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PatternDatabases.class);
+
+	private static final int MAGIC = 0x52435044;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 16;
+
+	static final int MOVE_COUNT = 18;
+
+	static final int TWIST_COUNT = 2187;
+	static final int CORNER_PERMUTATION_COUNT = 40320;
+	static final int CORNER_STATE_COUNT = CORNER_PERMUTATION_COUNT * TWIST_COUNT;
+
+	/**
+	 * An edge group is the ordered positions of its 6 edges (12! / 6! arrangements) and their orientations (2^6)
+	 */
+	static final int EDGE_GROUP_SIZE = 6;
+	static final int EDGE_POSITION_COUNT = 665280;
+	static final int EDGE_ORIENTATION_COUNT = 1 << EDGE_GROUP_SIZE;
+	static final int EDGE_STATE_COUNT = EDGE_POSITION_COUNT * EDGE_ORIENTATION_COUNT;
+
+	private static final int UNKNOWN = 0xF;
+
+	// Move tables : index coordinate * MOVE_COUNT + move
+	private final int[] cornerPermutationMove;
+	private final int[] twistMove;
+	private final int[] edgePositionMove;
+	private final byte[] edgeFlipMove;
+
+	// Distances, 4 bits per state
+	private ByteBuffer cornerDistances;
+	private ByteBuffer firstEdgeDistances;
+	private ByteBuffer secondEdgeDistances;
+
+	/**
+	 * Memory maps the pattern databases of <code>file</code>, after generating them if the file does not exist or is not valid
+	 */
+	static PatternDatabases load(File file) throws IOException {
+		PatternDatabases databases = new PatternDatabases();
+		if (! databases.map(file)) {
+			databases.generate(file);
+			if (! databases.map(file))
+				throw new IOException("Invalid pattern databases file : " + file);
+		}
+		return databases;
+	}
+
+	private PatternDatabases() {
+		long start = System.currentTimeMillis();
+
+		CubieCube cube = new CubieCube();
+		cornerPermutationMove = new int[CORNER_PERMUTATION_COUNT * MOVE_COUNT];
+		for (int permutation = 0; permutation < CORNER_PERMUTATION_COUNT; permutation++) {
+			for (int move = 0; move < MOVE_COUNT; move++) {
+				cube.setCornerPermutation(permutation);
+				cube.move(move);
+				cornerPermutationMove[permutation * MOVE_COUNT + move] = cube.getCornerPermutation();
+			}
+		}
+
+		twistMove = new int[TWIST_COUNT * MOVE_COUNT];
+		for (int twist = 0; twist < TWIST_COUNT; twist++) {
+			for (int move = 0; move < MOVE_COUNT; move++) {
+				cube.setTwist(twist);
+				cube.move(move);
+				twistMove[twist * MOVE_COUNT + move] = cube.getTwist();
+			}
+		}
+
+		// Destination and flip of the edge at each position, for each move
+		int[][] edgeDestinations = new int[MOVE_COUNT][CubieCube.EDGE_COUNT];
+		int[][] edgeFlips = new int[MOVE_COUNT][CubieCube.EDGE_COUNT];
+		for (int move = 0; move < MOVE_COUNT; move++) {
+			CubieCube moved = new CubieCube();
+			moved.move(move);
+			for (int position = 0; position < CubieCube.EDGE_COUNT; position++) {
+				edgeDestinations[move][moved.edgePermutation[position]] = position;
+				edgeFlips[move][moved.edgePermutation[position]] = moved.edgeOrientation[position];
+			}
+		}
+
+		edgePositionMove = new int[EDGE_POSITION_COUNT * MOVE_COUNT];
+		edgeFlipMove = new byte[EDGE_POSITION_COUNT * MOVE_COUNT];
+		int[] positions = new int[EDGE_GROUP_SIZE];
+		int[] nextPositions = new int[EDGE_GROUP_SIZE];
+		for (int index = 0; index < EDGE_POSITION_COUNT; index++) {
+			unrankPositions(index, positions);
+			for (int move = 0; move < MOVE_COUNT; move++) {
+				int flips = 0;
+				for (int i = 0; i < EDGE_GROUP_SIZE; i++) {
+					nextPositions[i] = edgeDestinations[move][positions[i]];
+					flips |= edgeFlips[move][positions[i]] << i;
+				}
+				edgePositionMove[index * MOVE_COUNT + move] = rankPositions(nextPositions);
+				edgeFlipMove[index * MOVE_COUNT + move] = (byte) flips;
+			}
+		}
+
+		if (LOGGER.isDebugEnabled())
+			LOGGER.debug("AI : optimal solver move tables built in {} ms", System.currentTimeMillis() - start);
+	}
+
+	// Coordinates
+	//------------
+
+	int getCornerState(CubieCube cube) {
+		return cube.getCornerPermutation() * TWIST_COUNT + cube.getTwist();
+	}
+
+	int nextCornerState(int state, int move) {
+		return cornerPermutationMove[(state / TWIST_COUNT) * MOVE_COUNT + move] * TWIST_COUNT + twistMove[(state % TWIST_COUNT) * MOVE_COUNT + move];
+	}
+
+	/**
+	 * State of the edge group starting with edge <code>firstEdge</code> : ranked positions * 64 + orientations
+	 * (bit i is the orientation of edge <code>firstEdge + i</code>)
+	 */
+	int getEdgeState(CubieCube cube, int firstEdge) {
+		int[] positions = new int[EDGE_GROUP_SIZE];
+		int orientations = 0;
+		for (int position = 0; position < CubieCube.EDGE_COUNT; position++) {
+			int edge = cube.edgePermutation[position] - firstEdge;
+			if (edge >= 0 && edge < EDGE_GROUP_SIZE) {
+				positions[edge] = position;
+				orientations |= cube.edgeOrientation[position] << edge;
+			}
+		}
+		return rankPositions(positions) * EDGE_ORIENTATION_COUNT + orientations;
+	}
+
+	int nextEdgeState(int state, int move) {
+		int index = (state / EDGE_ORIENTATION_COUNT) * MOVE_COUNT + move;
+		return edgePositionMove[index] * EDGE_ORIENTATION_COUNT + ((state % EDGE_ORIENTATION_COUNT) ^ edgeFlipMove[index]);
+	}
+
+	/**
+	 * Rank of distinct positions among 12 : mixed radix 12, 11, 10, 9, 8, 7 on the rank of each position among the remaining ones
+	 */
+	private static int rankPositions(int[] positions) {
+		int rank = 0;
+		for (int i = 0; i < EDGE_GROUP_SIZE; i++) {
+			int smaller = positions[i];
+			for (int j = 0; j < i; j++) {
+				if (positions[j] < positions[i])
+					smaller--;
+			}
+			rank = rank * (CubieCube.EDGE_COUNT - i) + smaller;
+		}
+		return rank;
+	}
+
+	private static void unrankPositions(int rank, int[] positions) {
+		int[] digits = new int[EDGE_GROUP_SIZE];
+		for (int i = EDGE_GROUP_SIZE - 1; i >= 0; i--) {
+			digits[i] = rank % (CubieCube.EDGE_COUNT - i);
+			rank /= CubieCube.EDGE_COUNT - i;
+		}
+
+		boolean[] used = new boolean[CubieCube.EDGE_COUNT];
+		for (int i = 0; i < EDGE_GROUP_SIZE; i++) {
+			int position = -1;
+			for (int remaining = digits[i]; remaining >= 0; remaining--) {
+				position++;
+				while (used[position])
+					position++;
+			}
+			used[position] = true;
+			positions[i] = position;
+		}
+	}
+
+	// Distances
+	//----------
+
+	int getCornerDistance(int state) {
+		return getDistance(cornerDistances, state);
+	}
+
+	int getFirstEdgeDistance(int state) {
+		return getDistance(firstEdgeDistances, state);
+	}
+
+	int getSecondEdgeDistance(int state) {
+		return getDistance(secondEdgeDistances, state);
+	}
+
+	private static int getDistance(ByteBuffer distances, int state) {
+		return (distances.get(state >>> 1) >> ((state & 1) << 2)) & 0xF;
+	}
+
+	private static int getDistance(byte[] distances, int state) {
+		return (distances[state >>> 1] >> ((state & 1) << 2)) & 0xF;
+	}
+
+	private static void setDistance(byte[] distances, int state, int distance) {
+		int shift = (state & 1) << 2;
+		distances[state >>> 1] = (byte) ((distances[state >>> 1] & ~(0xF << shift)) | (distance << shift));
+	}
+
+	// Generation and persistence
+	//---------------------------
+
+	private void generate(File file) throws IOException {
+		LOGGER.info("AI : generating optimal solver pattern databases into {}", file);
+
+		CubieCube solved = new CubieCube();
+		File temporary = new File(file.getPath() + ".tmp");
+		RandomAccessFile output = new RandomAccessFile(temporary, "rw");
+		try {
+			output.setLength(0);
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(CORNER_STATE_COUNT);
+			output.writeInt(EDGE_STATE_COUNT);
+			output.write(generateDistances(CORNER_STATE_COUNT, getCornerState(solved), true));
+			output.write(generateDistances(EDGE_STATE_COUNT, getEdgeState(solved, 0), false));
+			output.write(generateDistances(EDGE_STATE_COUNT, getEdgeState(solved, EDGE_GROUP_SIZE), false));
+		} finally {
+			output.close();
+		}
+
+		// The file only appears once complete
+		Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Breadth first search from the solved state, depth by depth
+	 */
+	private byte[] generateDistances(int stateCount, int solvedState, boolean corners) {
+		long start = System.currentTimeMillis();
+
+		byte[] distances = new byte[(stateCount + 1) / 2];
+		Arrays.fill(distances, (byte) 0xFF);
+		setDistance(distances, solvedState, 0);
+
+		int done = 1;
+		for (int depth = 0; done < stateCount; depth++) {
+			int found = 0;
+			for (int state = 0; state < stateCount; state++) {
+				if (getDistance(distances, state) != depth)
+					continue;
+
+				for (int move = 0; move < MOVE_COUNT; move++) {
+					int next = corners ? nextCornerState(state, move) : nextEdgeState(state, move);
+					if (getDistance(distances, next) == UNKNOWN) {
+						setDistance(distances, next, depth + 1);
+						found++;
+					}
+				}
+			}
+			if (found == 0)
+				break;
+			done += found;
+
+			if (LOGGER.isDebugEnabled())
+				LOGGER.debug("AI : {} pattern database - {} states at depth {}", corners ? "corner" : "edge", found, depth + 1);
+		}
+
+		LOGGER.info("AI : {} pattern database of {} states generated in {} ms", corners ? "corner" : "edge", stateCount, System.currentTimeMillis() - start);
+		return distances;
+	}
+
+	/**
+	 * Memory maps the pattern databases : returns false when the file does not exist or has not the expected layout
+	 */
+	private boolean map(File file) throws IOException {
+		long cornerSize = (CORNER_STATE_COUNT + 1) / 2;
+		long edgeSize = (EDGE_STATE_COUNT + 1) / 2;
+		if (! file.isFile() || file.length() != HEADER_SIZE + cornerSize + 2 * edgeSize)
+			return false;
+
+		RandomAccessFile input = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = input.getChannel();
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+			 || buffer.getInt(8) != CORNER_STATE_COUNT || buffer.getInt(12) != EDGE_STATE_COUNT) {
+				LOGGER.warn("AI : {} is not a pattern databases file of version {} => regenerating it", file, VERSION);
+				return false;
+			}
+
+			// The mapping remains valid once the channel is closed
+			cornerDistances = slice(buffer, HEADER_SIZE, cornerSize);
+			firstEdgeDistances = slice(buffer, HEADER_SIZE + cornerSize, edgeSize);
+			secondEdgeDistances = slice(buffer, HEADER_SIZE + cornerSize + edgeSize, edgeSize);
+		} finally {
+			input.close();
+		}
+
+		LOGGER.info("AI : optimal solver pattern databases mapped from {}", file);
+		return true;
+	}
+
+	private static ByteBuffer slice(ByteBuffer buffer, long offset, long length) {
+		ByteBuffer view = buffer.duplicate();
+		view.position((int) offset);
+		view.limit((int) (offset + length));
+		return view.slice();
+	}
+}
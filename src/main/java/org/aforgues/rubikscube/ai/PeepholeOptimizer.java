@@ -0,0 +1,142 @@
+package org.aforgues.rubikscube.ai;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.aforgues.rubikscube.core.CubeStateKey;
+import org.aforgues.rubikscube.core.DefinedMove;
+import org.aforgues.rubikscube.core.Move;
+import org.aforgues.rubikscube.core.PackedRubiksCube;
+
+/**
+ * Peephole rewriting of the paths of a 3x3 RubiksCube : every window of at most {@link #MAX_WINDOW_LENGTH} consecutive
+ * moves is looked up, by the state it leads to, in a table of the shortest sequences of at most {@link #MAX_IDENTITY_LENGTH}
+ * slice moves. A window with a shorter equivalent is replaced by it, for instance a slice turned between a whole cube
+ * rotation and its inverse becomes a single slice move. Replacements never contain whole cube rotations.
+ *
+ * The path is read once, its moves being pushed on the optimized path : after each push, the windows ending with the new
+ * move are looked up, their states being computed incrementally from the end. A replacement is pushed back in turn, so
+ * that it can be merged with the previous moves. Each replacement shortens the path : the time is linear in its length.
+ *
+ * Only the 3x3 is supported : its facelets tell every cubie apart, so that two sequences leading to the same state from
+ * the solved cube are equivalent from any state (which is not true for the identical center pieces of bigger cubes).
+ * The table is built on first use.
+ */
+public class PeepholeOptimizer {
+
+	public static final int SIZE = 3;
+	public static final int MAX_WINDOW_LENGTH = 8;
+	public static final int MAX_IDENTITY_LENGTH = 3;
+
+	private static PeepholeOptimizer instance;
+
+	/**
+	 * Shortest sequence leading to each state from the solved cube
+	 */
+	private final Map<CubeStateKey, DefinedMove[]> shortestSequences = new HashMap<CubeStateKey, DefinedMove[]>();
+
+	/**
+	 * Inverse of each move, indexed by its ordinal
+	 */
+	private final DefinedMove[] inverses = new DefinedMove[DefinedMove.count(SIZE)];
+
+	private PeepholeOptimizer() {
+		buildTable();
+	}
+
+	public static synchronized PeepholeOptimizer getInstance() {
+		if (instance == null)
+			instance = new PeepholeOptimizer();
+		return instance;
+	}
+
+	/**
+	 * Returns the optimized path of a 3x3 RubiksCube (<code>path</code> is left unchanged)
+	 */
+	public List<DefinedMove> optimize(List<DefinedMove> path) {
+		List<DefinedMove> optimizedPath = new ArrayList<DefinedMove>(path.size());
+		Deque<DefinedMove> replacements = new ArrayDeque<DefinedMove>();
+		PackedRubiksCube window = new PackedRubiksCube(SIZE);
+
+		int next = 0;
+		while (! replacements.isEmpty() || next < path.size()) {
+			optimizedPath.add(replacements.isEmpty() ? path.get(next++) : replacements.pollFirst());
+
+			// Inverse of each window ending with the new move, the longest gain winning
+			window.reset();
+			DefinedMove[] bestSequence = null;
+			int bestWindowLength = 0;
+			int maxWindowLength = Math.min(MAX_WINDOW_LENGTH, optimizedPath.size());
+			for (int length = 1; length <= maxWindowLength; length++) {
+				window.move(inverse(optimizedPath.get(optimizedPath.size() - length)));
+				DefinedMove[] sequence = shortestSequences.get(window.exactStateKey());
+				if (sequence != null && length - sequence.length > bestWindowLength - (bestSequence == null ? 0 : bestSequence.length)) {
+					bestSequence = sequence;
+					bestWindowLength = length;
+				}
+			}
+			if (bestSequence == null)
+				continue;
+
+			// The window is the inverse of the sequence leading to the state of its inverse
+			for (int i = 0; i < bestWindowLength; i++) {
+				optimizedPath.remove(optimizedPath.size() - 1);
+			}
+			for (DefinedMove move : bestSequence) {
+				replacements.addFirst(inverse(move));
+			}
+		}
+		return optimizedPath;
+	}
+
+	/**
+	 * Breadth first search from the solved cube : the first sequence reaching a state is one of the shortest
+	 */
+	private void buildTable() {
+		// Replacements are made of slice moves only, which every player of a path (such as the 3D game) can animate
+		List<DefinedMove> moves = new ArrayList<DefinedMove>();
+		for (DefinedMove move : DefinedMove.values(SIZE)) {
+			Move inverse = Move.valueOf(move.getMove().getAxis(), 4 - move.getMove().getQuarterTurns());
+			inverses[move.getOrdinal()] = DefinedMove.of(inverse, move.getFaceIndex());
+			if (! move.isFaceMove())
+				moves.add(move);
+		}
+
+		PackedRubiksCube cube = new PackedRubiksCube(SIZE);
+		shortestSequences.put(cube.exactStateKey(), new DefinedMove[0]);
+
+		List<DefinedMove[]> sequences = new ArrayList<DefinedMove[]>();
+		sequences.add(new DefinedMove[0]);
+		for (int length = 1; length <= MAX_IDENTITY_LENGTH; length++) {
+			List<DefinedMove[]> nextSequences = new ArrayList<DefinedMove[]>();
+			for (DefinedMove[] sequence : sequences) {
+				cube.reset();
+				for (DefinedMove move : sequence) {
+					cube.move(move);
+				}
+
+				for (DefinedMove move : moves) {
+					cube.move(move);
+					CubeStateKey key = cube.exactStateKey();
+					if (! shortestSequences.containsKey(key)) {
+						DefinedMove[] nextSequence = new DefinedMove[length];
+						System.arraycopy(sequence, 0, nextSequence, 0, sequence.length);
+						nextSequence[sequence.length] = move;
+						shortestSequences.put(key, nextSequence);
+						nextSequences.add(nextSequence);
+					}
+					cube.move(inverse(move));
+				}
+			}
+			sequences = nextSequences;
+		}
+	}
+
+	private DefinedMove inverse(DefinedMove move) {
+		return inverses[move.getOrdinal()];
+	}
+}
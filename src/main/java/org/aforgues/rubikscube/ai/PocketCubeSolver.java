@@ -0,0 +1,421 @@
+package org.aforgues.rubikscube.ai;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.aforgues.rubikscube.core.Cubie;
+import org.aforgues.rubikscube.core.DefinedMove;
+import org.aforgues.rubikscube.core.Face;
+import org.aforgues.rubikscube.core.Facelet;
+import org.aforgues.rubikscube.core.RubiksCube;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Optimal solver of the 2x2 Rubik's Cube (pocket cube) from the distance of all its states.
+ *
+ * The DBL corner (x = 1, y = 1, z = 1) is kept in place and gives the colours of the D, B and L faces, so that only
+ * the U, R and F moves are needed : a state is the permutation of the 7 other corners (7!) and their orientations (3^6),
+ * which makes 3 674 160 states. Their distance to the solved state is stored modulo 3 on 2 bits (900 KB), which is
+ * enough to walk down to the solved state : each move changes the distance by -1, 0 or +1.
+ *
+ * The distances are computed once by breadth first search, written to a file and then memory mapped from this file.
+ * As a {@link Solver}, the solution is optimal at once : the target length, the time budget and the cancellation are ignored.
+ */
+public class PocketCubeSolver implements Solver {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PocketCubeSolver.class);
+
+	public static final int SIZE = 2;
+
+	private static final String DEFAULT_FILE_NAME = "rubikscube-2x2-distances.bin";
+
+	private static final int MAGIC = 0x52433244;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 12;
+
+	// U, R and F moves of CubieCube
+	private static final int MOVE_COUNT = 9;
+
+	private static final int PERMUTATION_COUNT = 5040;
+	private static final int TWIST_COUNT = 729;
+	static final int STATE_COUNT = PERMUTATION_COUNT * TWIST_COUNT;
+
+	private static final int UNKNOWN = 3;
+
+	// Fixed corner and positions of the 7 others (cf. CubieCube)
+	private static final int DBL = 6;
+	private static final int[] POSITIONS = { 0, 1, 2, 3, 4, 5, 7 };
+
+	/**
+	 * Coordinates (x, y, z of a 2x2 Rubik's Cube) and faces of each CubieCube corner position, U or D facelet first
+	 */
+	private static final int[][] CORNER_COORDINATES = {
+		{ 2, 2, 2 }, { 1, 2, 2 }, { 1, 2, 1 }, { 2, 2, 1 }, { 2, 1, 2 }, { 1, 1, 2 }, { 1, 1, 1 }, { 2, 1, 1 }
+	};
+	private static final Face[][] CORNER_FACES = {
+		{ Face.TOP, Face.RIGHT, Face.FRONT },   { Face.TOP, Face.FRONT, Face.LEFT },
+		{ Face.TOP, Face.LEFT, Face.BACK },     { Face.TOP, Face.BACK, Face.RIGHT },
+		{ Face.BOTTOM, Face.FRONT, Face.RIGHT }, { Face.BOTTOM, Face.LEFT, Face.FRONT },
+		{ Face.BOTTOM, Face.BACK, Face.LEFT },  { Face.BOTTOM, Face.RIGHT, Face.BACK }
+	};
+
+	private static PocketCubeSolver instance;
+
+	private final File distancesFile;
+
+	// Move tables : index coordinate * MOVE_COUNT + move
+	private int[] permutationMove;
+	private int[] twistMove;
+
+	// Distances modulo 3, 2 bits per state : set last by load(), once the move tables are built
+	private volatile ByteBuffer distances;
+
+	/**
+	 * Solver sharing the distances file of the temporary directory
+	 */
+	public static synchronized PocketCubeSolver getInstance() throws IOException {
+		if (instance == null)
+			instance = new PocketCubeSolver(new File(System.getProperty("java.io.tmpdir"), DEFAULT_FILE_NAME));
+		return instance;
+	}
+
+	/**
+	 * Solver registered as a service : the distances file of the temporary directory is loaded on first solve
+	 */
+	public PocketCubeSolver() {
+		this.distancesFile = new File(System.getProperty("java.io.tmpdir"), DEFAULT_FILE_NAME);
+	}
+
+	/**
+	 * Loads the distances from <code>distancesFile</code>, generating it on first use
+	 */
+	public PocketCubeSolver(File distancesFile) throws IOException {
+		this.distancesFile = distancesFile;
+		load();
+	}
+
+	@Override
+	public String getName() {
+		return "2x2 optimal";
+	}
+
+	@Override
+	public boolean supports(int size) {
+		return size == SIZE;
+	}
+
+	@Override
+	public long getExpectedLatencyMillis(int size) {
+		return 1;
+	}
+
+	@Override
+	public int getExpectedLength(int size) {
+		return 9;
+	}
+
+	@Override
+	public List<DefinedMove> solve(RubiksCube rc, int targetLength, long timeBudgetMillis, CancellationToken token) {
+		return solve(rc);
+	}
+
+	private synchronized void load() throws IOException {
+		if (distances != null)
+			return;
+
+		CubieCube cube = new CubieCube();
+
+		permutationMove = new int[PERMUTATION_COUNT * MOVE_COUNT];
+		for (int permutation = 0; permutation < PERMUTATION_COUNT; permutation++) {
+			for (int move = 0; move < MOVE_COUNT; move++) {
+				setPermutation(cube, permutation);
+				cube.move(move);
+				permutationMove[permutation * MOVE_COUNT + move] = getPermutation(cube);
+			}
+		}
+
+		twistMove = new int[TWIST_COUNT * MOVE_COUNT];
+		for (int twist = 0; twist < TWIST_COUNT; twist++) {
+			for (int move = 0; move < MOVE_COUNT; move++) {
+				setTwist(cube, twist);
+				cube.move(move);
+				twistMove[twist * MOVE_COUNT + move] = getTwist(cube);
+			}
+		}
+
+		if (! map(distancesFile)) {
+			generate(distancesFile);
+			if (! map(distancesFile))
+				throw new IOException("Invalid 2x2 distances file : " + distancesFile);
+		}
+	}
+
+	/**
+	 * Returns an optimal solution (at most 11 moves), or <code>null</code> when the RubiksCube cannot be solved
+	 */
+	public List<DefinedMove> solve(RubiksCube rc) {
+		if (distances == null) {
+			try {
+				load();
+			} catch (IOException e) {
+				LOGGER.error("### ERROR : cannot load the 2x2 distance table", e);
+				return null;
+			}
+		}
+
+		CubieCube cube = read(rc);
+		if (cube == null)
+			return null;
+
+		long start = System.nanoTime();
+
+		ByteBuffer distances = this.distances;
+		List<DefinedMove> moves = new ArrayList<DefinedMove>();
+		int state = getPermutation(cube) * TWIST_COUNT + getTwist(cube);
+		while (state != 0) {
+			// One of the moves brings the cube one move closer to the solved state
+			int closer = (getDistance(distances, state) + 2) % 3;
+			for (int move = 0; move < MOVE_COUNT; move++) {
+				int next = nextState(state, move);
+				if (getDistance(distances, next) == closer) {
+					moves.add(CubieCube.toDefinedMove(move, SIZE));
+					state = next;
+					break;
+				}
+			}
+		}
+
+		if (LOGGER.isDebugEnabled())
+			LOGGER.debug("AI : 2x2 solution of {} moves found in {} µs", moves.size(), (System.nanoTime() - start) / 1000);
+		return moves;
+	}
+
+	/**
+	 * Reads the corners of a 2x2 RubiksCube, the D, B and L colours being those of the DBL corner
+	 */
+	private static CubieCube read(RubiksCube rc) {
+		if (rc.getSize() != SIZE) {
+			LOGGER.error("### ERROR : Cannot solve a RubiksCube of size {} with the 2x2 solver", rc.getSize());
+			return null;
+		}
+
+		Facelet[][] cornerColors = new Facelet[CubieCube.CORNER_COUNT][];
+		for (int position = 0; position < CubieCube.CORNER_COUNT; position++) {
+			int[] coord = CORNER_COORDINATES[position];
+			Cubie cubie = rc.getCubie(coord[0], coord[1], coord[2]);
+			cornerColors[position] = new Facelet[3];
+			for (int i = 0; i < 3; i++) {
+				cornerColors[position][i] = cubie.getFace(CORNER_FACES[position][i]);
+			}
+		}
+
+		// Colour of each face : the DBL corner gives D, B and L, the opposite colours (never on a same corner) give U, F and R
+		Facelet[] faceColors = new Facelet[CubieCube.FACES.length];
+		faceColors[CubieCube.D] = cornerColors[DBL][0];
+		faceColors[CubieCube.B] = cornerColors[DBL][1];
+		faceColors[CubieCube.L] = cornerColors[DBL][2];
+		faceColors[CubieCube.U] = getOppositeColor(cornerColors, faceColors[CubieCube.D]);
+		faceColors[CubieCube.F] = getOppositeColor(cornerColors, faceColors[CubieCube.B]);
+		faceColors[CubieCube.R] = getOppositeColor(cornerColors, faceColors[CubieCube.L]);
+
+		CubieCube cube = new CubieCube();
+		Arrays.fill(cube.cornerPermutation, -1);
+		for (int position = 0; position < CubieCube.CORNER_COUNT; position++) {
+			int[] faces = new int[3];
+			for (int i = 0; i < 3; i++) {
+				faces[i] = Arrays.asList(faceColors).indexOf(cornerColors[position][i]);
+			}
+			cube.setCorner(position, faces);
+		}
+
+		boolean[] corners = new boolean[CubieCube.CORNER_COUNT];
+		int twist = 0;
+		for (int position = 0; position < CubieCube.CORNER_COUNT; position++) {
+			int corner = cube.cornerPermutation[position];
+			if (corner < 0 || corners[corner]) {
+				LOGGER.error("### ERROR : RubiksCube configuration cannot be solved : {}", rc);
+				return null;
+			}
+			corners[corner] = true;
+			twist += cube.cornerOrientation[position];
+		}
+		if (twist % 3 != 0) {
+			LOGGER.error("### ERROR : RubiksCube configuration cannot be solved : {}", rc);
+			return null;
+		}
+		return cube;
+	}
+
+	private static Facelet getOppositeColor(Facelet[][] cornerColors, Facelet color) {
+		List<Facelet> candidates = new ArrayList<Facelet>();
+		for (Facelet[] colors : cornerColors) {
+			for (Facelet candidate : colors) {
+				if (candidate != color && ! candidates.contains(candidate))
+					candidates.add(candidate);
+			}
+		}
+		for (Facelet[] colors : cornerColors) {
+			if (Arrays.asList(colors).contains(color))
+				candidates.removeAll(Arrays.asList(colors));
+		}
+		return candidates.size() == 1 ? candidates.get(0) : null;
+	}
+
+	// Coordinates
+	//------------
+
+	private int nextState(int state, int move) {
+		return permutationMove[(state / TWIST_COUNT) * MOVE_COUNT + move] * TWIST_COUNT + twistMove[(state % TWIST_COUNT) * MOVE_COUNT + move];
+	}
+
+	/**
+	 * Lehmer code of the permutation of the 7 corners other than DBL : [0-5039]
+	 */
+	private static int getPermutation(CubieCube cube) {
+		int index = 0;
+		for (int i = 0; i < POSITIONS.length; i++) {
+			int smaller = 0;
+			for (int j = i + 1; j < POSITIONS.length; j++) {
+				if (cube.cornerPermutation[POSITIONS[j]] < cube.cornerPermutation[POSITIONS[i]])
+					smaller++;
+			}
+			index = index * (POSITIONS.length - i) + smaller;
+		}
+		return index;
+	}
+
+	private static void setPermutation(CubieCube cube, int index) {
+		int[] digits = new int[POSITIONS.length];
+		for (int i = POSITIONS.length - 1; i >= 0; i--) {
+			digits[i] = index % (POSITIONS.length - i);
+			index /= POSITIONS.length - i;
+		}
+
+		List<Integer> remaining = new ArrayList<Integer>();
+		for (int position : POSITIONS) {
+			remaining.add(position);
+		}
+		for (int i = 0; i < POSITIONS.length; i++) {
+			cube.cornerPermutation[POSITIONS[i]] = remaining.remove(digits[i]);
+		}
+		cube.cornerPermutation[DBL] = DBL;
+	}
+
+	/**
+	 * Orientation of the corners 0 to 5, in base 3 : [0-728] (DBL is never twisted, DRB orientation is deduced)
+	 */
+	private static int getTwist(CubieCube cube) {
+		int twist = 0;
+		for (int i = 0; i < 6; i++) {
+			twist = 3 * twist + cube.cornerOrientation[i];
+		}
+		return twist;
+	}
+
+	private static void setTwist(CubieCube cube, int twist) {
+		int sum = 0;
+		for (int i = 5; i >= 0; i--) {
+			cube.cornerOrientation[i] = twist % 3;
+			sum += cube.cornerOrientation[i];
+			twist /= 3;
+		}
+		cube.cornerOrientation[DBL] = 0;
+		cube.cornerOrientation[7] = (3 - sum % 3) % 3;
+	}
+
+	// Distances
+	//----------
+
+	private static int getDistance(ByteBuffer distances, int state) {
+		return (distances.get(state >>> 2) >> ((state & 3) << 1)) & 3;
+	}
+
+	private static int getDistance(byte[] distances, int state) {
+		return (distances[state >>> 2] >> ((state & 3) << 1)) & 3;
+	}
+
+	private static void setDistance(byte[] distances, int state, int distance) {
+		int shift = (state & 3) << 1;
+		distances[state >>> 2] = (byte) ((distances[state >>> 2] & ~(3 << shift)) | (distance << shift));
+	}
+
+	/**
+	 * Breadth first search from the solved state (index 0), depth by depth
+	 */
+	private void generate(File file) throws IOException {
+		long start = System.currentTimeMillis();
+
+		byte[] states = new byte[(STATE_COUNT + 3) / 4];
+		Arrays.fill(states, (byte) 0xFF);
+		setDistance(states, 0, 0);
+
+		// The depth itself is needed during the search : a state of the current depth is an unknown state in the next pass
+		byte[] depths = new byte[STATE_COUNT];
+		Arrays.fill(depths, (byte) -1);
+		depths[0] = 0;
+
+		int found = 1;
+		for (int depth = 0; found > 0; depth++) {
+			found = 0;
+			for (int state = 0; state < STATE_COUNT; state++) {
+				if (depths[state] != depth)
+					continue;
+
+				for (int move = 0; move < MOVE_COUNT; move++) {
+					int next = nextState(state, move);
+					if (depths[next] == -1) {
+						depths[next] = (byte) (depth + 1);
+						setDistance(states, next, (depth + 1) % 3);
+						found++;
+					}
+				}
+			}
+		}
+
+		File temporary = new File(file.getPath() + ".tmp");
+		RandomAccessFile output = new RandomAccessFile(temporary, "rw");
+		try {
+			output.setLength(0);
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(STATE_COUNT);
+			output.write(states);
+		} finally {
+			output.close();
+		}
+		Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		LOGGER.info("AI : 2x2 distances of {} states generated into {} in {} ms", STATE_COUNT, file, System.currentTimeMillis() - start);
+	}
+
+	private boolean map(File file) throws IOException {
+		int size = (STATE_COUNT + 3) / 4;
+		if (! file.isFile() || file.length() != HEADER_SIZE + size)
+			return false;
+
+		RandomAccessFile input = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = input.getChannel();
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != STATE_COUNT) {
+				LOGGER.warn("AI : {} is not a 2x2 distances file of version {} => regenerating it", file, VERSION);
+				return false;
+			}
+
+			buffer.position(HEADER_SIZE);
+			distances = buffer.slice();
+		} finally {
+			input.close();
+		}
+		return true;
+	}
+}
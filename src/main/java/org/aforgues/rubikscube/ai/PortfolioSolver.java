@@ -0,0 +1,185 @@
+package org.aforgues.rubikscube.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.aforgues.rubikscube.core.DefinedMove;
+import org.aforgues.rubikscube.core.RubiksCube;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Portfolio of solvers racing on the same RubiksCube : each solver supporting its size runs on its own thread with its own
+ * snapshot of the cube, the first solution of at most <code>targetLength</code> moves is returned and the other solvers
+ * are cancelled. When no solution is short enough in time, all the solvers are cancelled and the shortest solution
+ * returned by them in the next few milliseconds is returned.
+ *
+ * Solvers which cannot be stopped (cf. {@link Solver#solve(RubiksCube, int, long, CancellationToken)}) may keep running in
+ * background once the portfolio has returned, their result being ignored.
+ */
+public class PortfolioSolver implements Solver {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PortfolioSolver.class);
+
+	/**
+	 * Delay between two checks of the cancellation of the caller while waiting for the solvers
+	 */
+	private static final long CANCELLATION_CHECK_MILLIS = 5;
+
+	/**
+	 * Once the race is cancelled, delay given to the solvers to return the best solution they found so far
+	 */
+	private static final long CANCELLATION_GRACE_MILLIS = 5;
+
+	private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "PortfolioSolver");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final List<Solver> solvers;
+
+	/**
+	 * Portfolio of the registered engines (cf. {@link Solvers}), for example the beginner method, the two-phase and the
+	 * optimal solvers for a 3x3 Rubik's Cube. The {@link AnytimeSolver} chains some of these engines : it would only
+	 * run them a second time, so it is left out.
+	 */
+	public PortfolioSolver() {
+		this(withoutComposites(Solvers.getSolvers()));
+	}
+
+	public PortfolioSolver(List<Solver> solvers) {
+		this.solvers = new ArrayList<Solver>();
+		for (Solver solver : solvers) {
+			// A registered portfolio would race against itself
+			if (! (solver instanceof PortfolioSolver))
+				this.solvers.add(solver);
+		}
+	}
+
+	private static List<Solver> withoutComposites(List<Solver> solvers) {
+		List<Solver> engines = new ArrayList<Solver>();
+		for (Solver solver : solvers) {
+			if (! (solver instanceof AnytimeSolver))
+				engines.add(solver);
+		}
+		return engines;
+	}
+
+	// For test purpose
+	List<Solver> getSolvers() {
+		return Collections.unmodifiableList(solvers);
+	}
+
+	@Override
+	public String getName() {
+		return "portfolio";
+	}
+
+	@Override
+	public boolean supports(int size) {
+		for (Solver solver : solvers) {
+			if (solver.supports(size))
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public long getExpectedLatencyMillis(int size) {
+		long latency = Long.MAX_VALUE;
+		for (Solver solver : solvers) {
+			if (solver.supports(size))
+				latency = Math.min(latency, solver.getExpectedLatencyMillis(size));
+		}
+		return latency;
+	}
+
+	@Override
+	public int getExpectedLength(int size) {
+		int length = Integer.MAX_VALUE;
+		for (Solver solver : solvers) {
+			if (solver.supports(size))
+				length = Math.min(length, solver.getExpectedLength(size));
+		}
+		return length;
+	}
+
+	@Override
+	public List<DefinedMove> solve(RubiksCube rc, int targetLength, long timeBudgetMillis, CancellationToken token) {
+		long start = System.currentTimeMillis();
+		long deadline = start + timeBudgetMillis;
+
+		// Shared by the solvers of this race : cancelled as soon as the race is over
+		CancellationToken raceToken = new CancellationToken();
+		CompletionService<List<DefinedMove>> completionService = new ExecutorCompletionService<List<DefinedMove>>(EXECUTOR);
+		List<Future<List<DefinedMove>>> futures = new ArrayList<Future<List<DefinedMove>>>();
+		List<Solver> runningSolvers = new ArrayList<Solver>();
+		for (Solver solver : solvers) {
+			if (! solver.supports(rc.getSize()))
+				continue;
+
+			RubiksCube snapshot = rc.snapshot();
+			Callable<List<DefinedMove>> task = () -> solver.solve(snapshot, targetLength, timeBudgetMillis, raceToken);
+			futures.add(completionService.submit(task));
+			runningSolvers.add(solver);
+		}
+
+		List<DefinedMove> best = null;
+		String bestSolverName = null;
+		try {
+			int received = 0;
+			while (received < futures.size() && (best == null || best.size() > targetLength)) {
+				// Cancelled solvers give their best solution so far
+				if (! raceToken.isCancelled() && (token.isCancelled() || System.currentTimeMillis() >= deadline)) {
+					raceToken.cancel();
+					deadline = System.currentTimeMillis() + CANCELLATION_GRACE_MILLIS;
+				}
+				else if (raceToken.isCancelled() && System.currentTimeMillis() >= deadline) {
+					break;
+				}
+
+				long timeout = Math.min(CANCELLATION_CHECK_MILLIS, Math.max(1, deadline - System.currentTimeMillis()));
+				Future<List<DefinedMove>> future = completionService.poll(timeout, TimeUnit.MILLISECONDS);
+				if (future == null)
+					continue;
+				received++;
+
+				List<DefinedMove> path = getResult(future);
+				if (path != null && (best == null || path.size() < best.size())) {
+					best = path;
+					bestSolverName = runningSolvers.get(futures.indexOf(future)).getName();
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			raceToken.cancel();
+		}
+
+		LOGGER.info("AI : portfolio of {} solvers => solution of {} moves by {} in {} ms", futures.size(),
+					best == null ? null : best.size(), bestSolverName, System.currentTimeMillis() - start);
+		return best;
+	}
+
+	private List<DefinedMove> getResult(Future<List<DefinedMove>> future) throws InterruptedException {
+		try {
+			return future.get();
+		}
+		catch (ExecutionException e) {
+			LOGGER.error("### ERROR : a solver of the portfolio failed", e.getCause());
+			return null;
+		}
+	}
+}
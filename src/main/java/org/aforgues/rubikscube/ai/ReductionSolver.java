@@ -0,0 +1,633 @@
+package org.aforgues.rubikscube.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.aforgues.rubikscube.core.DefinedMove;
+import org.aforgues.rubikscube.core.Face;
+import org.aforgues.rubikscube.core.Facelet;
+import org.aforgues.rubikscube.core.Move;
+import org.aforgues.rubikscube.core.PackedRubiksCube;
+import org.aforgues.rubikscube.core.RubiksCube;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * NxN Rubik's Cube solver by reduction to a 3x3 Rubik's Cube : centers are solved, wings are paired into edges, then
+ * the reduced cube is solved by the {@link TwoPhaseSolver} with face turns only.
+ *
+ * Centers and wings are split into orbits of 24 facelets (the images of one facelet by the 24 rotations of the cube),
+ * which are solved one after the other with pure 3-cycles : commutators of two slice turns whose supports only share
+ * one piece, conjugated by setup moves found by a breadth first search on the triples of positions of the orbit.
+ * Parities are handled before : an odd wing orbit (OLL parity) gets one quarter turn of one of its slices, and on even
+ * cubes the target of two edges is swapped when the corner permutation is odd (PLL parity).
+ *
+ * Time and memory grow with the number of orbits, (N - 2)² / 4 : the cube is packed (6 N² bytes) and only the search
+ * tables of the current orbit (24³ triples) are kept. Solutions are long (a few dozen moves per orbit) but not optimal.
+ * The solver has no state and may be used by several threads at the same time. As a {@link Solver}, it cannot be
+ * stopped nor improved : the target length, the time budget and the cancellation are ignored.
+ */
+public class ReductionSolver implements Solver {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReductionSolver.class);
+
+	public static final int MIN_SIZE = 3;
+
+	private static final int ORBIT_SIZE = 24;
+	private static final int TRIPLE_COUNT = ORBIT_SIZE * ORBIT_SIZE * ORBIT_SIZE;
+
+	private static final Move[] MOVES = Move.values();
+	private static final Face[] FACES = Face.values();
+	private static final int COLOR_COUNT = Facelet.values().length;
+
+	@Override
+	public String getName() {
+		return "reduction";
+	}
+
+	/**
+	 * The 3x3 Rubik's Cube is directly solved by the {@link TwoPhaseSolver}, which is registered on its own
+	 */
+	@Override
+	public boolean supports(int size) {
+		return size > MIN_SIZE;
+	}
+
+	/**
+	 * Measured on a single core : grows with the number of orbits, plus the two-phase solve of the reduced cube
+	 */
+	@Override
+	public long getExpectedLatencyMillis(int size) {
+		return 20 + size * size;
+	}
+
+	/**
+	 * Measured from 4x4 to 9x9 : about 26 moves per facelet of a face
+	 */
+	@Override
+	public int getExpectedLength(int size) {
+		return 26 * size * size;
+	}
+
+	@Override
+	public List<DefinedMove> solve(RubiksCube rc, int targetLength, long timeBudgetMillis, CancellationToken token) {
+		return solve(rc);
+	}
+
+	/**
+	 * Returns a solution of the RubiksCube, or <code>null</code> when it cannot be solved
+	 */
+	public List<DefinedMove> solve(RubiksCube rc) {
+		return solve(new PackedRubiksCube(rc));
+	}
+
+	/**
+	 * Returns a solution of the PackedRubiksCube (which is left unchanged), or <code>null</code> when it cannot be solved
+	 */
+	public List<DefinedMove> solve(PackedRubiksCube cube) {
+		if (cube.getSize() < MIN_SIZE) {
+			LOGGER.error("### ERROR : Cannot solve a RubiksCube of size {} by reduction (minimum size : {})", cube.getSize(), MIN_SIZE);
+			return null;
+		}
+
+		long start = System.currentTimeMillis();
+
+		Reduction reduction = new Reduction(cube.snapshot());
+		if (! reduction.run())
+			return null;
+
+		// Commutators and setup moves leave many moves around the same axis next to each other
+		List<DefinedMove> path = MoveOptimizer.optimize(reduction.path, cube.getSize());
+
+		LOGGER.info("AI : {}x{} Rubik's Cube solved by reduction in {} moves ({} before optimization) in {} ms",
+					cube.getSize(), cube.getSize(), path.size(), reduction.path.size(), System.currentTimeMillis() - start);
+		return path;
+	}
+
+	private static DefinedMove inverse(DefinedMove move) {
+		Move inverse = Move.inverse(move.getMove());
+		// Half turns are their own inverse
+		return DefinedMove.of(inverse == null ? move.getMove() : inverse, move.getFaceIndex());
+	}
+
+	/**
+	 * Commutator A B A' B' of two move sequences
+	 */
+	private static List<DefinedMove> commutator(List<DefinedMove> a, List<DefinedMove> b) {
+		List<DefinedMove> moves = new ArrayList<DefinedMove>(a);
+		moves.addAll(b);
+		for (int i = a.size() - 1; i >= 0; i--) {
+			moves.add(inverse(a.get(i)));
+		}
+		for (int i = b.size() - 1; i >= 0; i--) {
+			moves.add(inverse(b.get(i)));
+		}
+		return moves;
+	}
+
+	/**
+	 * Reduction of one cube : the moves are applied to the cube as they are added to the path
+	 */
+	private static final class Reduction {
+		private final PackedRubiksCube cube;
+		private final int size;
+		private final List<DefinedMove> path = new ArrayList<DefinedMove>();
+
+		// Colour of each face (Face.ordinal()) once solved
+		private Facelet[] faceColors;
+
+		// Position in the current orbit of each facelet, -1 outside of it
+		private final int[] positionOf;
+
+		Reduction(PackedRubiksCube cube) {
+			this.cube = cube;
+			this.size = cube.getSize();
+			this.positionOf = new int[6 * size * size];
+			Arrays.fill(positionOf, -1);
+		}
+
+		boolean run() {
+			faceColors = readFaceColors();
+			if (faceColors == null) {
+				LOGGER.error("### ERROR : RubiksCube colours cannot be read : {}", cube);
+				return false;
+			}
+
+			// PLL parity : the paired edges of an even cube must have the parity of its corners
+			boolean swapEdges = false;
+			if (size % 2 == 0) {
+				Facelet[] cubieFaceColors = new Facelet[CubieCube.FACES.length];
+				for (int face = 0; face < CubieCube.FACES.length; face++) {
+					cubieFaceColors[face] = faceColors[CubieCube.FACES[face].ordinal()];
+				}
+				swapEdges = CubieCube.fromColors(CubieCube.getColors(cube), cubieFaceColors).getCornerParity() == 1;
+			}
+
+			List<Orbit> wingOrbits = new ArrayList<Orbit>();
+			for (int k = 2; 2 * k < size + 1; k++) {
+				wingOrbits.add(wingOrbit(k, swapEdges));
+			}
+
+			// OLL parity : an odd wing orbit cannot be solved by 3-cycles, a slice quarter turn makes it even
+			for (Orbit orbit : wingOrbits) {
+				int parity = orbit.getParity();
+				if (parity < 0) {
+					LOGGER.error("### ERROR : RubiksCube configuration cannot be solved (wings) : {}", cube);
+					return false;
+				}
+				if (parity == 1) {
+					if (LOGGER.isDebugEnabled())
+						LOGGER.debug("AI::reduction => odd wing orbit n°{}", orbit.index);
+					apply(DefinedMove.of(Move.PITCH, orbit.index));
+				}
+			}
+
+			boolean[] visited = new boolean[positionOf.length];
+			for (int a = 2; a < size; a++) {
+				for (int b = 2; b < size; b++) {
+					// The center of the center of an odd cube never moves
+					if (2 * a == size + 1 && 2 * b == size + 1)
+						continue;
+					if (visited[cube.indexOf(Face.TOP, a, size, b)])
+						continue;
+
+					Orbit orbit = centerOrbit(a, b);
+					for (int position : orbit.positions) {
+						visited[position] = true;
+					}
+					if (! solve(orbit)) {
+						LOGGER.error("### ERROR : RubiksCube configuration cannot be solved (centers) : {}", cube);
+						return false;
+					}
+				}
+			}
+
+			for (Orbit orbit : wingOrbits) {
+				if (! solve(orbit)) {
+					LOGGER.error("### ERROR : RubiksCube configuration cannot be solved (wings) : {}", cube);
+					return false;
+				}
+			}
+
+			if (LOGGER.isDebugEnabled())
+				LOGGER.debug("AI::reduction => cube reduced in {} moves", path.size());
+
+			CubieCube cubieCube = CubieCube.fromPackedRubiksCube(cube);
+			if (cubieCube == null)
+				return false;
+			int[] solution = new TwoPhaseSolver().solve(cubieCube, TwoPhaseSolver.DEFAULT_MAX_LENGTH, TwoPhaseSolver.DEFAULT_TIMEOUT_MILLIS);
+			for (int move : solution) {
+				apply(CubieCube.toDefinedMove(move, size));
+			}
+
+			if (! cube.isSolved()) {
+				LOGGER.error("### ERROR : RubiksCube is not solved after its reduction : {}", cube);
+				return false;
+			}
+			return true;
+		}
+
+		private void apply(DefinedMove move) {
+			cube.move(move);
+			path.add(move);
+		}
+
+		/**
+		 * Colours of the faces : given by the centers of an odd cube, by the DBL corner and its opposite colours otherwise
+		 */
+		private Facelet[] readFaceColors() {
+			Facelet[] colors = new Facelet[FACES.length];
+			if (size % 2 == 1) {
+				int middle = (size + 1) / 2;
+				colors[Face.TOP.ordinal()]    = cube.getFacelet(Face.TOP,    middle, size,   middle);
+				colors[Face.BOTTOM.ordinal()] = cube.getFacelet(Face.BOTTOM, middle, 1,      middle);
+				colors[Face.FRONT.ordinal()]  = cube.getFacelet(Face.FRONT,  middle, middle, size);
+				colors[Face.BACK.ordinal()]   = cube.getFacelet(Face.BACK,   middle, middle, 1);
+				colors[Face.LEFT.ordinal()]   = cube.getFacelet(Face.LEFT,   1,      middle, middle);
+				colors[Face.RIGHT.ordinal()]  = cube.getFacelet(Face.RIGHT,  size,   middle, middle);
+			}
+			else {
+				List<List<Facelet>> corners = new ArrayList<List<Facelet>>();
+				for (int x = 1; x <= size; x += size - 1) {
+					for (int y = 1; y <= size; y += size - 1) {
+						for (int z = 1; z <= size; z += size - 1) {
+							corners.add(Arrays.asList(cube.getFacelet(x == 1 ? Face.LEFT : Face.RIGHT, x, y, z),
+													  cube.getFacelet(y == 1 ? Face.BOTTOM : Face.TOP, x, y, z),
+													  cube.getFacelet(z == 1 ? Face.BACK : Face.FRONT, x, y, z)));
+						}
+					}
+				}
+				colors[Face.BOTTOM.ordinal()] = cube.getFacelet(Face.BOTTOM, 1, 1, 1);
+				colors[Face.BACK.ordinal()]   = cube.getFacelet(Face.BACK,   1, 1, 1);
+				colors[Face.LEFT.ordinal()]   = cube.getFacelet(Face.LEFT,   1, 1, 1);
+				colors[Face.TOP.ordinal()]    = getOppositeColor(corners, colors[Face.BOTTOM.ordinal()]);
+				colors[Face.FRONT.ordinal()]  = getOppositeColor(corners, colors[Face.BACK.ordinal()]);
+				colors[Face.RIGHT.ordinal()]  = getOppositeColor(corners, colors[Face.LEFT.ordinal()]);
+			}
+
+			for (int i = 0; i < colors.length; i++) {
+				for (int j = 0; j < i; j++) {
+					if (colors[i] == null || colors[i] == colors[j])
+						return null;
+				}
+			}
+			return colors;
+		}
+
+		/**
+		 * The opposite colour is the only one which is never on a same corner
+		 */
+		private static Facelet getOppositeColor(List<List<Facelet>> corners, Facelet color) {
+			List<Facelet> candidates = new ArrayList<Facelet>();
+			for (List<Facelet> colors : corners) {
+				for (Facelet candidate : colors) {
+					if (candidate != color && ! candidates.contains(candidate))
+						candidates.add(candidate);
+				}
+			}
+			for (List<Facelet> colors : corners) {
+				if (colors.contains(color))
+					candidates.removeAll(colors);
+			}
+			return candidates.size() == 1 ? candidates.get(0) : null;
+		}
+
+		// Orbits
+		//-------
+
+		/**
+		 * Centers of the TOP facelet (a, b) orbit, each one to be of the colour of its face
+		 */
+		private Orbit centerOrbit(int a, int b) {
+			Orbit orbit = new Orbit(a, false);
+			orbit.addRotations(cube.indexOf(Face.TOP, a, size, b), -1, -1, -1);
+			for (int p = 0; p < ORBIT_SIZE; p++) {
+				orbit.targets[p] = faceColors[cube.getFace(orbit.positions[p]).ordinal()].ordinal();
+			}
+
+			// [a slice, U a parallel slice U'] : the supports of both only share the U center at the crossing of the slices
+			List<List<DefinedMove>> candidates = new ArrayList<List<DefinedMove>>();
+			for (Move turn : new Move[] { Move.YAW, Move.UNYAW }) {
+				for (int j = 2; j < size; j++) {
+					if (j != a) {
+						candidates.add(commutator(Arrays.asList(DefinedMove.of(Move.PITCH, a)),
+												  Arrays.asList(DefinedMove.of(turn, size), DefinedMove.of(Move.PITCH, j), DefinedMove.of(Move.inverse(turn), size))));
+					}
+				}
+			}
+			orbit.init(candidates, new int[] { a, b, size + 1 - a, size + 1 - b });
+			return orbit;
+		}
+
+		/**
+		 * Wings of index k and size + 1 - k of the 12 edges, each one to be paired with the middle edge of an odd cube,
+		 * or to be at its place on an even cube (UF and UB exchanged when <code>swapEdges</code>)
+		 */
+		private Orbit wingOrbit(int k, boolean swapEdges) {
+			int middle = (size + 1) / 2;
+			Orbit orbit = new Orbit(k, true);
+			orbit.addRotations(cube.indexOf(Face.TOP, k, size, size), cube.indexOf(Face.FRONT, k, size, size),
+							   cube.indexOf(Face.TOP, middle, size, size), cube.indexOf(Face.FRONT, middle, size, size));
+
+			for (int p = 0; p < ORBIT_SIZE; p++) {
+				Facelet first;
+				Facelet second;
+				if (size % 2 == 1) {
+					first = cube.getFacelet(orbit.references[p]);
+					second = cube.getFacelet(orbit.referencePartners[p]);
+				}
+				else {
+					Face face = cube.getFace(orbit.positions[p]);
+					Face partnerFace = cube.getFace(orbit.partners[p]);
+					if (swapEdges && (face == Face.TOP || partnerFace == Face.TOP)) {
+						face = swapFrontAndBack(face);
+						partnerFace = swapFrontAndBack(partnerFace);
+					}
+					first = faceColors[face.ordinal()];
+					second = faceColors[partnerFace.ordinal()];
+				}
+				orbit.targets[p] = first.ordinal() * COLOR_COUNT + second.ordinal();
+			}
+
+			// [a slice, U R U'] : the supports of both only share one wing of the slice
+			List<List<DefinedMove>> candidates = new ArrayList<List<DefinedMove>>();
+			for (Move turn : new Move[] { Move.YAW, Move.UNYAW }) {
+				candidates.add(commutator(Arrays.asList(DefinedMove.of(Move.PITCH, k)),
+										  Arrays.asList(DefinedMove.of(turn, size), DefinedMove.of(Move.PITCH, size), DefinedMove.of(Move.inverse(turn), size))));
+			}
+			orbit.init(candidates, new int[] { k, size + 1 - k });
+			return orbit;
+		}
+
+		private static Face swapFrontAndBack(Face face) {
+			if (face == Face.FRONT)
+				return Face.BACK;
+			if (face == Face.BACK)
+				return Face.FRONT;
+			return face;
+		}
+
+		/**
+		 * Solves an orbit with 3-cycles : each one brings the right piece to a wrong position
+		 */
+		private boolean solve(Orbit orbit) {
+			int[] contents = new int[ORBIT_SIZE];
+			for (int cycle = 0; cycle <= ORBIT_SIZE; cycle++) {
+				List<Integer> wrong = new ArrayList<Integer>();
+				for (int p = 0; p < ORBIT_SIZE; p++) {
+					contents[p] = orbit.getContent(p);
+					if (contents[p] != orbit.targets[p])
+						wrong.add(p);
+				}
+				if (wrong.isEmpty())
+					return true;
+
+				// The piece of s goes to t, the one of t to u and the one of u to s
+				int t = wrong.get(0);
+				int best = -1;
+				int bestScore = 0;
+				for (int s : wrong) {
+					if (s == t || contents[s] != orbit.targets[t])
+						continue;
+
+					for (int u = 0; u < ORBIT_SIZE; u++) {
+						if (u == s || u == t)
+							continue;
+
+						int score;
+						if (contents[u] != orbit.targets[u])
+							score = contents[t] == orbit.targets[u] ? 2 : 1;
+						else if (contents[t] == orbit.targets[u] && contents[u] == orbit.targets[s])
+							score = 2;
+						else
+							continue;
+
+						int triple = (s * ORBIT_SIZE + t) * ORBIT_SIZE + u;
+						if (orbit.depths[triple] < 0)
+							continue;
+						// Shortest setup among the cycles solving the most pieces
+						if (score > bestScore || (score == bestScore && orbit.depths[triple] < orbit.depths[best])) {
+							best = triple;
+							bestScore = score;
+						}
+					}
+				}
+				if (best < 0)
+					return false;
+
+				List<DefinedMove> setup = orbit.getSetup(best);
+				for (DefinedMove move : setup) {
+					apply(move);
+				}
+				for (DefinedMove move : orbit.cycle) {
+					apply(move);
+				}
+				for (int i = setup.size() - 1; i >= 0; i--) {
+					apply(inverse(setup.get(i)));
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Orbit of 24 centers, or of 24 wings (a wing being given by one of its facelets and its partner facelet)
+		 */
+		private final class Orbit {
+			private final int index;
+			private final boolean wings;
+
+			final int[] positions = new int[ORBIT_SIZE];
+			final int[] partners = new int[ORBIT_SIZE];
+			final int[] references = new int[ORBIT_SIZE];
+			final int[] referencePartners = new int[ORBIT_SIZE];
+			final int[] targets = new int[ORBIT_SIZE];
+
+			// 3-cycle of the positions cycle[0] -> cycle[1] -> cycle[2]
+			private List<DefinedMove> cycle;
+			private int[] cyclePositions;
+
+			// Setup moves : breadth first search tree of the triples of positions, rooted at the cycle positions
+			private List<DefinedMove> setupMoves;
+			private int[] parents;
+			private int[] parentMoves;
+			private byte[] depths;
+
+			Orbit(int index, boolean wings) {
+				this.index = index;
+				this.wings = wings;
+			}
+
+			/**
+			 * Images of the facelet (and of its partner and references) by the 24 rotations of the cube
+			 */
+			void addRotations(int position, int partner, int reference, int referencePartner) {
+				DefinedMove[] rotations = { DefinedMove.of(Move.PITCH), DefinedMove.of(Move.YAW) };
+
+				int count = 1;
+				positions[0] = position;
+				partners[0] = partner;
+				references[0] = reference;
+				referencePartners[0] = referencePartner;
+				for (int i = 0; i < count; i++) {
+					for (DefinedMove rotation : rotations) {
+						int next = cube.getDestination(positions[i], rotation);
+						boolean known = false;
+						for (int j = 0; j < count; j++) {
+							known |= positions[j] == next;
+						}
+						if (known)
+							continue;
+
+						positions[count] = next;
+						if (wings) {
+							partners[count] = cube.getDestination(partners[i], rotation);
+							references[count] = cube.getDestination(references[i], rotation);
+							referencePartners[count] = cube.getDestination(referencePartners[i], rotation);
+						}
+						count++;
+					}
+				}
+			}
+
+			/**
+			 * Finds a 3-cycle of this orbit among the <code>candidates</code>, then the setup moves of every triple of
+			 * positions with the face turns and the turns of the <code>slices</code>
+			 */
+			void init(List<List<DefinedMove>> candidates, int[] slices) {
+				for (int p = 0; p < ORBIT_SIZE; p++) {
+					positionOf[positions[p]] = p;
+				}
+
+				for (List<DefinedMove> candidate : candidates) {
+					int[] map = getMap(candidate);
+					List<Integer> moved = new ArrayList<Integer>();
+					for (int p = 0; p < ORBIT_SIZE; p++) {
+						if (map[p] != p)
+							moved.add(p);
+					}
+					if (moved.size() == 3) {
+						cycle = candidate;
+						cyclePositions = new int[] { moved.get(0), map[moved.get(0)], map[map[moved.get(0)]] };
+						break;
+					}
+				}
+
+				setupMoves = new ArrayList<DefinedMove>();
+				List<Integer> indexes = new ArrayList<Integer>(Arrays.asList(1, size));
+				for (int slice : slices) {
+					if (! indexes.contains(slice))
+						indexes.add(slice);
+				}
+				for (Move move : MOVES) {
+					for (int sliceIndex : indexes) {
+						setupMoves.add(DefinedMove.of(move, sliceIndex));
+					}
+				}
+				int[][] maps = new int[setupMoves.size()][];
+				for (int m = 0; m < maps.length; m++) {
+					maps[m] = getMap(Arrays.asList(setupMoves.get(m)));
+				}
+
+				for (int p = 0; p < ORBIT_SIZE; p++) {
+					positionOf[positions[p]] = -1;
+				}
+
+				parents = new int[TRIPLE_COUNT];
+				parentMoves = new int[TRIPLE_COUNT];
+				depths = new byte[TRIPLE_COUNT];
+				Arrays.fill(depths, (byte) -1);
+				if (cycle == null) {
+					LOGGER.error("### ERROR : no 3-cycle found for the orbit n°{} of size {}", index, size);
+					return;
+				}
+
+				int[] queue = new int[TRIPLE_COUNT];
+				int root = (cyclePositions[0] * ORBIT_SIZE + cyclePositions[1]) * ORBIT_SIZE + cyclePositions[2];
+				queue[0] = root;
+				depths[root] = 0;
+				int head = 0;
+				int tail = 1;
+				while (head < tail) {
+					int triple = queue[head++];
+					int first = triple / (ORBIT_SIZE * ORBIT_SIZE);
+					int second = (triple / ORBIT_SIZE) % ORBIT_SIZE;
+					int third = triple % ORBIT_SIZE;
+					for (int m = 0; m < maps.length; m++) {
+						int next = (maps[m][first] * ORBIT_SIZE + maps[m][second]) * ORBIT_SIZE + maps[m][third];
+						if (depths[next] < 0) {
+							depths[next] = (byte) (depths[triple] + 1);
+							parents[next] = triple;
+							parentMoves[next] = m;
+							queue[tail++] = next;
+						}
+					}
+				}
+			}
+
+			/**
+			 * Destination in the orbit of the piece of each position after the moves
+			 */
+			private int[] getMap(List<DefinedMove> moves) {
+				int[] map = new int[ORBIT_SIZE];
+				for (int p = 0; p < ORBIT_SIZE; p++) {
+					int facelet = positions[p];
+					for (DefinedMove move : moves) {
+						facelet = cube.getDestination(facelet, move);
+					}
+					map[p] = positionOf[facelet];
+				}
+				return map;
+			}
+
+			/**
+			 * Moves bringing the pieces of the triple of positions to the positions of the 3-cycle
+			 */
+			List<DefinedMove> getSetup(int triple) {
+				List<DefinedMove> setup = new ArrayList<DefinedMove>();
+				while (depths[triple] > 0) {
+					setup.add(inverse(setupMoves.get(parentMoves[triple])));
+					triple = parents[triple];
+				}
+				return setup;
+			}
+
+			int getContent(int p) {
+				if (wings)
+					return cube.getFacelet(positions[p]).ordinal() * COLOR_COUNT + cube.getFacelet(partners[p]).ordinal();
+				return cube.getFacelet(positions[p]).ordinal();
+			}
+
+			/**
+			 * Parity of the permutation of the wings (0 or 1), -1 when they cannot all be placed
+			 */
+			int getParity() {
+				int[] homes = new int[ORBIT_SIZE];
+				boolean[] used = new boolean[ORBIT_SIZE];
+				for (int p = 0; p < ORBIT_SIZE; p++) {
+					int content = getContent(p);
+					homes[p] = -1;
+					for (int h = 0; h < ORBIT_SIZE; h++) {
+						if (targets[h] == content && ! used[h])
+							homes[p] = h;
+					}
+					if (homes[p] < 0)
+						return -1;
+					used[homes[p]] = true;
+				}
+
+				int parity = 0;
+				boolean[] visited = new boolean[ORBIT_SIZE];
+				for (int p = 0; p < ORBIT_SIZE; p++) {
+					// A cycle of n pieces is made of n - 1 transpositions
+					for (int q = homes[p]; ! visited[q]; q = homes[q]) {
+						visited[q] = true;
+						if (q != p)
+							parity++;
+					}
+				}
+				return parity % 2;
+			}
+		}
+	}
+}
@@ -1,13 +1,16 @@
 package org.aforgues.rubikscube.ai;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import org.aforgues.rubikscube.core.Cubie;
 import org.aforgues.rubikscube.core.DefinedMove;
 import org.aforgues.rubikscube.core.Facelet;
 import org.aforgues.rubikscube.core.Move;
+import org.aforgues.rubikscube.core.MoveSequenceCompiler;
 import org.aforgues.rubikscube.core.RubiksCube;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,12 +21,36 @@ public class RubiksCubeAI {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(RubiksCubeAI.class);
     
+    /**
+     * Last element of the solving path, published once every move is computed
+     */
+    private static final DefinedMove END_OF_PATH = DefinedMove.NONE;
+    
+    /**
+     * Shared by all the solves, null when disabled
+     */
+    private static volatile SolutionCache solutionCache = new SolutionCache();
+    
+    private static final SolveCoalescer SOLVE_COALESCER = new SolveCoalescer();
+    
     private RubiksCube initialRcConfig;
-	private BlockingQueue<DefinedMove> solvingPath;
-	private int solvingPathSize;
+	private SolvingStrategy strategy;
+	private boolean simulate;
+	
+	// Moves are published by the computation thread as they are computed, and consumed by the caller thread
+	private volatile BlockingQueue<DefinedMove> solvingPath;
+	private volatile int solvingPathSize;
+	private int nextMoveIndex;
 	
 	public RubiksCubeAI(RubiksCube rc, boolean simulate) {
+		this(rc, simulate, SolvingStrategy.DEFAULT);
+	}
+	
+	public RubiksCubeAI(RubiksCube rc, boolean simulate, SolvingStrategy strategy) {
+		this.strategy = strategy;
+		this.simulate = simulate;
 		if (! simulate) {
+			// Deep copy rather than RubiksCube#snapshot() : the AI keeps cubie references from one move to the next
 			try {
 				this.initialRcConfig = (RubiksCube) rc.clone();
 			} catch (CloneNotSupportedException e) {
@@ -36,11 +63,26 @@ public class RubiksCubeAI {
 		}
 		
 		if (! isAiAvalaible())
-			LOGGER.warn("AI : only available for 3x3 Rubik's Cube !");
+			LOGGER.warn("AI : no Rubik's Cube to solve !");
+	}
+	
+	public static SolveCoalescer getSolveCoalescer() {
+		return SOLVE_COALESCER;
+	}
+
+	public static SolutionCache getSolutionCache() {
+		return solutionCache;
+	}
+
+	/**
+	 * Replaces the cache of the solutions (for example by a bigger one), or disables it when <code>null</code>
+	 */
+	public static void setSolutionCache(SolutionCache cache) {
+		solutionCache = cache;
 	}
 	
 	private boolean isAiAvalaible() {
-		return this.initialRcConfig != null && this.initialRcConfig.getSize() == 3;
+		return this.initialRcConfig != null && this.initialRcConfig.getSize() >= PocketCubeSolver.SIZE;
 	}
 	
 	public void computeArtificialIntelligence() {
@@ -53,52 +95,99 @@ public class RubiksCubeAI {
 			LOGGER.info("AI : RubiksCube is already solved !!!");
 		}
 
-		this.solvingPath = computeNextMoves();
-		this.solvingPathSize = solvingPath.size();
+		this.solvingPath = new LinkedBlockingQueue<DefinedMove>();
+		this.solvingPathSize = 0;
+		this.nextMoveIndex = 0;
+		
+		// In simulation mode, the AI moves the RubiksCube itself : it cannot be done in background
+		if (this.simulate) {
+			computeNextMoves();
+		}
+		else {
+			Thread computation = new Thread(() -> computeNextMoves(), "RubiksCubeAI");
+			computation.setDaemon(true);
+			computation.start();
+		}
+	}
+
+	/**
+	 * Computes synchronously the best solving path found in <code>timeBudgetMillis</code> or before <code>token</code>
+	 * is cancelled (cf. {@link AnytimeSolver}) : it is then played by {@link #getNextMove()}, and returned (null if none)
+	 */
+	public List<DefinedMove> computeArtificialIntelligence(long timeBudgetMillis, CancellationToken token) {
+		return computeArtificialIntelligence(new AnytimeSolver(), TwoPhaseSolver.DEFAULT_MAX_LENGTH, timeBudgetMillis, token);
 	}
 
-	// Returns next move to solve the RubiksCube for display purpose => it remains in the queue
+	/**
+	 * Same as {@link #computeArtificialIntelligence(long, CancellationToken)} with the given solver
+	 */
+	public List<DefinedMove> computeArtificialIntelligence(Solver solver, int targetLength, long timeBudgetMillis, CancellationToken token) {
+		if (! isAiAvalaible()) {
+			LOGGER.warn("AI : Rubik's Cube size ({}) is not managed by the AI algorithm => exiting AI !", this.initialRcConfig.getSize());
+			return null;
+		}
+
+		this.solvingPath = new LinkedBlockingQueue<DefinedMove>();
+		this.solvingPathSize = 0;
+		this.nextMoveIndex = 0;
+
+		List<DefinedMove> path = solver.solve(this.initialRcConfig, targetLength, timeBudgetMillis, token);
+		if (path != null) {
+			// Same behaviour as the other algorithms : the AI cube ends up solved (directly visible in simulation mode)
+			this.initialRcConfig.move(path);
+			publish(path);
+		}
+		this.solvingPath.add(END_OF_PATH);
+		return path;
+	}
+
+	// Returns next move to solve the RubiksCube for display purpose => it remains in the queue (null if it is not computed yet)
 	public DefinedMove getFutureMove() {
+        BlockingQueue<DefinedMove> queue = this.solvingPath;
+        DefinedMove nextMove = queue != null ? queue.peek() : null;
 
-        if (this.solvingPath != null && ! this.solvingPath.isEmpty()) {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("AI : Solving path - step {} on {}", (this.solvingPathSize - this.solvingPath.size() + 1), this.solvingPathSize);
-            }
-            DefinedMove nextMove = this.solvingPath.peek();
+        if (nextMove != null && nextMove != END_OF_PATH) {
             if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("AI : Solving path - step {} on {} computed so far", this.nextMoveIndex + 1, this.solvingPathSize);
                 LOGGER.debug("AI : next move (for display purpose) => {}", nextMove);
             }
             return nextMove;
         }
         else {
             if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("AI : RubiksCube is already solved");
+                LOGGER.debug("AI : RubiksCube is already solved or its next move is not computed yet");
             }
         }
         return null;
     }
 
-    // Returns next move to solve the RubiksCube => it is removed from the queue
+    // Returns next move to solve the RubiksCube => it is removed from the queue, waiting for it to be computed if needed
 	public DefinedMove getNextMove() {
 		try {
+			BlockingQueue<DefinedMove> queue = this.solvingPath;
+			DefinedMove nextMove = queue != null ? queue.take() : END_OF_PATH;
 
-			if (this.solvingPath != null && ! this.solvingPath.isEmpty()) {
+			if (nextMove != END_OF_PATH) {
+				this.nextMoveIndex++;
 				if (LOGGER.isDebugEnabled()) {
-                    LOGGER.debug("AI : Solving path - step {} on {}", (this.solvingPathSize - this.solvingPath.size() + 1), this.solvingPathSize);
-                }
-                DefinedMove nextMove = this.solvingPath.take();
-                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("AI : Solving path - step {} on {} computed so far", this.nextMoveIndex, this.solvingPathSize);
                     LOGGER.debug("AI : next move => {}", nextMove);
                 }
 				return nextMove;
 			}
 			else {
+				// Left in the queue for the next calls
+				if (queue != null)
+					queue.add(END_OF_PATH);
+
                 if (LOGGER.isDebugEnabled()) {
                     LOGGER.debug("AI : RubiksCube is already solved");
                 }
             }
 		} catch (InterruptedException e) {
-			e.printStackTrace();
+			// The caller stopped waiting for the computation : the interruption is left to it
+			LOGGER.warn("AI : interrupted while waiting for the next move");
+			Thread.currentThread().interrupt();
 		}
 		return null;
 	}
@@ -109,11 +198,157 @@ public class RubiksCubeAI {
 			this.solvingPath.clear();
 		this.solvingPath = null;
 		this.solvingPathSize = 0;
+		this.nextMoveIndex = 0;
 
         LOGGER.info("AI : RubiksCube solving path was reset !");
 	}
 
-	private BlockingQueue<DefinedMove> computeNextMoves() {
+	/**
+	 * Publishes the moves of the path which are not published yet : they can be played while the next ones are computed
+	 */
+	private void publish(List<DefinedMove> path) {
+		BlockingQueue<DefinedMove> queue = this.solvingPath;
+		// The solving path was reset in the meantime : the computation is stopped
+		if (queue == null)
+			throw new CancellationException("AI solving path was reset");
+		
+		for (int i = this.solvingPathSize; i < path.size(); i++) {
+			queue.add(path.get(i));
+		}
+		this.solvingPathSize = path.size();
+	}
+	
+	private void computeNextMoves() {
+		BlockingQueue<DefinedMove> queue = this.solvingPath;
+		try {
+			List<DefinedMove> path = computePath();
+			publish(path);
+		}
+		catch (RuntimeException e) {
+			// Errors of a computation stopped by a reset are expected
+			if (this.solvingPath == queue)
+				LOGGER.error("### ERROR : AI failed to compute the solving path", e);
+		}
+		finally {
+			queue.add(END_OF_PATH);
+		}
+	}
+	
+	private List<DefinedMove> computePath() {
+		// The beginner method is shown step by step : it is never replaced by a cached or shared solution
+		if (this.strategy == SolvingStrategy.BEGINNER_METHOD && this.initialRcConfig.getSize() == 3)
+			return computeAlgorithmPath();
+
+		SolutionCache cache = solutionCache;
+		SolutionCache.Key key = SolutionCache.keyOf(this.initialRcConfig);
+		if (cache != null) {
+			List<DefinedMove> cachedPath = cache.get(key);
+			if (cachedPath != null) {
+				LOGGER.info("AI : Rubik's Cube solved in {} moves from the solution cache", cachedPath.size());
+				this.initialRcConfig.move(cachedPath);
+				return cachedPath;
+			}
+		}
+
+		// Concurrent solves of the same position share the computation of the first one
+		List<DefinedMove> path = SOLVE_COALESCER.solve(key, () -> {
+			List<DefinedMove> computedPath = computeAlgorithmPath();
+			// Every algorithm leaves the AI cube solved when it succeeds : only solutions are shared
+			return this.initialRcConfig.isSolved() ? computedPath : null;
+		});
+		if (path == null)
+			return new ArrayList<DefinedMove>();
+
+		// Solution computed by another solve
+		if (! this.initialRcConfig.isSolved()) {
+			LOGGER.info("AI : Rubik's Cube solved in {} moves by a concurrent solve of the same position", path.size());
+			this.initialRcConfig.move(path);
+		}
+
+		if (cache != null)
+			cache.put(key, path);
+		return path;
+	}
+	
+	private List<DefinedMove> computeAlgorithmPath() {
+		List<DefinedMove> path = null;
+		if (this.initialRcConfig.getSize() == PocketCubeSolver.SIZE) {
+			// Whatever the strategy, a 2x2 Rubik's Cube is solved optimally from its distance table
+			path = computePocketCubeMoves();
+			if (path == null)
+				path = new ArrayList<DefinedMove>();
+		}
+		else if (this.initialRcConfig.getSize() > 3) {
+			// Bigger Rubik's Cube are reduced to a 3x3 one
+			path = computeReductionMoves();
+			if (path == null)
+				path = new ArrayList<DefinedMove>();
+		}
+		else {
+			if (this.strategy == SolvingStrategy.TWO_PHASE)
+				path = computeTwoPhaseMoves();
+			
+			// Beginner method is also the fallback when the two-phase algorithm cannot read the cube
+			if (path == null)
+				path = computeBeginnerMethodMoves();
+		}
+		
+		return path;
+	}
+	
+	private List<DefinedMove> computePocketCubeMoves() {
+		LOGGER.info("AI : starting to compute moves from the 2x2 distance table");
+		
+		long start = System.currentTimeMillis();
+		
+		List<DefinedMove> path;
+		try {
+			path = PocketCubeSolver.getInstance().solve(this.initialRcConfig);
+		} catch (IOException e) {
+			LOGGER.error("### ERROR : cannot load the 2x2 distance table", e);
+			return null;
+		}
+		if (path == null)
+			return null;
+		
+		this.initialRcConfig.move(path);
+		
+		long duration = System.currentTimeMillis() - start;
+		
+		LOGGER.info("AI : Rubik's Cube solved in {} moves in {} ms", path.size(), duration);
+		return path;
+	}
+	
+	private List<DefinedMove> computeReductionMoves() {
+		LOGGER.info("AI : starting to compute moves with reduction method");
+		
+		List<DefinedMove> path = new ReductionSolver().solve(this.initialRcConfig);
+		if (path == null)
+			return null;
+		
+		this.initialRcConfig.move(path);
+		return path;
+	}
+	
+	private List<DefinedMove> computeTwoPhaseMoves() {
+		LOGGER.info("AI : starting to compute moves with two-phase algorithm");
+		
+		long start = System.currentTimeMillis();
+		
+		List<DefinedMove> path = new TwoPhaseSolver().solve(this.initialRcConfig);
+		if (path == null)
+			return null;
+		
+		// Same behaviour as the beginner method : the AI cube ends up solved (directly visible in simulation mode)
+		this.initialRcConfig.move(path);
+		
+		long duration = System.currentTimeMillis() - start;
+		
+		LOGGER.info("AI : Rubik's Cube solved in {} moves in {} ms", path.size(), duration);
+		return path;
+	}
+	
+	private List<DefinedMove> computeBeginnerMethodMoves() {
 		List<DefinedMove> path = new ArrayList<DefinedMove>();
 		
 		LOGGER.info("AI : starting to compute moves");
@@ -129,23 +364,35 @@ public class RubiksCubeAI {
 		
 		// Step One
 		placeTopRowCorner(path);
+		optimizeMoves(path);
+		publish(path);
 		
 		// Step Two
 		placeTheEdgesOfTopLayer(path);
+		optimizeMoves(path);
+		publish(path);
 		
 		// Step Three
 		alignTheCenters(path);
 		placeTheMiddleLayerEdges(path, 0);
+		optimizeMoves(path);
+		publish(path);
 		
 		// Step four
 		turnTheCubeOver(path);
 		arrangeTheLastLayerCorners(path);
+		optimizeMoves(path);
+		publish(path);
 		
 		// Step five
 		finishTheLastLayerCorners(path, 0);
+		optimizeMoves(path);
+		publish(path);
 		
 		// Step six
 		finishTwoEdgesAndPrepareRemainingTwo(path);
+		optimizeMoves(path);
+		publish(path);
 		
 		// Step seven
 		solveTheRubiksCube(path);
@@ -154,17 +401,14 @@ public class RubiksCubeAI {
 			LOGGER.debug("AI : complete path (before optimization) is => {}", path);
 		
 		// Finally we optimize moves in order to replace 3 PITCH with an UNPITCH for example
-		// FIXME: en testant manuellement l'algo, on identifie un bug qui fait qu'on n'arrive plus au bout de la résolution du Rubik's Cube
-		//optimizeMoves(path);
+		optimizeMoves(path);
 		
 		long duration = System.currentTimeMillis() - start;
 
 		LOGGER.info("AI : Rubik's Cube solved in {} moves in {} ms", path.size(), duration);
 		//LOGGER.debug("AI : final  path is => {}", path);
 
-		BlockingQueue queue = new LinkedBlockingQueue<>();
-		queue.addAll(path);
-		return queue;
+		return path;
 	}
 
 	/*
@@ -189,7 +433,7 @@ public class RubiksCubeAI {
 
         // We had no match => remove last three unuseful moves (ROLL2)
 		if (nbMove == 4) {
-            rc.move(new DefinedMove(Move.ROLL, 2));
+            rc.move(DefinedMove.of(Move.ROLL, 2));
             prereqPath.remove(prereqPath.size() - 1);
             prereqPath.remove(prereqPath.size() - 1);
             prereqPath.remove(prereqPath.size() - 1);
@@ -242,7 +486,7 @@ public class RubiksCubeAI {
 			addLocalMove(stepOnePath, Move.ROLL, 1);
 			
 			if (LOGGER.isDebugEnabled())
-				LOGGER.debug("AI::stepOne => target cubie is on top face but wrong side on the left => {}", new DefinedMove(Move.ROLL, 1));
+				LOGGER.debug("AI::stepOne => target cubie is on top face but wrong side on the left => {}", DefinedMove.of(Move.ROLL, 1));
 		}
 		
 		// Then we check if our target cubie is on the top row of front face but on the wrong side on the right
@@ -251,7 +495,7 @@ public class RubiksCubeAI {
 			addLocalMove(stepOnePath, Move.UNPITCH, rc.getSize());
 			
 			if (LOGGER.isDebugEnabled())
-				LOGGER.debug("AI::stepOne => target cubie is on top face but wrong side on the right => {}", new DefinedMove(Move.UNPITCH, rc.getSize()));
+				LOGGER.debug("AI::stepOne => target cubie is on top face but wrong side on the right => {}", DefinedMove.of(Move.UNPITCH, rc.getSize()));
 		}
 		
 		// Our target cubie could already be at its good place (upper right of front face) but not facing the right way
@@ -262,7 +506,7 @@ public class RubiksCubeAI {
 			
 			// Then deduce step 1 algo when the match is front face : 4
 			if (frontFaceUpperRightCubie.getFrontFace().equals(topColor)) {
-				stepOneTopRowMoves = getStepOneAlgoFour();
+				stepOneTopRowMoves = STEP_ONE_ALGO_FOUR;
 				
 				if (LOGGER.isDebugEnabled())
 					LOGGER.debug("AI::stepOne => about to apply step 1 algo 4 => {}", stepOneTopRowMoves);
@@ -270,7 +514,7 @@ public class RubiksCubeAI {
 			}
 			// Then deduce step 1 algo when the match is right face : 5
 			else if (frontFaceUpperRightCubie.getRightFace().equals(topColor)) {
-				stepOneTopRowMoves = getStepOneAlgoFive();
+				stepOneTopRowMoves = STEP_ONE_ALGO_FIVE;
 				
 				if (LOGGER.isDebugEnabled())
 					LOGGER.debug("AI::stepOne => about to apply step 1 algo 5 => {}", stepOneTopRowMoves);
@@ -292,7 +536,7 @@ public class RubiksCubeAI {
 			
 			// We had no match => remove last three unuseful moves (YAW1)
 			if (nbBottomRowMove == 4) {
-				rc.move(new DefinedMove(Move.YAW, 1));
+				rc.move(DefinedMove.of(Move.YAW, 1));
 				stepOnePath.remove(stepOnePath.size() - 1);
 				stepOnePath.remove(stepOnePath.size() - 1);
 				stepOnePath.remove(stepOnePath.size() - 1);
@@ -309,7 +553,7 @@ public class RubiksCubeAI {
 				
 				// Then deduce step 1 algo when the match is right face : 1
 				if (frontFaceBottomRightCubie.getRightFace().equals(topColor)) {
-					stepOneBottomRowMoves = getStepOneAlgoOne();
+					stepOneBottomRowMoves = STEP_ONE_ALGO_ONE;
 					
 					if (LOGGER.isDebugEnabled())
 						LOGGER.debug("AI::stepOne => about to apply step 1 algo 1 => {}", stepOneBottomRowMoves);
@@ -317,7 +561,7 @@ public class RubiksCubeAI {
 				}
 				// Then deduce step 1 algo when the match is front face : 2
 				else if (frontFaceBottomRightCubie.getFrontFace().equals(topColor)) {
-					stepOneBottomRowMoves = getStepOneAlgoTwo();
+					stepOneBottomRowMoves = STEP_ONE_ALGO_TWO;
 					
 					if (LOGGER.isDebugEnabled())
 						LOGGER.debug("AI::stepOne => about to apply step 1 algo 2 => {}", stepOneBottomRowMoves);
@@ -325,7 +569,7 @@ public class RubiksCubeAI {
 				}
 				// Then deduce step 1 algo when the match is bottom face : 3
 				else {
-					stepOneBottomRowMoves = getStepOneAlgoThree();
+					stepOneBottomRowMoves = STEP_ONE_ALGO_THREE;
 					
 					if (LOGGER.isDebugEnabled())
 						LOGGER.debug("AI::stepOne => about to apply step 1 algo 3 => {}", stepOneBottomRowMoves);
@@ -385,50 +629,45 @@ public class RubiksCubeAI {
 		return true;
 	}
 	
-	private static List<DefinedMove> getStepOneAlgoOne() {
-		return Arrays.asList(new DefinedMove(Move.UNPITCH, 3),
-				             new DefinedMove(Move.YAW, 1),
-				             new DefinedMove(Move.PITCH, 3));
-	}
+	private static final List<DefinedMove> STEP_ONE_ALGO_ONE = algorithm(
+			DefinedMove.of(Move.UNPITCH, 3),
+			DefinedMove.of(Move.YAW, 1),
+			DefinedMove.of(Move.PITCH, 3));
 	
-	private static List<DefinedMove> getStepOneAlgoTwo() {
-		return Arrays.asList(new DefinedMove(Move.YAW, 1),
-				             new DefinedMove(Move.UNPITCH, 3),
-				             new DefinedMove(Move.UNYAW, 1),
-				             new DefinedMove(Move.PITCH, 3));
-	}
+	private static final List<DefinedMove> STEP_ONE_ALGO_TWO = algorithm(
+			DefinedMove.of(Move.YAW, 1),
+			DefinedMove.of(Move.UNPITCH, 3),
+			DefinedMove.of(Move.UNYAW, 1),
+			DefinedMove.of(Move.PITCH, 3));
 	
-	private static List<DefinedMove> getStepOneAlgoThree() {
-		return Arrays.asList(new DefinedMove(Move.UNPITCH, 3),
-				             new DefinedMove(Move.UNYAW, 1),
-				             new DefinedMove(Move.PITCH, 3),
-				             new DefinedMove(Move.UNYAW, 1),
-				             new DefinedMove(Move.UNYAW, 1),
-				             new DefinedMove(Move.UNPITCH, 3),
-				             new DefinedMove(Move.YAW, 1),
-				             new DefinedMove(Move.PITCH, 3));
-	}
+	private static final List<DefinedMove> STEP_ONE_ALGO_THREE = algorithm(
+			DefinedMove.of(Move.UNPITCH, 3),
+			DefinedMove.of(Move.UNYAW, 1),
+			DefinedMove.of(Move.PITCH, 3),
+			DefinedMove.of(Move.UNYAW, 1),
+			DefinedMove.of(Move.UNYAW, 1),
+			DefinedMove.of(Move.UNPITCH, 3),
+			DefinedMove.of(Move.YAW, 1),
+			DefinedMove.of(Move.PITCH, 3));
 
-	private static List<DefinedMove> getStepOneAlgoFour() {
-		return Arrays.asList(new DefinedMove(Move.ROLL, 3),
-				             new DefinedMove(Move.UNYAW, 1),
-				             new DefinedMove(Move.UNROLL, 3),
-				             new DefinedMove(Move.UNYAW, 1),
-				             new DefinedMove(Move.UNYAW, 1),
-				             new DefinedMove(Move.UNPITCH, 3),
-				             new DefinedMove(Move.UNYAW, 1),
-				             new DefinedMove(Move.PITCH, 3));
-	}
+	private static final List<DefinedMove> STEP_ONE_ALGO_FOUR = algorithm(
+			DefinedMove.of(Move.ROLL, 3),
+			DefinedMove.of(Move.UNYAW, 1),
+			DefinedMove.of(Move.UNROLL, 3),
+			DefinedMove.of(Move.UNYAW, 1),
+			DefinedMove.of(Move.UNYAW, 1),
+			DefinedMove.of(Move.UNPITCH, 3),
+			DefinedMove.of(Move.UNYAW, 1),
+			DefinedMove.of(Move.PITCH, 3));
 
-	private static List<DefinedMove> getStepOneAlgoFive() {
-		return Arrays.asList(new DefinedMove(Move.UNPITCH, 3),
-				             new DefinedMove(Move.YAW, 1),
-				             new DefinedMove(Move.PITCH, 3),
-				             new DefinedMove(Move.UNYAW, 1),
-				             new DefinedMove(Move.UNPITCH, 3),
-				             new DefinedMove(Move.YAW, 1),
-				             new DefinedMove(Move.PITCH, 3));
-	}
+	private static final List<DefinedMove> STEP_ONE_ALGO_FIVE = algorithm(
+			DefinedMove.of(Move.UNPITCH, 3),
+			DefinedMove.of(Move.YAW, 1),
+			DefinedMove.of(Move.PITCH, 3),
+			DefinedMove.of(Move.UNYAW, 1),
+			DefinedMove.of(Move.UNPITCH, 3),
+			DefinedMove.of(Move.YAW, 1),
+			DefinedMove.of(Move.PITCH, 3));
 	
 	/*
 	 * Step Two main algorithm
@@ -463,7 +702,7 @@ public class RubiksCubeAI {
 			// Let's find where is the topColor on this topCenter edge cubie of the front face
 			// Then deduce step 2 algo when the match is front face : 5
 			if (frontFaceMiddleEdgeCubie.getFrontFace().equals(topColor)) {
-				stepTwoMoves = getStepTwoAlgoFive();
+				stepTwoMoves = STEP_TWO_ALGO_FIVE;
 				
 				if (LOGGER.isDebugEnabled())
 					LOGGER.debug("AI::stepTwo => target edge cubie is on top row of front face but on the wrong side => about to apply step 2 algo 5 => {}", stepTwoMoves);
@@ -485,7 +724,7 @@ public class RubiksCubeAI {
 			
 			// We had no match => remove last three unusefull moves (YAW2) and check on bottom row of front face
 			if (nbMiddleRowMove == 4) {
-				rc.move(new DefinedMove(Move.YAW, 2));
+				rc.move(DefinedMove.of(Move.YAW, 2));
 				stepTwoPath.remove(stepTwoPath.size() - 1);
 				stepTwoPath.remove(stepTwoPath.size() - 1);
 				stepTwoPath.remove(stepTwoPath.size() - 1);
@@ -529,7 +768,7 @@ public class RubiksCubeAI {
 				
 				// We had no match => remove last three unusefull moves (YAW1)
 				if (nbBottomRowMove == 4) {
-					rc.move(new DefinedMove(Move.YAW, 1));
+					rc.move(DefinedMove.of(Move.YAW, 1));
 					stepTwoPath.remove(stepTwoPath.size() - 1);
 					stepTwoPath.remove(stepTwoPath.size() - 1);
 					stepTwoPath.remove(stepTwoPath.size() - 1);
@@ -549,7 +788,7 @@ public class RubiksCubeAI {
 					
 					// Then deduce step 2 algo when the match is bottom face : 1
 					if (frontFaceBottomCenterCubie.getBottomFace().equals(topColor)) {
-						stepTwoMoves = getStepTwoAlgoOne();
+						stepTwoMoves = STEP_TWO_ALGO_ONE;
 						
 						if (LOGGER.isDebugEnabled())
 							LOGGER.debug("AI::stepTwo => about to apply step 2 algo 1 => {}", stepTwoMoves);
@@ -557,7 +796,7 @@ public class RubiksCubeAI {
 					}
 					// Then deduce step 2 algo when the match is front face : 2
 					else if (frontFaceBottomCenterCubie.getFrontFace().equals(topColor)) {
-						stepTwoMoves = getStepTwoAlgoTwo();
+						stepTwoMoves = STEP_TWO_ALGO_TWO;
 						
 						if (LOGGER.isDebugEnabled())
 							LOGGER.debug("AI::stepTwo => about to apply step 2 algo 2 => {}", stepTwoMoves);
@@ -577,7 +816,7 @@ public class RubiksCubeAI {
 				
 				// Then deduce step 2 algo when the match is right face : 3
 				if (frontFaceMiddleRightCubie.getRightFace().equals(topColor)) {
-					stepTwoMoves = getStepTwoAlgoThree();
+					stepTwoMoves = STEP_TWO_ALGO_THREE;
 					
 					if (LOGGER.isDebugEnabled())
 						LOGGER.debug("AI::stepTwo => about to apply step 2 algo 3 => {}", stepTwoMoves);
@@ -585,7 +824,7 @@ public class RubiksCubeAI {
 				}
 				// Then deduce step 2 algo when the match is front face : 4
 				else if (frontFaceMiddleRightCubie.getFrontFace().equals(topColor)) {
-					stepTwoMoves = getStepTwoAlgoFour();
+					stepTwoMoves = STEP_TWO_ALGO_FOUR;
 					
 					if (LOGGER.isDebugEnabled())
 						LOGGER.debug("AI::stepTwo => about to apply step 2 algo 4 => {}", stepTwoMoves);
@@ -646,45 +885,40 @@ public class RubiksCubeAI {
 		return true;
 	}
 	
-	private static List<DefinedMove> getStepTwoAlgoOne() {
-		return Arrays.asList(new DefinedMove(Move.UNPITCH, 2),
-				             new DefinedMove(Move.YAW, 1),
-				             new DefinedMove(Move.YAW, 1),
-				             new DefinedMove(Move.PITCH, 2));
-	}
+	private static final List<DefinedMove> STEP_TWO_ALGO_ONE = algorithm(
+			DefinedMove.of(Move.UNPITCH, 2),
+			DefinedMove.of(Move.YAW, 1),
+			DefinedMove.of(Move.YAW, 1),
+			DefinedMove.of(Move.PITCH, 2));
 	
-	private static List<DefinedMove> getStepTwoAlgoTwo() {
-		return Arrays.asList(new DefinedMove(Move.YAW, 1),
-				             new DefinedMove(Move.UNPITCH, 2),
-				             new DefinedMove(Move.UNYAW, 1),
-				             new DefinedMove(Move.PITCH, 2));
-	}
+	private static final List<DefinedMove> STEP_TWO_ALGO_TWO = algorithm(
+			DefinedMove.of(Move.YAW, 1),
+			DefinedMove.of(Move.UNPITCH, 2),
+			DefinedMove.of(Move.UNYAW, 1),
+			DefinedMove.of(Move.PITCH, 2));
 	
-	private static List<DefinedMove> getStepTwoAlgoThree() {
-		return Arrays.asList(new DefinedMove(Move.UNYAW, 2),
-				             new DefinedMove(Move.ROLL, 3),
-				             new DefinedMove(Move.YAW, 2),
-				             new DefinedMove(Move.UNROLL, 3));
-	}
+	private static final List<DefinedMove> STEP_TWO_ALGO_THREE = algorithm(
+			DefinedMove.of(Move.UNYAW, 2),
+			DefinedMove.of(Move.ROLL, 3),
+			DefinedMove.of(Move.YAW, 2),
+			DefinedMove.of(Move.UNROLL, 3));
 
-	private static List<DefinedMove> getStepTwoAlgoFour() {
-		return Arrays.asList(new DefinedMove(Move.UNYAW, 2),
-				             new DefinedMove(Move.UNROLL, 3),
-				             new DefinedMove(Move.YAW, 2),
-				             new DefinedMove(Move.YAW, 2),
-				             new DefinedMove(Move.ROLL, 3));
-	}
+	private static final List<DefinedMove> STEP_TWO_ALGO_FOUR = algorithm(
+			DefinedMove.of(Move.UNYAW, 2),
+			DefinedMove.of(Move.UNROLL, 3),
+			DefinedMove.of(Move.YAW, 2),
+			DefinedMove.of(Move.YAW, 2),
+			DefinedMove.of(Move.ROLL, 3));
 
-	private static List<DefinedMove> getStepTwoAlgoFive() {
-		return Arrays.asList(new DefinedMove(Move.UNPITCH, 2),
-							 new DefinedMove(Move.YAW, 1),
-							 new DefinedMove(Move.YAW, 1),
-							 new DefinedMove(Move.PITCH, 2),
-				             new DefinedMove(Move.YAW, 1),
-				             new DefinedMove(Move.UNPITCH, 2),
-				             new DefinedMove(Move.UNYAW, 1),
-				             new DefinedMove(Move.PITCH, 2));
-	}
+	private static final List<DefinedMove> STEP_TWO_ALGO_FIVE = algorithm(
+			DefinedMove.of(Move.UNPITCH, 2),
+			DefinedMove.of(Move.YAW, 1),
+			DefinedMove.of(Move.YAW, 1),
+			DefinedMove.of(Move.PITCH, 2),
+			DefinedMove.of(Move.YAW, 1),
+			DefinedMove.of(Move.UNPITCH, 2),
+			DefinedMove.of(Move.UNYAW, 1),
+			DefinedMove.of(Move.PITCH, 2));
 	
 	
 	/*
@@ -745,7 +979,7 @@ public class RubiksCubeAI {
 			// apply left algo only if middle left edge cubie of front face is not already correct
 			if (! frontFaceMiddleLeftEdgeCubie.getFrontFace().equals(frontFaceUpperLeftCornerCubie.getFrontFace())
 			 || ! frontFaceMiddleLeftEdgeCubie.getLeftFace().equals(frontFaceUpperLeftCornerCubie.getLeftFace())) {
-				addLocalMoves(stepThreePath, getStepThreeAlgoLeft());
+				addLocalMoves(stepThreePath, STEP_THREE_ALGO_LEFT);
 				
 				if (LOGGER.isDebugEnabled())
 					LOGGER.debug("AI::stepThree::PlaceTheMiddleLayerEdges => No Full-T => apply left algo");
@@ -753,7 +987,7 @@ public class RubiksCubeAI {
 			// apply right algo only if middle right edge cubie of front face is not already correct
 			else if (! frontFaceMiddleRightEdgeCubie.getFrontFace().equals(frontFaceUpperRightCornerCubie.getFrontFace())
 			 || ! frontFaceMiddleRightEdgeCubie.getRightFace().equals(frontFaceUpperRightCornerCubie.getRightFace())) {
-				addLocalMoves(stepThreePath, getStepThreeAlgoRight());
+				addLocalMoves(stepThreePath, STEP_THREE_ALGO_RIGHT);
 				
 				if (LOGGER.isDebugEnabled())
 					LOGGER.debug("AI::stepThree::PlaceTheMiddleLayerEdges => No Full-T => apply right algo");
@@ -770,7 +1004,7 @@ public class RubiksCubeAI {
 		List<DefinedMove> stepThreePreLeftMoves = null;
 		if (frontFaceMiddleLeftEdgeCubie.getFrontFace().equals(frontFaceUpperLeftCornerCubie.getLeftFace())
 		 && frontFaceMiddleLeftEdgeCubie.getLeftFace().equals(frontFaceUpperLeftCornerCubie.getFrontFace())) {
-			stepThreePreLeftMoves = getStepThreeAlgoLeft();
+			stepThreePreLeftMoves = STEP_THREE_ALGO_LEFT;
 			if (LOGGER.isDebugEnabled())
 				LOGGER.debug("AI::stepThree::PlaceTheMiddleLayerEdges => middle front left edge cubie is in the proper position but is turned around => apply step 3 algo left to force the proper cubie to the bottom => {}", stepThreePreLeftMoves);
 		}
@@ -780,7 +1014,7 @@ public class RubiksCubeAI {
 		List<DefinedMove> stepThreePreRightMoves = null;
 		if (frontFaceMiddleRightEdgeCubie.getFrontFace().equals(frontFaceUpperRightCornerCubie.getRightFace())
 		 && frontFaceMiddleRightEdgeCubie.getRightFace().equals(frontFaceUpperRightCornerCubie.getFrontFace())) {
-			stepThreePreRightMoves = getStepThreeAlgoRight();
+			stepThreePreRightMoves = STEP_THREE_ALGO_RIGHT;
 			if (LOGGER.isDebugEnabled())
 				LOGGER.debug("AI::stepThree::PlaceTheMiddleLayerEdges => middle front right edge cubie is in the proper position but is turned around => apply step 3 algo right to force the proper cubie to the bottom => {}", stepThreePreRightMoves);
 		}
@@ -798,7 +1032,7 @@ public class RubiksCubeAI {
 		
 		// We had no match => remove last three unuseful moves (YAW1)
 		if (nbBottomRowMove == 4) {
-			rc.move(new DefinedMove(Move.YAW, 1));
+			rc.move(DefinedMove.of(Move.YAW, 1));
 			stepThreePath.remove(stepThreePath.size() - 1);
 			stepThreePath.remove(stepThreePath.size() - 1);
 			stepThreePath.remove(stepThreePath.size() - 1);
@@ -822,7 +1056,7 @@ public class RubiksCubeAI {
 			
 			// Then deduce step 3 algo when the match is on the left
 			if (frontFaceBottomCenterCubie.getBottomFace().equals(frontFaceUpperLeftCornerCubie.getLeftFace())) {
-				stepThreeMoves = getStepThreeAlgoLeft();
+				stepThreeMoves = STEP_THREE_ALGO_LEFT;
 				
 				if (LOGGER.isDebugEnabled())
 					LOGGER.debug("AI::stepThree::PlaceTheMiddleLayerEdges => about to apply step 3 algo left => {}", stepThreeMoves);
@@ -830,7 +1064,7 @@ public class RubiksCubeAI {
 			}
 			// Then deduce step 3 algo when the match is on the right
 			else if (frontFaceBottomCenterCubie.getBottomFace().equals(frontFaceUpperRightCornerCubie.getRightFace())) {
-				stepThreeMoves = getStepThreeAlgoRight();
+				stepThreeMoves = STEP_THREE_ALGO_RIGHT;
 				
 				if (LOGGER.isDebugEnabled())
 					LOGGER.debug("AI::stepThree::PlaceTheMiddleLayerEdges => about to apply step 3 algo right => {}", stepThreeMoves);
@@ -924,27 +1158,25 @@ public class RubiksCubeAI {
 		return true;
 	}
 	
-	private static List<DefinedMove> getStepThreeAlgoLeft() {
-		return Arrays.asList(new DefinedMove(Move.UNYAW, 1),
-	             			 new DefinedMove(Move.UNPITCH, 1),
-	             			 new DefinedMove(Move.YAW, 1),
-	             			 new DefinedMove(Move.PITCH, 1),
-	             			 new DefinedMove(Move.YAW, 1),
-	             			 new DefinedMove(Move.UNROLL, 3),
-	             			 new DefinedMove(Move.UNYAW, 1),
-	             			 new DefinedMove(Move.ROLL, 3));
-	}
+	private static final List<DefinedMove> STEP_THREE_ALGO_LEFT = algorithm(
+			DefinedMove.of(Move.UNYAW, 1),
+			DefinedMove.of(Move.UNPITCH, 1),
+			DefinedMove.of(Move.YAW, 1),
+			DefinedMove.of(Move.PITCH, 1),
+			DefinedMove.of(Move.YAW, 1),
+			DefinedMove.of(Move.UNROLL, 3),
+			DefinedMove.of(Move.UNYAW, 1),
+			DefinedMove.of(Move.ROLL, 3));
 
-	private static List<DefinedMove> getStepThreeAlgoRight() {
-		return Arrays.asList(new DefinedMove(Move.YAW, 1),
-    			 			 new DefinedMove(Move.UNPITCH, 3),
-    			 			 new DefinedMove(Move.UNYAW, 1),
-    			 			 new DefinedMove(Move.PITCH, 3),
-    			 			 new DefinedMove(Move.UNYAW, 1),
-    			 			 new DefinedMove(Move.ROLL, 3),
-    			 			 new DefinedMove(Move.YAW, 1),
-    			 			 new DefinedMove(Move.UNROLL, 3));
-	}
+	private static final List<DefinedMove> STEP_THREE_ALGO_RIGHT = algorithm(
+			DefinedMove.of(Move.YAW, 1),
+			DefinedMove.of(Move.UNPITCH, 3),
+			DefinedMove.of(Move.UNYAW, 1),
+			DefinedMove.of(Move.PITCH, 3),
+			DefinedMove.of(Move.UNYAW, 1),
+			DefinedMove.of(Move.ROLL, 3),
+			DefinedMove.of(Move.YAW, 1),
+			DefinedMove.of(Move.UNROLL, 3));
 	
 	/*
 	 * Step Four main algorithm
@@ -1004,7 +1236,7 @@ public class RubiksCubeAI {
 		
 		// We had no match => remove last three unusefull moves (YAW3)
 		if (nbTopRowMove == 4) {
-			rc.move(new DefinedMove(Move.YAW, rc.getSize()));
+			rc.move(DefinedMove.of(Move.YAW, rc.getSize()));
 			stepFourPath.remove(stepFourPath.size() - 1);
 			stepFourPath.remove(stepFourPath.size() - 1);
 			stepFourPath.remove(stepFourPath.size() - 1);
@@ -1023,10 +1255,10 @@ public class RubiksCubeAI {
 			boolean isRightOnThirdPosition  = matchesCornerCubieOnFacelets(backRightCornerCubie, topColor, frontColor, rightColor);
 			
 			if (isLeftOnSecondPosition && isRightOnThirdPosition) {
-				addLocalMoves(stepFourPath, getStepFourAlgoSwitchOneAndThree());
+				addLocalMoves(stepFourPath, STEP_FOUR_ALGO_SWITCH_ONE_AND_THREE);
 				
 				if (LOGGER.isDebugEnabled())
-					LOGGER.debug("AI::stepFour::ArrangeTheLastLayerCorners => apply algo step 4 switch 1 and 3 : {}", getStepFourAlgoSwitchOneAndThree());
+					LOGGER.debug("AI::stepFour::ArrangeTheLastLayerCorners => apply algo step 4 switch 1 and 3 : {}", STEP_FOUR_ALGO_SWITCH_ONE_AND_THREE);
 			}
 			else {
 				// We turn the top front row to the left for recursive purpose
@@ -1051,10 +1283,10 @@ public class RubiksCubeAI {
 					LOGGER.debug("AI::stepFour::ArrangeTheLastLayerCorners => left and right corner cubie are already in proper sides => go on !");
 			}
 			else {
-				addLocalMoves(stepFourPath, getStepFourAlgoSwitchOneAndTwo());
+				addLocalMoves(stepFourPath, STEP_FOUR_ALGO_SWITCH_ONE_AND_TWO);
 				
 				if (LOGGER.isDebugEnabled())
-					LOGGER.debug("AI::stepFour::ArrangeTheLastLayerCorners => left and right corner cubie are not in proper sides => apply algo step 4 switch 1 and 2 : {}", getStepFourAlgoSwitchOneAndTwo());
+					LOGGER.debug("AI::stepFour::ArrangeTheLastLayerCorners => left and right corner cubie are not in proper sides => apply algo step 4 switch 1 and 2 : {}", STEP_FOUR_ALGO_SWITCH_ONE_AND_TWO);
 			}
 
 			// Turn the entire cube around so that we can deal with back corner cubies
@@ -1075,7 +1307,7 @@ public class RubiksCubeAI {
 		
 		// First we turn the entire cubie upside down to match the previous steps
 		for (int i = 1; i <= rc.getSize(); i++) {
-			rc.move(new DefinedMove(Move.DOUBLE_ROLL, i));
+			rc.move(DefinedMove.of(Move.DOUBLE_ROLL, i));
 		}
 		
 		if (! matchesStepThreePlaceTheMiddleLayerEdges())
@@ -1083,7 +1315,7 @@ public class RubiksCubeAI {
 		
 		// Then we move back the entire cubie upside down to go on with the next steps
 		for (int i = 1; i <= rc.getSize(); i++) {
-			rc.move(new DefinedMove(Move.DOUBLE_ROLL, i));
+			rc.move(DefinedMove.of(Move.DOUBLE_ROLL, i));
 		}
 		
 		// Now we check each corner cubie of top face
@@ -1117,33 +1349,31 @@ public class RubiksCubeAI {
 		return true;
 	}	
 
-	private static List<DefinedMove> getStepFourAlgoSwitchOneAndTwo() {
-		return Arrays.asList(new DefinedMove(Move.PITCH, 1),
-				             new DefinedMove(Move.UNYAW, 3),
-				             new DefinedMove(Move.UNPITCH, 1),
-				             new DefinedMove(Move.ROLL, 3),
-				             new DefinedMove(Move.YAW, 3),
-				             new DefinedMove(Move.UNROLL, 3),
-				             new DefinedMove(Move.PITCH, 1),
-				             new DefinedMove(Move.YAW, 3),
-				             new DefinedMove(Move.UNPITCH, 1),
-				             new DefinedMove(Move.YAW, 3),
-				             new DefinedMove(Move.YAW, 3));
-	}
+	private static final List<DefinedMove> STEP_FOUR_ALGO_SWITCH_ONE_AND_TWO = algorithm(
+			DefinedMove.of(Move.PITCH, 1),
+			DefinedMove.of(Move.UNYAW, 3),
+			DefinedMove.of(Move.UNPITCH, 1),
+			DefinedMove.of(Move.ROLL, 3),
+			DefinedMove.of(Move.YAW, 3),
+			DefinedMove.of(Move.UNROLL, 3),
+			DefinedMove.of(Move.PITCH, 1),
+			DefinedMove.of(Move.YAW, 3),
+			DefinedMove.of(Move.UNPITCH, 1),
+			DefinedMove.of(Move.YAW, 3),
+			DefinedMove.of(Move.YAW, 3));
 	
-	private static List<DefinedMove> getStepFourAlgoSwitchOneAndThree() {
-		return Arrays.asList(new DefinedMove(Move.YAW, 3),
-				             new DefinedMove(Move.PITCH, 1),
-				             new DefinedMove(Move.UNYAW, 3),
-				             new DefinedMove(Move.UNPITCH, 1),
-				             new DefinedMove(Move.ROLL, 3),
-				             new DefinedMove(Move.YAW, 3),
-				             new DefinedMove(Move.UNROLL, 3),
-				             new DefinedMove(Move.PITCH, 1),
-				             new DefinedMove(Move.YAW, 3),
-				             new DefinedMove(Move.UNPITCH, 1),
-				             new DefinedMove(Move.YAW, 3));
-	}
+	private static final List<DefinedMove> STEP_FOUR_ALGO_SWITCH_ONE_AND_THREE = algorithm(
+			DefinedMove.of(Move.YAW, 3),
+			DefinedMove.of(Move.PITCH, 1),
+			DefinedMove.of(Move.UNYAW, 3),
+			DefinedMove.of(Move.UNPITCH, 1),
+			DefinedMove.of(Move.ROLL, 3),
+			DefinedMove.of(Move.YAW, 3),
+			DefinedMove.of(Move.UNROLL, 3),
+			DefinedMove.of(Move.PITCH, 1),
+			DefinedMove.of(Move.YAW, 3),
+			DefinedMove.of(Move.UNPITCH, 1),
+			DefinedMove.of(Move.YAW, 3));
 	
 	/*
 	 * Step Five main algorithm
@@ -1170,7 +1400,7 @@ public class RubiksCubeAI {
 		 || (upperLeftFrontFaceCubie.getFrontFace().equals(topColor) && upperRightFrontFaceCubie.getTopFace().equals(topColor)
 		  || upperRightFrontFaceCubie.getRightFace().equals(topColor) && upperRightRightFaceCubie.getRightFace().equals(topColor)
 		  || upperRightFrontFaceCubie.getTopFace().equals(topColor) && upperRightRightFaceCubie.getRightFace().equals(topColor))) {
-			addLocalMoves(stepFivePath, getStepFiveAlgo());
+			addLocalMoves(stepFivePath, STEP_FIVE_ALGO);
 			
 			if (LOGGER.isDebugEnabled()) {
 				String detail = "";
@@ -1178,7 +1408,7 @@ public class RubiksCubeAI {
 					detail = "no match for one of the three configurations after full (4) top row turn";
 				else
 					detail = "we matched one of the three target configurations";
-				LOGGER.debug("AI::stepFive => {} => apply algo step 5 : {}", detail, getStepFiveAlgo());
+				LOGGER.debug("AI::stepFive => {} => apply algo step 5 : {}", detail, STEP_FIVE_ALGO);
 			}
 			
 			nbConsecutiveFaceWithoutConfigFound = 0;
@@ -1212,18 +1442,17 @@ public class RubiksCubeAI {
 		return true;
 	}
 	
-	private static List<DefinedMove> getStepFiveAlgo() {
-		return Arrays.asList(new DefinedMove(Move.PITCH, 1),
-				             new DefinedMove(Move.UNYAW, 3),
-				             new DefinedMove(Move.UNPITCH, 1),
-				             new DefinedMove(Move.UNYAW, 3),
-				             new DefinedMove(Move.PITCH, 1),
-				             new DefinedMove(Move.UNYAW, 3),
-				             new DefinedMove(Move.UNYAW, 3),
-				             new DefinedMove(Move.UNPITCH, 1),
-				             new DefinedMove(Move.UNYAW, 3),
-				             new DefinedMove(Move.UNYAW, 3));
-	}
+	private static final List<DefinedMove> STEP_FIVE_ALGO = algorithm(
+			DefinedMove.of(Move.PITCH, 1),
+			DefinedMove.of(Move.UNYAW, 3),
+			DefinedMove.of(Move.UNPITCH, 1),
+			DefinedMove.of(Move.UNYAW, 3),
+			DefinedMove.of(Move.PITCH, 1),
+			DefinedMove.of(Move.UNYAW, 3),
+			DefinedMove.of(Move.UNYAW, 3),
+			DefinedMove.of(Move.UNPITCH, 1),
+			DefinedMove.of(Move.UNYAW, 3),
+			DefinedMove.of(Move.UNYAW, 3));
 	
 	/*
 	 * Step Six main algorithm
@@ -1251,18 +1480,16 @@ public class RubiksCubeAI {
 		
 		// We had no match => remove last three unusefull moves (YAW)
 		if (nbEntireCubeMove == 4) {
-			for (int i = 1; i <= rc.getSize(); i++) {
-				rc.move(new DefinedMove(Move.YAW, i));
-				stepSixPath.remove(stepSixPath.size() - 1);
-				stepSixPath.remove(stepSixPath.size() - 1);
+			rc.move(DefinedMove.of(Move.YAW));
+			for (int i = 0; i < 3 * rc.getSize(); i++) {
 				stepSixPath.remove(stepSixPath.size() - 1);
 			}
 
 			// apply step 6 algo
-			addLocalMoves(stepSixPath, getStepSixAlgo());
+			addLocalMoves(stepSixPath, STEP_SIX_ALGO);
 			
 			if (LOGGER.isDebugEnabled())
-				LOGGER.debug("AI::stepSix => no match found on front top edge cubie on any face => applying step 6 algo anyway : {}", getStepSixAlgo());
+				LOGGER.debug("AI::stepSix => no match found on front top edge cubie on any face => applying step 6 algo anyway : {}", STEP_SIX_ALGO);
 		}
 		// We had a match !!
 		else {
@@ -1274,10 +1501,10 @@ public class RubiksCubeAI {
 			}
 			
 			// apply step 6 algo
-			addLocalMoves(stepSixPath, getStepSixAlgo());
+			addLocalMoves(stepSixPath, STEP_SIX_ALGO);
 			
 			if (LOGGER.isDebugEnabled())
-				LOGGER.debug("AI::stepSix => applying step 6 algo : {}", getStepSixAlgo());
+				LOGGER.debug("AI::stepSix => applying step 6 algo : {}", STEP_SIX_ALGO);
 		}
 			
 		path.addAll(stepSixPath);
@@ -1337,16 +1564,15 @@ public class RubiksCubeAI {
 		return count;
 	}
 	
-	private static List<DefinedMove> getStepSixAlgo() {
-		return Arrays.asList(new DefinedMove(Move.PITCH, 2),
-				             new DefinedMove(Move.UNYAW, 3),
-				             new DefinedMove(Move.UNPITCH, 2),
-				             new DefinedMove(Move.UNYAW, 3),
-				             new DefinedMove(Move.UNYAW, 3),
-				             new DefinedMove(Move.PITCH, 2),
-				             new DefinedMove(Move.UNYAW, 3),
-				             new DefinedMove(Move.UNPITCH, 2));
-	}
+	private static final List<DefinedMove> STEP_SIX_ALGO = algorithm(
+			DefinedMove.of(Move.PITCH, 2),
+			DefinedMove.of(Move.UNYAW, 3),
+			DefinedMove.of(Move.UNPITCH, 2),
+			DefinedMove.of(Move.UNYAW, 3),
+			DefinedMove.of(Move.UNYAW, 3),
+			DefinedMove.of(Move.PITCH, 2),
+			DefinedMove.of(Move.UNYAW, 3),
+			DefinedMove.of(Move.UNPITCH, 2));
 	
 	/*
 	 * Step Seven main algorithm
@@ -1365,10 +1591,10 @@ public class RubiksCubeAI {
 		// Special case where step 6 did not completely solve two of the four edge cubies => apply H pattern algo
 		if (countCompletelySolvedTopEdgeCubie() == 0) {
 			// apply step 6 algo
-			addLocalMoves(stepSevenPath, getStepSevenAlgoHPattern());
+			addLocalMoves(stepSevenPath, STEP_SEVEN_ALGO_H_PATTERN);
 			
 			if (LOGGER.isDebugEnabled())
-				LOGGER.debug("AI::stepSeven => all four edges flipped after step six => applying step 7 H pattern algo : {}", getStepSevenAlgoHPattern());
+				LOGGER.debug("AI::stepSeven => all four edges flipped after step six => applying step 7 H pattern algo : {}", STEP_SEVEN_ALGO_H_PATTERN);
 		}
 		
 		// We will turn the entire cube to the left until we identify one of the two target configurations
@@ -1379,10 +1605,8 @@ public class RubiksCubeAI {
 		
 		// We had no match => remove last three unusefull moves (YAW)
 		if (nbEntireCubeMove == 4) {
-			for (int i = 1; i <= rc.getSize(); i++) {
-				rc.move(new DefinedMove(Move.YAW, i));
-				stepSevenPath.remove(stepSevenPath.size() - 1);
-				stepSevenPath.remove(stepSevenPath.size() - 1);
+			rc.move(DefinedMove.of(Move.YAW));
+			for (int i = 0; i < 3 * rc.getSize(); i++) {
 				stepSevenPath.remove(stepSevenPath.size() - 1);
 			}
 
@@ -1400,17 +1624,17 @@ public class RubiksCubeAI {
 			
 			if (matchesStepSevenDedmoreHPattern()) {
 				// apply step 7 algo H pattern
-				addLocalMoves(stepSevenPath, getStepSevenAlgoHPattern());
+				addLocalMoves(stepSevenPath, STEP_SEVEN_ALGO_H_PATTERN);
 				
 				if (LOGGER.isDebugEnabled())
-					LOGGER.debug("AI::stepSeven => applying step 7 H pattern algo : {}", getStepSevenAlgoHPattern());
+					LOGGER.debug("AI::stepSeven => applying step 7 H pattern algo : {}", STEP_SEVEN_ALGO_H_PATTERN);
 			}
 			else {
 				// apply step 7 algo Fish pattern
-				addLocalMoves(stepSevenPath, getStepSevenAlgoFishPattern());
+				addLocalMoves(stepSevenPath, STEP_SEVEN_ALGO_FISH_PATTERN);
 				
 				if (LOGGER.isDebugEnabled())
-					LOGGER.debug("AI::stepSeven => applying step 7 Fish pattern algo : {}", getStepSevenAlgoFishPattern());
+					LOGGER.debug("AI::stepSeven => applying step 7 Fish pattern algo : {}", STEP_SEVEN_ALGO_FISH_PATTERN);
 			}
 		}
 		
@@ -1534,33 +1758,34 @@ public class RubiksCubeAI {
 		return true;
 	}
 	
-	private static List<DefinedMove> getStepSevenAlgoHPattern() {
-		return Arrays.asList(new DefinedMove(Move.UNPITCH, 3),
-				             new DefinedMove(Move.YAW, 2),
-				             new DefinedMove(Move.UNPITCH, 3),
-				             new DefinedMove(Move.UNPITCH, 3),
-				             new DefinedMove(Move.YAW, 2),
-				             new DefinedMove(Move.YAW, 2),
-				             new DefinedMove(Move.UNPITCH, 3),
-				             new DefinedMove(Move.UNYAW, 3),
-				             new DefinedMove(Move.UNYAW, 3),
-				             new DefinedMove(Move.PITCH, 3),
-				             new DefinedMove(Move.UNYAW, 2),
-				             new DefinedMove(Move.UNYAW, 2),
-				             new DefinedMove(Move.UNPITCH, 3),
-				             new DefinedMove(Move.UNPITCH, 3),
-				             new DefinedMove(Move.UNYAW, 2),
-				             new DefinedMove(Move.PITCH, 3),
-				             new DefinedMove(Move.UNYAW, 3),
-				             new DefinedMove(Move.UNYAW, 3));
-	}
+	private static final List<DefinedMove> STEP_SEVEN_ALGO_H_PATTERN = algorithm(
+			DefinedMove.of(Move.UNPITCH, 3),
+			DefinedMove.of(Move.YAW, 2),
+			DefinedMove.of(Move.UNPITCH, 3),
+			DefinedMove.of(Move.UNPITCH, 3),
+			DefinedMove.of(Move.YAW, 2),
+			DefinedMove.of(Move.YAW, 2),
+			DefinedMove.of(Move.UNPITCH, 3),
+			DefinedMove.of(Move.UNYAW, 3),
+			DefinedMove.of(Move.UNYAW, 3),
+			DefinedMove.of(Move.PITCH, 3),
+			DefinedMove.of(Move.UNYAW, 2),
+			DefinedMove.of(Move.UNYAW, 2),
+			DefinedMove.of(Move.UNPITCH, 3),
+			DefinedMove.of(Move.UNPITCH, 3),
+			DefinedMove.of(Move.UNYAW, 2),
+			DefinedMove.of(Move.PITCH, 3),
+			DefinedMove.of(Move.UNYAW, 3),
+			DefinedMove.of(Move.UNYAW, 3));
+	
+	private static final List<DefinedMove> STEP_SEVEN_ALGO_FISH_PATTERN;
 	
-	private static List<DefinedMove> getStepSevenAlgoFishPattern() {
+	static {
 		List<DefinedMove> moves = new ArrayList<DefinedMove>();
-		moves.addAll(Arrays.asList(new DefinedMove(Move.UNROLL, 3), new DefinedMove(Move.PITCH, 1)));
-		moves.addAll(getStepSevenAlgoHPattern());
-		moves.addAll(Arrays.asList(new DefinedMove(Move.UNPITCH, 1), new DefinedMove(Move.ROLL, 3)));
-		return moves;
+		moves.addAll(Arrays.asList(DefinedMove.of(Move.UNROLL, 3), DefinedMove.of(Move.PITCH, 1)));
+		moves.addAll(STEP_SEVEN_ALGO_H_PATTERN);
+		moves.addAll(Arrays.asList(DefinedMove.of(Move.UNPITCH, 1), DefinedMove.of(Move.ROLL, 3)));
+		STEP_SEVEN_ALGO_FISH_PATTERN = Collections.unmodifiableList(moves);
 	}
 	
 	/*
@@ -1568,22 +1793,30 @@ public class RubiksCubeAI {
 	 */
 
 	private void addLocalMove(List<DefinedMove> localPath, Move move, int faceIndex) {
-		DefinedMove definedMove = new DefinedMove(move, faceIndex); 
+		DefinedMove definedMove = DefinedMove.of(move, faceIndex); 
 		this.initialRcConfig.move(definedMove);
 		localPath.add(definedMove);
 	}
 
 	private void addLocalMoves(List<DefinedMove> localPath, List<DefinedMove> moves) {
 		if (moves != null) {
-			this.initialRcConfig.move(moves);
+			// Algorithms are fixed sequences : they are compiled once and then applied in a single pass
+			this.initialRcConfig.move(MoveSequenceCompiler.getCompiled(this.initialRcConfig.getSize(), moves));
 			localPath.addAll(moves);
 		}
 	}
 	
-	// Here we turn the entire cube considering given Move param
+	// Algorithms are fixed sequences of interned moves : they are built once and shared by all the solves
+	private static List<DefinedMove> algorithm(DefinedMove... moves) {
+		return Collections.unmodifiableList(Arrays.asList(moves));
+	}
+	
+	// Here we turn the entire cube considering given Move param : the AI cube is only reoriented (a single whole cube move),
+	// whereas the path gets one move per slice, which every player of the path (such as the 3D game) can animate
 	private void turnTheCube(List<DefinedMove> path, Move move) {
-		for (int i=1; i <= this.initialRcConfig.getSize(); i++) {
-			addLocalMove(path, move, i);
+		this.initialRcConfig.move(DefinedMove.of(move));
+		for (int i = 1; i <= this.initialRcConfig.getSize(); i++) {
+			path.add(DefinedMove.of(move, i));
 		}
 	}
 	
@@ -1630,57 +1863,20 @@ public class RubiksCubeAI {
 		return count;
 	}
 	
-	private static void optimizeMoves(List<DefinedMove> path) {
-		DefinedMove prevMove = null;
-		int count = 1;
-		for (ListIterator<DefinedMove> it = path.listIterator(); it.hasNext(); ) {
-			DefinedMove move = it.next();
-			
-			/*
-			 * Check if some move is repeated 3 times
-			 */
-			if (move.equals(prevMove))
-				count++;
-			else
-				count = 1;
-			
-			if (count == 3) {
-				// We remove current move
-				it.remove();
-				
-				// Then we remove the 2 previous one
-				it.previous();
-				it.remove();
-				it.previous();
-				it.remove();
-				
-				if (LOGGER.isDebugEnabled())
-					LOGGER.debug("AI : we should replace last three {} with a {}@{}", move, Move.inverse(move.getMove()), move.getFaceIndex());
-				
-				// Finally we replace with the inverse move
-				move = new DefinedMove(Move.inverse(move.getMove()), move.getFaceIndex());
-				it.add(move);
-				
-				// We reinit the previous correctly then we reset the iterator at the current position
-				prevMove = it.previous();
-				it.next();
-				
-				count = 1;
-			}
-			
-			/*
-			 * Check if some move is followed by its opposite
-			 */
-			if (prevMove != null && move.equals(new DefinedMove(Move.inverse(prevMove.getMove()), prevMove.getFaceIndex()))) {
-				it.remove();
-				it.previous();
-				it.remove();
-				
-				if (LOGGER.isDebugEnabled())
-					LOGGER.debug("AI : we should remove last {} and its previous inverse {}", move, prevMove);
-			}
-				
-			prevMove = move;
-		}
+	/**
+	 * Optimizes the moves of the path which are not published yet (the published ones may already be played) : moves
+	 * around the same axis are merged, then the windows of a 3x3 path with a shorter equivalent are rewritten
+	 */
+	private void optimizeMoves(List<DefinedMove> path) {
+		List<DefinedMove> unpublishedPath = path.subList(this.solvingPathSize, path.size());
+		List<DefinedMove> optimizedPath = MoveOptimizer.optimize(unpublishedPath, this.initialRcConfig.getSize());
+		if (this.initialRcConfig.getSize() == PeepholeOptimizer.SIZE)
+			optimizedPath = PeepholeOptimizer.getInstance().optimize(optimizedPath);
+		
+		if (LOGGER.isDebugEnabled())
+			LOGGER.debug("AI : {} moves optimized into {} moves", unpublishedPath.size(), optimizedPath.size());
+		
+		unpublishedPath.clear();
+		unpublishedPath.addAll(optimizedPath);
 	}
 }
@@ -0,0 +1,60 @@
+package org.aforgues.rubikscube.ai;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.aforgues.rubikscube.core.CubeStateKey;
+import org.aforgues.rubikscube.core.DefinedMove;
+import org.aforgues.rubikscube.core.MoveSequence;
+
+/**
+ * Single flight of the solves : concurrent solves of the same position (same canonical key, cf. {@link SolutionCache})
+ * share one computation. The first caller runs it, the other ones wait for its solution, which is rotated into the
+ * frame of their own cube. If the first caller finds no solution, each waiting caller runs its own computation.
+ */
+public class SolveCoalescer {
+
+	private final ConcurrentMap<CubeStateKey, CompletableFuture<MoveSequence>> inFlight = new ConcurrentHashMap<CubeStateKey, CompletableFuture<MoveSequence>>();
+	private final AtomicLong coalescedCount = new AtomicLong();
+
+	/**
+	 * Returns the solution computed by <code>computation</code> (null when it finds none), or by the computation already
+	 * running for the same key
+	 */
+	public List<DefinedMove> solve(SolutionCache.Key key, Supplier<List<DefinedMove>> computation) {
+		CompletableFuture<MoveSequence> flight = new CompletableFuture<MoveSequence>();
+		CompletableFuture<MoveSequence> runningFlight = inFlight.putIfAbsent(key.getStateKey(), flight);
+		if (runningFlight != null) {
+			coalescedCount.incrementAndGet();
+			MoveSequence solution = runningFlight.join();
+			return solution != null ? key.fromCanonical(solution) : computation.get();
+		}
+
+		MoveSequence solution = null;
+		try {
+			List<DefinedMove> path = computation.get();
+			if (path != null)
+				solution = key.toCanonical(path);
+			return path;
+		}
+		finally {
+			inFlight.remove(key.getStateKey(), flight);
+			flight.complete(solution);
+		}
+	}
+
+	/**
+	 * Number of solves which got the solution of another one
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount.get();
+	}
+
+	public int getInFlightCount() {
+		return inFlight.size();
+	}
+}
@@ -0,0 +1,37 @@
+package org.aforgues.rubikscube.ai;
+
+import java.util.List;
+
+import org.aforgues.rubikscube.core.DefinedMove;
+import org.aforgues.rubikscube.core.RubiksCube;
+
+/**
+ * Solving engine, registered as a service (cf. {@link java.util.ServiceLoader} and {@link Solvers}) : an engine is added
+ * by listing its class in <code>META-INF/services/org.aforgues.rubikscube.ai.Solver</code>.
+ *
+ * Implementations must have a public constructor without arguments, be cheap to create (tables are loaded on first solve)
+ * and thread safe, a single instance being shared by all the solves.
+ */
+public interface Solver {
+
+	String getName();
+
+	boolean supports(int size);
+
+	/**
+	 * Usual solving time of a RubiksCube of this size (tables being loaded), in milliseconds
+	 */
+	long getExpectedLatencyMillis(int size);
+
+	/**
+	 * Usual number of moves of the solutions of a RubiksCube of this size
+	 */
+	int getExpectedLength(int size);
+
+	/**
+	 * Returns a solution of the RubiksCube (which is left unchanged), <code>null</code> when it cannot be solved.
+	 * Engines which can improve their solution stop once it has at most <code>targetLength</code> moves, or when
+	 * <code>timeBudgetMillis</code> is elapsed or <code>token</code> is cancelled, and return the best one found.
+	 */
+	List<DefinedMove> solve(RubiksCube rc, int targetLength, long timeBudgetMillis, CancellationToken token);
+}
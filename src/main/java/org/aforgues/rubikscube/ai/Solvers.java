@@ -0,0 +1,77 @@
+package org.aforgues.rubikscube.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of the {@link Solver} services found on the classpath, loaded once, and selection of the engine to use
+ * according to the size of the RubiksCube and to the constraints of the caller.
+ */
+public final class Solvers {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(Solvers.class);
+
+	private static List<Solver> solvers;
+
+	private Solvers() {
+	}
+
+	public static synchronized List<Solver> getSolvers() {
+		if (solvers == null)
+			solvers = Collections.unmodifiableList(load());
+		return solvers;
+	}
+
+	/**
+	 * Returns the fastest solver whose usual solutions have at most <code>maxLength</code> moves and take at most
+	 * <code>maxLatencyMillis</code>. When none meets both constraints, the latency wins : returns the solver with the
+	 * shortest solutions among those fast enough, <code>null</code> when there is none.
+	 */
+	public static Solver select(int size, int maxLength, long maxLatencyMillis) {
+		Solver fastest = null;
+		Solver shortest = null;
+		for (Solver solver : getSolvers()) {
+			if (! solver.supports(size) || solver.getExpectedLatencyMillis(size) > maxLatencyMillis)
+				continue;
+
+			if (solver.getExpectedLength(size) <= maxLength
+					&& (fastest == null || solver.getExpectedLatencyMillis(size) < fastest.getExpectedLatencyMillis(size)))
+				fastest = solver;
+
+			if (shortest == null || solver.getExpectedLength(size) < shortest.getExpectedLength(size))
+				shortest = solver;
+		}
+
+		Solver selected = fastest != null ? fastest : shortest;
+		if (LOGGER.isDebugEnabled())
+			LOGGER.debug("AI : solver selected for size {} (at most {} moves in {} ms) => {}", size, maxLength, maxLatencyMillis,
+						 selected == null ? null : selected.getName());
+		return selected;
+	}
+
+	private static List<Solver> load() {
+		List<Solver> loaded = new ArrayList<Solver>();
+		Iterator<Solver> iterator = ServiceLoader.load(Solver.class).iterator();
+		while (true) {
+			try {
+				if (! iterator.hasNext())
+					break;
+				loaded.add(iterator.next());
+			}
+			// A broken service must not prevent the other ones from being used
+			catch (ServiceConfigurationError e) {
+				LOGGER.error("### ERROR : cannot load a RubiksCube solver", e);
+			}
+		}
+
+		LOGGER.info("AI : {} solvers available", loaded.size());
+		return loaded;
+	}
+}
@@ -0,0 +1,18 @@
+package org.aforgues.rubikscube.ai;
+
+/**
+ * Algorithm used by {@link RubiksCubeAI} to compute the solving path of a 3x3 Rubik's Cube
+ */
+public enum SolvingStrategy {
+	/**
+	 * Seven step guide from http://www.chessandpoker.com/rubiks-cube-solution.html (100+ moves)
+	 */
+	BEGINNER_METHOD,
+
+	/**
+	 * Kociemba's two-phase algorithm (cf. {@link TwoPhaseSolver}), about 20 moves
+	 */
+	TWO_PHASE;
+
+	public static final SolvingStrategy DEFAULT = TWO_PHASE;
+}
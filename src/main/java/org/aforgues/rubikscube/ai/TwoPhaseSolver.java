@@ -0,0 +1,304 @@
+package org.aforgues.rubikscube.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.aforgues.rubikscube.core.DefinedMove;
+import org.aforgues.rubikscube.core.RubiksCube;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Kociemba's two-phase algorithm for the 3x3 Rubik's Cube.
+ *
+ * Phase one brings the cube into the subgroup <U, D, R2, F2, L2, B2> (corners and edges oriented, UD-slice edges in
+ * the UD-slice), phase two solves it with the moves of this subgroup only. Both phases are IDA* searches on coordinates
+ * (cf. {@link TwoPhaseTables}). Longer phase one solutions are tried as long as they give a shorter total solution,
+ * until a solution of at most <code>maxLength</code> moves is found or the time is up.
+ *
+ * A solver instance keeps its search state and must not be shared between threads, except through the {@link Solver}
+ * method : the instance registered as a service is shared, each of its solves running on a search state of its own.
+ */
+public class TwoPhaseSolver implements Solver {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TwoPhaseSolver.class);
+
+	public static final int DEFAULT_MAX_LENGTH = 22;
+	public static final long DEFAULT_TIMEOUT_MILLIS = 100;
+
+	private static final int MAX_PHASE_ONE_LENGTH = 12;
+	private static final int MAX_PHASE_TWO_LENGTH = 18;
+
+	/**
+	 * Phase two limit of {@link #solveFirst(CubieCube, long)} : the deepest phase two searches are the costly ones,
+	 * and another phase one solution ending closer to the solved state is usually found sooner
+	 */
+	private static final int FIRST_SOLUTION_PHASE_TWO_LENGTH = 12;
+
+	/**
+	 * With a cancellation token, the search is checked every 4096 nodes (about 0.1 ms)
+	 */
+	private static final int STOP_CHECK_MASK = 4096 - 1;
+
+	// Loaded on first solve (about a second the first time)
+	private TwoPhaseTables tables;
+
+	// Search state
+	private CubieCube cube;
+	private final CubieCube phaseTwoCube = new CubieCube();
+	private final int[] path = new int[MAX_PHASE_ONE_LENGTH + MAX_PHASE_TWO_LENGTH];
+	private int[] bestPath;
+	private int bestLength;
+	private int maxLength;
+	private int maxPhaseTwoLength;
+	private long deadline;
+	private CancellationToken token;
+	private long nodeCount;
+	private boolean stopped;
+
+	@Override
+	public String getName() {
+		return "two-phase";
+	}
+
+	@Override
+	public boolean supports(int size) {
+		return size == 3;
+	}
+
+	/**
+	 * Measured on a single core, for solutions of at most {@link #DEFAULT_MAX_LENGTH} moves
+	 */
+	@Override
+	public long getExpectedLatencyMillis(int size) {
+		return 20;
+	}
+
+	@Override
+	public int getExpectedLength(int size) {
+		return DEFAULT_MAX_LENGTH;
+	}
+
+	/**
+	 * Returns a solution of at most <code>targetLength</code> moves, <code>null</code> when none was found in
+	 * <code>timeBudgetMillis</code> or before <code>token</code> is cancelled
+	 */
+	@Override
+	public List<DefinedMove> solve(RubiksCube rc, int targetLength, long timeBudgetMillis, CancellationToken token) {
+		CubieCube cubieCube = CubieCube.fromRubiksCube(rc);
+		if (cubieCube == null)
+			return null;
+
+		// This instance may be shared : the search runs on its own state
+		return toDefinedMoves(new TwoPhaseSolver().solve(cubieCube, targetLength, timeBudgetMillis, token), rc.getSize());
+	}
+
+	public List<DefinedMove> solve(RubiksCube rc) {
+		return solve(rc, DEFAULT_MAX_LENGTH, DEFAULT_TIMEOUT_MILLIS);
+	}
+
+	/**
+	 * Returns a solution of at most <code>maxLength</code> moves, or the shortest solution found once
+	 * <code>timeoutMillis</code> is elapsed. Returns <code>null</code> when the RubiksCube cannot be solved by this algorithm.
+	 */
+	public List<DefinedMove> solve(RubiksCube rc, int maxLength, long timeoutMillis) {
+		CubieCube cubieCube = CubieCube.fromRubiksCube(rc);
+		if (cubieCube == null)
+			return null;
+
+		return toDefinedMoves(solve(cubieCube, maxLength, timeoutMillis), rc.getSize());
+	}
+
+	private static List<DefinedMove> toDefinedMoves(int[] solution, int size) {
+		if (solution == null)
+			return null;
+
+		List<DefinedMove> moves = new ArrayList<DefinedMove>(solution.length);
+		for (int move : solution) {
+			moves.add(CubieCube.toDefinedMove(move, size));
+		}
+		return moves;
+	}
+
+	int[] solve(CubieCube cubieCube, int maxLength, long timeoutMillis) {
+		return solve(cubieCube, maxLength, timeoutMillis, null);
+	}
+
+	/**
+	 * Same as {@link #solve(CubieCube, int, long)}, but the search also stops once the <code>token</code> is cancelled, and
+	 * the time limit is strict : returns <code>null</code> when no solution was found in time
+	 */
+	int[] solve(CubieCube cubieCube, int maxLength, long timeoutMillis, CancellationToken token) {
+		return search(cubieCube, maxLength, MAX_PHASE_TWO_LENGTH, timeoutMillis, token);
+	}
+
+	/**
+	 * Cheaper search for batches (about 3 times faster than a solution of at most {@link #DEFAULT_MAX_LENGTH} moves) :
+	 * phase two is limited to {@link #FIRST_SOLUTION_PHASE_TWO_LENGTH} moves, and the first solution found is returned
+	 * without trying to shorten it (at most 24 moves, about 22 on average).
+	 * Falls back to {@link #solve(CubieCube, int, long)} for the rare states having no such solution.
+	 */
+	int[] solveFirst(CubieCube cubieCube, long timeoutMillis) {
+		int firstSolutionLength = MAX_PHASE_ONE_LENGTH + FIRST_SOLUTION_PHASE_TWO_LENGTH;
+		int[] solution = search(cubieCube, firstSolutionLength, FIRST_SOLUTION_PHASE_TWO_LENGTH, timeoutMillis, null);
+		if (solution == null)
+			solution = solve(cubieCube, MAX_PHASE_ONE_LENGTH + MAX_PHASE_TWO_LENGTH, timeoutMillis);
+		return solution;
+	}
+
+	private int[] search(CubieCube cubieCube, int maxLength, int maxPhaseTwoLength, long timeoutMillis, CancellationToken token) {
+		long start = System.currentTimeMillis();
+
+		if (this.tables == null)
+			this.tables = TwoPhaseTables.getInstance();
+		this.cube = cubieCube;
+		this.maxLength = maxLength;
+		this.maxPhaseTwoLength = maxPhaseTwoLength;
+		this.deadline = start + timeoutMillis;
+		this.token = token;
+		this.nodeCount = 0;
+		this.stopped = false;
+		this.bestPath = null;
+		this.bestLength = MAX_PHASE_ONE_LENGTH + MAX_PHASE_TWO_LENGTH + 1;
+
+		int twist = cubieCube.getTwist();
+		int flip = cubieCube.getFlip();
+		int slice = cubieCube.getSlice();
+
+		for (int depth = phaseOneDistance(slice, twist, flip); depth <= MAX_PHASE_ONE_LENGTH && depth < bestLength; depth++) {
+			if (phaseOne(twist, flip, slice, 0, depth))
+				break;
+		}
+
+		if (bestPath == null) {
+			if (LOGGER.isDebugEnabled())
+				LOGGER.debug("AI : two-phase search stopped without solution after {} ms", System.currentTimeMillis() - start);
+			return null;
+		}
+
+		int[] solution = new int[bestLength];
+		System.arraycopy(bestPath, 0, solution, 0, bestLength);
+
+		if (LOGGER.isDebugEnabled())
+			LOGGER.debug("AI : two-phase solution of {} moves found in {} ms", bestLength, System.currentTimeMillis() - start);
+		return solution;
+	}
+
+	/**
+	 * Depth first search of phase one solutions of exactly <code>depth + remaining</code> moves :
+	 * returns true when the search must stop (solution short enough or time is up)
+	 */
+	private boolean phaseOne(int twist, int flip, int slice, int depth, int remaining) {
+		if (isInterrupted())
+			return true;
+
+		if (remaining == 0) {
+			// A phase one solution ending with a phase two move was already found with one move less
+			if (twist == 0 && flip == 0 && slice == 0 && (depth == 0 || ! isPhaseTwoMove(path[depth - 1])))
+				return phaseTwo(depth);
+			return false;
+		}
+
+		for (int move = 0; move < TwoPhaseTables.MOVE_COUNT; move++) {
+			if (depth > 0 && CubieCube.isRedundant(path[depth - 1], move))
+				continue;
+
+			int nextTwist = tables.twistMove[twist * TwoPhaseTables.MOVE_COUNT + move];
+			int nextFlip = tables.flipMove[flip * TwoPhaseTables.MOVE_COUNT + move];
+			int nextSlice = tables.sliceMove[slice * TwoPhaseTables.MOVE_COUNT + move];
+			if (phaseOneDistance(nextSlice, nextTwist, nextFlip) >= remaining)
+				continue;
+
+			path[depth] = move;
+			if (phaseOne(nextTwist, nextFlip, nextSlice, depth + 1, remaining - 1))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Solves phase two after the phase one solution <code>path[0, phaseOneLength[</code>, with less moves than the best solution
+	 */
+	private boolean phaseTwo(int phaseOneLength) {
+		phaseTwoCube.set(cube);
+		for (int i = 0; i < phaseOneLength; i++) {
+			phaseTwoCube.move(path[i]);
+		}
+
+		int cornerPermutation = phaseTwoCube.getCornerPermutation();
+		int udEdgePermutation = phaseTwoCube.getUDEdgePermutation();
+		int slicePermutation = phaseTwoCube.getSlicePermutation();
+
+		int maxDepth = Math.min(bestLength - 1 - phaseOneLength, maxPhaseTwoLength);
+		for (int depth = phaseTwoDistance(slicePermutation, cornerPermutation, udEdgePermutation); depth <= maxDepth; depth++) {
+			if (phaseTwo(cornerPermutation, udEdgePermutation, slicePermutation, phaseOneLength, depth)) {
+				bestLength = phaseOneLength + depth;
+				bestPath = path.clone();
+
+				if (LOGGER.isTraceEnabled())
+					LOGGER.trace("AI : two-phase solution of {} moves ({} + {})", bestLength, phaseOneLength, depth);
+				break;
+			}
+		}
+
+		return bestLength <= maxLength || isStopped();
+	}
+
+	/**
+	 * With a cancellation token, the search may also be stopped between two phase one solutions
+	 */
+	private boolean isInterrupted() {
+		if (token != null && ! stopped && (++nodeCount & STOP_CHECK_MASK) == 0)
+			stopped = isStopped();
+		return stopped;
+	}
+
+	/**
+	 * Without cancellation token, the time limit only stops the search once a solution is found
+	 */
+	private boolean isStopped() {
+		if (token != null)
+			return token.isCancelled() || System.currentTimeMillis() > deadline;
+		return bestPath != null && System.currentTimeMillis() > deadline;
+	}
+
+	private boolean phaseTwo(int cornerPermutation, int udEdgePermutation, int slicePermutation, int depth, int remaining) {
+		if (remaining == 0)
+			return cornerPermutation == 0 && udEdgePermutation == 0 && slicePermutation == 0;
+		if (isInterrupted())
+			return false;
+
+		int moveCount = TwoPhaseTables.PHASE_TWO_MOVES.length;
+		for (int i = 0; i < moveCount; i++) {
+			int move = TwoPhaseTables.PHASE_TWO_MOVES[i];
+			if (depth > 0 && CubieCube.isRedundant(path[depth - 1], move))
+				continue;
+
+			int nextCornerPermutation = tables.cornerPermutationMove[cornerPermutation * moveCount + i];
+			int nextUDEdgePermutation = tables.udEdgePermutationMove[udEdgePermutation * moveCount + i];
+			int nextSlicePermutation = tables.slicePermutationMove[slicePermutation * moveCount + i];
+			if (phaseTwoDistance(nextSlicePermutation, nextCornerPermutation, nextUDEdgePermutation) >= remaining)
+				continue;
+
+			path[depth] = move;
+			if (phaseTwo(nextCornerPermutation, nextUDEdgePermutation, nextSlicePermutation, depth + 1, remaining - 1))
+				return true;
+		}
+		return false;
+	}
+
+	private int phaseOneDistance(int slice, int twist, int flip) {
+		return Math.max(tables.sliceTwistPruning[slice * TwoPhaseTables.TWIST_COUNT + twist],
+						tables.sliceFlipPruning[slice * TwoPhaseTables.FLIP_COUNT + flip]);
+	}
+
+	private int phaseTwoDistance(int slicePermutation, int cornerPermutation, int udEdgePermutation) {
+		return Math.max(tables.sliceCornerPruning[slicePermutation * TwoPhaseTables.CORNER_PERMUTATION_COUNT + cornerPermutation],
+						tables.sliceEdgePruning[slicePermutation * TwoPhaseTables.UD_EDGE_PERMUTATION_COUNT + udEdgePermutation]);
+	}
+
+	private static boolean isPhaseTwoMove(int move) {
+		// U and D moves, and half turns of the other faces
+		return move / 3 == 0 || move / 3 == 3 || move % 3 == 1;
+	}
+}
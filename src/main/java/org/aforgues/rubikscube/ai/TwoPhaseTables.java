@@ -0,0 +1,147 @@
+package org.aforgues.rubikscube.ai;
+
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Move and pruning tables of the two-phase algorithm (cf. {@link TwoPhaseSolver}), built once on first use.
+ *
+ * Move tables give the coordinate reached by each move from each coordinate, so that the search never manipulates cubies.
+ * Pruning tables give a lower bound of the number of moves needed to finish a phase from a pair of coordinates.
+ */
+final class TwoPhaseTables {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TwoPhaseTables.class);
+
+	static final int MOVE_COUNT = 18;
+
+	static final int TWIST_COUNT = 2187;
+	static final int FLIP_COUNT = 2048;
+	static final int SLICE_COUNT = 495;
+	static final int CORNER_PERMUTATION_COUNT = 40320;
+	static final int UD_EDGE_PERMUTATION_COUNT = 40320;
+	static final int SLICE_PERMUTATION_COUNT = 24;
+
+	/**
+	 * Moves of phase two, which keep the cube in the subgroup <U, D, R2, F2, L2, B2>
+	 */
+	static final int[] PHASE_TWO_MOVES = { 0, 1, 2, 4, 7, 9, 10, 11, 13, 16 };
+
+	private static final TwoPhaseTables INSTANCE = new TwoPhaseTables();
+
+	// Phase one move tables : index coordinate * MOVE_COUNT + move
+	final int[] twistMove;
+	final int[] flipMove;
+	final int[] sliceMove;
+
+	// Phase two move tables : index coordinate * PHASE_TWO_MOVES.length + phase two move
+	final int[] cornerPermutationMove;
+	final int[] udEdgePermutationMove;
+	final int[] slicePermutationMove;
+
+	// Pruning tables
+	final byte[] sliceTwistPruning;
+	final byte[] sliceFlipPruning;
+	final byte[] sliceCornerPruning;
+	final byte[] sliceEdgePruning;
+
+	static TwoPhaseTables getInstance() {
+		return INSTANCE;
+	}
+
+	private TwoPhaseTables() {
+		long start = System.currentTimeMillis();
+
+		CubieCube cube = new CubieCube();
+
+		twistMove = new int[TWIST_COUNT * MOVE_COUNT];
+		for (int twist = 0; twist < TWIST_COUNT; twist++) {
+			for (int move = 0; move < MOVE_COUNT; move++) {
+				cube.setTwist(twist);
+				cube.move(move);
+				twistMove[twist * MOVE_COUNT + move] = cube.getTwist();
+			}
+		}
+
+		flipMove = new int[FLIP_COUNT * MOVE_COUNT];
+		for (int flip = 0; flip < FLIP_COUNT; flip++) {
+			for (int move = 0; move < MOVE_COUNT; move++) {
+				cube.setFlip(flip);
+				cube.move(move);
+				flipMove[flip * MOVE_COUNT + move] = cube.getFlip();
+			}
+		}
+
+		sliceMove = new int[SLICE_COUNT * MOVE_COUNT];
+		for (int slice = 0; slice < SLICE_COUNT; slice++) {
+			for (int move = 0; move < MOVE_COUNT; move++) {
+				cube.setSlice(slice);
+				cube.move(move);
+				sliceMove[slice * MOVE_COUNT + move] = cube.getSlice();
+			}
+		}
+
+		int phaseTwoMoveCount = PHASE_TWO_MOVES.length;
+		cube = new CubieCube();
+
+		cornerPermutationMove = new int[CORNER_PERMUTATION_COUNT * phaseTwoMoveCount];
+		udEdgePermutationMove = new int[UD_EDGE_PERMUTATION_COUNT * phaseTwoMoveCount];
+		for (int permutation = 0; permutation < CORNER_PERMUTATION_COUNT; permutation++) {
+			for (int move = 0; move < phaseTwoMoveCount; move++) {
+				cube.setCornerPermutation(permutation);
+				cube.setUDEdgePermutation(permutation);
+				cube.move(PHASE_TWO_MOVES[move]);
+				cornerPermutationMove[permutation * phaseTwoMoveCount + move] = cube.getCornerPermutation();
+				udEdgePermutationMove[permutation * phaseTwoMoveCount + move] = cube.getUDEdgePermutation();
+			}
+		}
+
+		slicePermutationMove = new int[SLICE_PERMUTATION_COUNT * phaseTwoMoveCount];
+		for (int permutation = 0; permutation < SLICE_PERMUTATION_COUNT; permutation++) {
+			for (int move = 0; move < phaseTwoMoveCount; move++) {
+				cube.setSlicePermutation(permutation);
+				cube.move(PHASE_TWO_MOVES[move]);
+				slicePermutationMove[permutation * phaseTwoMoveCount + move] = cube.getSlicePermutation();
+			}
+		}
+
+		sliceTwistPruning = buildPruning(SLICE_COUNT, sliceMove, TWIST_COUNT, twistMove, MOVE_COUNT);
+		sliceFlipPruning = buildPruning(SLICE_COUNT, sliceMove, FLIP_COUNT, flipMove, MOVE_COUNT);
+		sliceCornerPruning = buildPruning(SLICE_PERMUTATION_COUNT, slicePermutationMove, CORNER_PERMUTATION_COUNT, cornerPermutationMove, phaseTwoMoveCount);
+		sliceEdgePruning = buildPruning(SLICE_PERMUTATION_COUNT, slicePermutationMove, UD_EDGE_PERMUTATION_COUNT, udEdgePermutationMove, phaseTwoMoveCount);
+
+		LOGGER.info("AI : two-phase tables built in {} ms", System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Breadth first search of the distance to the solved pair of coordinates (0, 0) : index <code>slice * count + coordinate</code>
+	 */
+	private static byte[] buildPruning(int sliceCount, int[] sliceMoves, int count, int[] moves, int moveCount) {
+		byte[] pruning = new byte[sliceCount * count];
+		Arrays.fill(pruning, (byte) -1);
+		pruning[0] = 0;
+
+		int done = 1;
+		int previousDone = 0;
+		for (byte depth = 0; done < pruning.length && done > previousDone; depth++) {
+			previousDone = done;
+			for (int index = 0; index < pruning.length; index++) {
+				if (pruning[index] != depth)
+					continue;
+
+				int slice = index / count;
+				int coordinate = index % count;
+				for (int move = 0; move < moveCount; move++) {
+					int next = sliceMoves[slice * moveCount + move] * count + moves[coordinate * moveCount + move];
+					if (pruning[next] == -1) {
+						pruning[next] = (byte) (depth + 1);
+						done++;
+					}
+				}
+			}
+		}
+		return pruning;
+	}
+}
@@ -0,0 +1,61 @@
+package org.aforgues.rubikscube.core;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Suite de mouvements compilée pour une taille de Rubik's Cube donnée (cf. {@link MoveSequenceCompiler})
+ *
+ * Toute la suite est réduite à une seule permutation des cubies de surface, accompagnée du changement d'orientation
+ * de chacun d'eux : l'appliquer ne coûte qu'une passe, quelle que soit la longueur de la suite.
+ * Une suite compilée est immuable et peut être partagée entre tous les Rubik's Cube de même taille.
+ */
+public final class CompiledMoveSequence {
+
+	private final int size;
+	private final List<DefinedMove> moves;
+
+	/**
+	 * Cubies déplacés : le cubie en <code>from[i]</code> arrive en <code>to[i]</code> (index (z, y, x) d'un Rubik's Cube complet)
+	 * et sa facette portée par la face <code>f</code> provient de sa face <code>orientations[i][f.ordinal()]</code>
+	 */
+	final int[] from;
+	final int[] to;
+	final Face[][] orientations;
+
+	/**
+	 * Même permutation au niveau des facettes pour un {@link PackedRubiksCube}
+	 */
+	final int[] faceletSources;
+	final int[] faceletDestinations;
+
+	CompiledMoveSequence(int size, List<DefinedMove> moves, int[] from, int[] to, Face[][] orientations, int[] faceletSources, int[] faceletDestinations) {
+		this.size = size;
+		this.moves = Collections.unmodifiableList(moves);
+		this.from = from;
+		this.to = to;
+		this.orientations = orientations;
+		this.faceletSources = faceletSources;
+		this.faceletDestinations = faceletDestinations;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public List<DefinedMove> getMoves() {
+		return moves;
+	}
+
+	/**
+	 * Nombre de cubies déplacés ou réorientés par la suite de mouvements
+	 */
+	public int getMovedCubieCount() {
+		return from.length;
+	}
+
+	@Override
+	public String toString() {
+		return "CompiledMoveSequence [size=" + size + ", movedCubies=" + from.length + ", moves=" + moves + "]";
+	}
+}
@@ -0,0 +1,84 @@
+package org.aforgues.rubikscube.core;
+
+import java.util.Arrays;
+
+/**
+ * Clé exacte (sans collision possible) de l'état d'un Rubik's Cube : la couleur de chaque facette visible est codée
+ * sur 3 bits, 21 facettes par <code>long</code>, dans l'ordre des facettes de {@link PackedMoveTables}
+ *
+ * Soit 2 <code>long</code> pour un 2x2 et 3 <code>long</code> pour un 3x3. Deux Rubik's Cube de même taille ont la
+ * même clé si et seulement si toutes leurs facettes sont identiques, qu'il s'agisse de {@link RubiksCube} ou de
+ * {@link PackedRubiksCube}.
+ */
+public final class CubeStateKey {
+
+	static final int FACELETS_PER_WORD = 21;
+	static final int BITS_PER_FACELET = 3;
+
+	private final int size;
+	private final long[] words;
+
+	CubeStateKey(int size, long[] words) {
+		this.size = size;
+		this.words = words;
+	}
+
+	/**
+	 * Clé des couleurs <code>facelets</code>, données dans l'ordre des facettes de {@link PackedMoveTables}
+	 * (cf. {@link PackedRubiksCube#indexOf(Face, int, int, int)})
+	 */
+	public static CubeStateKey of(int size, Facelet[] facelets) {
+		long[] words = newWords(size);
+		for (int facelet = 0; facelet < facelets.length; facelet++) {
+			setFacelet(words, facelet, facelets[facelet]);
+		}
+		return new CubeStateKey(size, words);
+	}
+
+	static long[] newWords(int size) {
+		return new long[(6 * size * size + FACELETS_PER_WORD - 1) / FACELETS_PER_WORD];
+	}
+
+	static void setFacelet(long[] words, int facelet, Facelet color) {
+		words[facelet / FACELETS_PER_WORD] |= ((long) color.ordinal()) << (BITS_PER_FACELET * (facelet % FACELETS_PER_WORD));
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Arrays.hashCode(words);
+		result = prime * result + size;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		CubeStateKey other = (CubeStateKey) obj;
+		if (size != other.size)
+			return false;
+		if (! Arrays.equals(words, other.words))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("CubeStateKey [size=" + size + ", words=");
+		for (long word : words) {
+			s.append(String.format("%016x", word));
+		}
+		s.append("]");
+		return s.toString();
+	}
+}
@@ -68,98 +68,195 @@ public class Cubie implements Comparable<Cubie>, Cloneable {
 			LOGGER.trace("Starting cube pitching (around X axis) : {}", this.toString());
 		}
 
-		// Changing coordinates
-		int oldYCoord = this.getCoordinates().getY();
-		this.coord.setY(this.coord.getZ());
-		this.coord.setZ(this.rubiksCubeSize - oldYCoord + 1);
-		
-		// Circular changes of colors
-		Facelet oldFrontFace = this.frontFace;
-
-		// Bottom face becomes front face
-		this.frontFace = this.bottomFace;
-		
-		// Back face becomes bottom face
-		this.bottomFace = this.backFace;
-		
-		// Top face becomes back face
-		this.backFace = this.topFace;
-				
-		// Front face becomes top face
-		this.topFace = oldFrontFace;
-		
-		// Left and right faces doesn't change
+		pitch(1);
 
 		if (LOGGER.isTraceEnabled()) {
 			LOGGER.trace("Ending cube pitching (around X axis) : {}", this.toString());
 		}
-		
 	}
 
 	public void yaw() {
 		if (LOGGER.isTraceEnabled()) {
 			LOGGER.trace("Starting cube yawing (around Y axis) : {}", this.toString());
 		}
-		
-		// Changing coordinates
-		int oldZCoord = this.getCoordinates().getZ();
-		this.coord.setZ(this.coord.getX());
-		this.coord.setX(this.rubiksCubeSize - oldZCoord + 1);
-		
-		// Circular changes of colors
-		Facelet oldFrontFace = this.frontFace;
 
-		// Right face becomes front face
-		this.frontFace = this.rightFace;
-		
-		// Back face becomes right face
-		this.rightFace = this.backFace;
-		
-		// Left face becomes back face
-		this.backFace = this.leftFace;
-				
-		// Front face becomes left face
-		this.leftFace = oldFrontFace;
-		
-		// Top and bottom faces doesn't change
+		yaw(1);
 
 		if (LOGGER.isTraceEnabled()) {
 			LOGGER.trace("Ending cube yawing (around Y axis) : {}", this.toString());
 		}
 	}
-	
+
 	public void roll() {
 		if (LOGGER.isTraceEnabled()) {
 			LOGGER.trace("Starting cube rolling (around Z axis) : {}", this.toString());
 		}
-		
-		// Changing coordinates
-		int oldXCoord = this.getCoordinates().getX();
-		this.coord.setX(this.coord.getY());
-		this.coord.setY(this.rubiksCubeSize - oldXCoord + 1);
-		
-		// Circular changes of colors
-		Facelet oldTopFace = this.topFace;
-
-		// Left face becomes top face
-		this.topFace = this.leftFace;
-		
-		// Bottom face becomes left face
-		this.leftFace = this.bottomFace;
-		
-		// Right face becomes bottom face
-		this.bottomFace = this.rightFace;
-				
-		// Top face becomes right face
-		this.rightFace = oldTopFace;
-		
-		// Front and back faces doesn't change
+
+		roll(1);
 
 		if (LOGGER.isTraceEnabled()) {
 			LOGGER.trace("Ending cube rolling (around Z axis) : {}", this.toString());
 		}
 	}
+
+	/**
+	 * Rotation du cubie de <code>quarterTurns</code> quarts de tour (1, 2 ou 3) autour de l'axe, en une seule passe
+	 */
+	void turn(Axis axis, int quarterTurns) {
+		switch (axis) {
+			case X:
+				pitch(quarterTurns);
+				break;
+			case Y:
+				yaw(quarterTurns);
+				break;
+			case Z:
+				roll(quarterTurns);
+				break;
+		}
+	}
+
+	private void pitch(int quarterTurns) {
+		// Changing coordinates
+		int oldYCoord = this.coord.getY();
+		int oldZCoord = this.coord.getZ();
+
+		// Circular changes of colors : bottom -> front -> top -> back -> bottom (left and right faces doesn't change)
+		Facelet oldBottomFace = this.bottomFace;
+		Facelet oldFrontFace  = this.frontFace;
+		Facelet oldTopFace    = this.topFace;
+		Facelet oldBackFace   = this.backFace;
+
+		switch (quarterTurns) {
+			case 1:
+				this.coord.setY(oldZCoord);
+				this.coord.setZ(this.rubiksCubeSize - oldYCoord + 1);
+				this.frontFace  = oldBottomFace;
+				this.topFace    = oldFrontFace;
+				this.backFace   = oldTopFace;
+				this.bottomFace = oldBackFace;
+				break;
+			case 2:
+				this.coord.setY(this.rubiksCubeSize - oldYCoord + 1);
+				this.coord.setZ(this.rubiksCubeSize - oldZCoord + 1);
+				this.topFace    = oldBottomFace;
+				this.backFace   = oldFrontFace;
+				this.bottomFace = oldTopFace;
+				this.frontFace  = oldBackFace;
+				break;
+			case 3:
+				this.coord.setY(this.rubiksCubeSize - oldZCoord + 1);
+				this.coord.setZ(oldYCoord);
+				this.backFace   = oldBottomFace;
+				this.bottomFace = oldFrontFace;
+				this.frontFace  = oldTopFace;
+				this.topFace    = oldBackFace;
+				break;
+		}
+	}
+
+	private void yaw(int quarterTurns) {
+		// Changing coordinates
+		int oldXCoord = this.coord.getX();
+		int oldZCoord = this.coord.getZ();
+
+		// Circular changes of colors : right -> front -> left -> back -> right (top and bottom faces doesn't change)
+		Facelet oldRightFace = this.rightFace;
+		Facelet oldFrontFace = this.frontFace;
+		Facelet oldLeftFace  = this.leftFace;
+		Facelet oldBackFace  = this.backFace;
+
+		switch (quarterTurns) {
+			case 1:
+				this.coord.setX(this.rubiksCubeSize - oldZCoord + 1);
+				this.coord.setZ(oldXCoord);
+				this.frontFace = oldRightFace;
+				this.leftFace  = oldFrontFace;
+				this.backFace  = oldLeftFace;
+				this.rightFace = oldBackFace;
+				break;
+			case 2:
+				this.coord.setX(this.rubiksCubeSize - oldXCoord + 1);
+				this.coord.setZ(this.rubiksCubeSize - oldZCoord + 1);
+				this.leftFace  = oldRightFace;
+				this.backFace  = oldFrontFace;
+				this.rightFace = oldLeftFace;
+				this.frontFace = oldBackFace;
+				break;
+			case 3:
+				this.coord.setX(oldZCoord);
+				this.coord.setZ(this.rubiksCubeSize - oldXCoord + 1);
+				this.backFace  = oldRightFace;
+				this.rightFace = oldFrontFace;
+				this.frontFace = oldLeftFace;
+				this.leftFace  = oldBackFace;
+				break;
+		}
+	}
+
+	private void roll(int quarterTurns) {
+		// Changing coordinates
+		int oldXCoord = this.coord.getX();
+		int oldYCoord = this.coord.getY();
+
+		// Circular changes of colors : left -> top -> right -> bottom -> left (front and back faces doesn't change)
+		Facelet oldLeftFace   = this.leftFace;
+		Facelet oldTopFace    = this.topFace;
+		Facelet oldRightFace  = this.rightFace;
+		Facelet oldBottomFace = this.bottomFace;
+
+		switch (quarterTurns) {
+			case 1:
+				this.coord.setX(oldYCoord);
+				this.coord.setY(this.rubiksCubeSize - oldXCoord + 1);
+				this.topFace    = oldLeftFace;
+				this.rightFace  = oldTopFace;
+				this.bottomFace = oldRightFace;
+				this.leftFace   = oldBottomFace;
+				break;
+			case 2:
+				this.coord.setX(this.rubiksCubeSize - oldXCoord + 1);
+				this.coord.setY(this.rubiksCubeSize - oldYCoord + 1);
+				this.rightFace  = oldLeftFace;
+				this.bottomFace = oldTopFace;
+				this.leftFace   = oldRightFace;
+				this.topFace    = oldBottomFace;
+				break;
+			case 3:
+				this.coord.setX(this.rubiksCubeSize - oldYCoord + 1);
+				this.coord.setY(oldXCoord);
+				this.bottomFace = oldLeftFace;
+				this.leftFace   = oldTopFace;
+				this.topFace    = oldRightFace;
+				this.rightFace  = oldBottomFace;
+				break;
+		}
+	}
 	
+	/**
+	 * Déplacement du cubie en (x, y, z) avec réorientation de ses facettes : la facette portée par la face <code>f</code>
+	 * provient de la face <code>sources[f.ordinal()]</code> (cf. {@link CompiledMoveSequence})
+	 */
+	void reorient(Face[] sources, int x, int y, int z) {
+		Facelet newFrontFace  = getFace(sources[Face.FRONT.ordinal()]);
+		Facelet newLeftFace   = getFace(sources[Face.LEFT.ordinal()]);
+		Facelet newRightFace  = getFace(sources[Face.RIGHT.ordinal()]);
+		Facelet newBottomFace = getFace(sources[Face.BOTTOM.ordinal()]);
+		Facelet newTopFace    = getFace(sources[Face.TOP.ordinal()]);
+		Facelet newBackFace   = getFace(sources[Face.BACK.ordinal()]);
+
+		this.frontFace  = newFrontFace;
+		this.leftFace   = newLeftFace;
+		this.rightFace  = newRightFace;
+		this.bottomFace = newBottomFace;
+		this.topFace    = newTopFace;
+		this.backFace   = newBackFace;
+
+		this.coord.setX(x);
+		this.coord.setY(y);
+		this.coord.setZ(z);
+	}
+
 	@Override
 	public int compareTo(Cubie cube) {
 		return this.getCoordinates().compareTo(cube.getCoordinates());
@@ -1,64 +1,164 @@
 package org.aforgues.rubikscube.core;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
-public class DefinedMove {
+/**
+ * Mouvement d'une tranche, ou de tout le cube, immuable.
+ *
+ * Chaque couple (Move, index de la tranche) n'est créé qu'une fois : {@link #of(Move, int)} renvoie toujours la même
+ * instance, si bien que deux mouvements égaux sont la même instance. Chaque mouvement a un ordinal dense (cf.
+ * {@link #getOrdinal()}) : les mouvements d'un cube de taille N sont les ordinaux 0 à <code>9 * (N + 1) - 1</code>
+ * (cf. {@link #values(int)}), qui peuvent indexer des tables.
+ */
+public final class DefinedMove {
 
 	private static final int NO_INDEX_FOR_FACE_MOVE = -1;
-	
-	private Move move;
-	private int faceIndex;
-	
+
+	private static final Move[] MOVES = Move.values();
+
+	// Mouvements indexés par leur index (cf. Move#getIndex())
+	private static final Move[] MOVES_BY_INDEX = new Move[MOVES.length];
+
+	static {
+		for (Move move : MOVES) {
+			MOVES_BY_INDEX[move.getIndex()] = move;
+		}
+	}
+
+	/**
+	 * Instances indexées par leur ordinal, créées jusqu'à la plus grande taille demandée (remplacé lors d'un agrandissement)
+	 */
+	private static volatile DefinedMove[] instances = createInstances(new DefinedMove[0], 3);
+
+	/**
+	 * Absence de mouvement (sentinelle de fin de solution de l'IA), qui ne fait pas partie des mouvements d'un cube :
+	 * il n'a pas d'ordinal et ne peut indexer aucune table (cf. {@link #getOrdinal()})
+	 */
+	public static final DefinedMove NONE = new DefinedMove(null, 0, -1);
+
+	private final Move move;
+	private final int faceIndex;
+	private final int ordinal;
+
 	public Move getMove() {return this.move;}
 	public int getFaceIndex() {return this.faceIndex;}
 	public boolean isFaceMove() {return this.faceIndex == NO_INDEX_FOR_FACE_MOVE;}
-	
-	public void setMove(Move move) {this.move = move;}
-	public void setFaceIndex(int faceIndex) {this.faceIndex = faceIndex;}
-	
-	public DefinedMove() {}
 
-	public DefinedMove(Move move, int faceIndex) {
+	/**
+	 * Index dense du mouvement : les mouvements de tout le cube d'abord, puis ceux de chaque tranche par index croissant
+	 * @throws IllegalStateException pour {@link #NONE}, qui n'a pas d'ordinal
+	 */
+	public int getOrdinal() {
+		if (this.move == null)
+			throw new IllegalStateException("DefinedMove.NONE has no ordinal");
+		return this.ordinal;
+	}
+
+	private DefinedMove(Move move, int faceIndex, int ordinal) {
 		this.move = move;
 		this.faceIndex = faceIndex;
+		this.ordinal = ordinal;
+	}
+
+	/**
+	 * Mouvement de tout le cube
+	 */
+	public static DefinedMove of(Move move) {
+		return of(move, NO_INDEX_FOR_FACE_MOVE);
+	}
+
+	/**
+	 * Mouvement de la tranche <code>faceIndex</code> (à partir de 1), ou de tout le cube pour -1
+	 */
+	public static DefinedMove of(Move move, int faceIndex) {
+		if (move == null)
+			throw new IllegalArgumentException("Undefined move");
+		if (faceIndex < NO_INDEX_FOR_FACE_MOVE || faceIndex == 0)
+			throw new IllegalArgumentException("Invalid face index : " + faceIndex);
+
+		int ordinal = ordinal(move, faceIndex);
+		DefinedMove[] moves = instances;
+		if (ordinal >= moves.length)
+			moves = grow(faceIndex);
+		return moves[ordinal];
 	}
-	
-	public DefinedMove(Move move) {
-		this(move, NO_INDEX_FOR_FACE_MOVE);
+
+	/**
+	 * Mouvement d'ordinal <code>ordinal</code> (cf. {@link #getOrdinal()})
+	 */
+	public static DefinedMove valueOf(int ordinal) {
+		if (ordinal < 0)
+			throw new IllegalArgumentException("Invalid move ordinal : " + ordinal);
+
+		DefinedMove[] moves = instances;
+		if (ordinal >= moves.length)
+			moves = grow(ordinal / MOVES.length);
+		return moves[ordinal];
+	}
+
+	/**
+	 * Tous les mouvements d'un cube de taille <code>size</code>, par ordinal croissant
+	 */
+	public static List<DefinedMove> values(int size) {
+		DefinedMove[] moves = instances;
+		if (count(size) > moves.length)
+			moves = grow(size);
+		return Collections.unmodifiableList(Arrays.asList(moves).subList(0, count(size)));
 	}
-	
+
+	/**
+	 * Nombre de mouvements d'un cube de taille <code>size</code> : taille d'une table indexée par ordinal
+	 */
+	public static int count(int size) {
+		return (size + 1) * MOVES.length;
+	}
+
 	public static Move getMove(int index) {
-		for (Move move : Move.values()) {
-			if (move.getIndex() == index)
-				return move;
+		if (index < 0 || index >= MOVES_BY_INDEX.length)
+			return null;
+		return MOVES_BY_INDEX[index];
+	}
+
+	private static int ordinal(Move move, int faceIndex) {
+		return (faceIndex == NO_INDEX_FOR_FACE_MOVE ? 0 : faceIndex) * MOVES.length + move.ordinal();
+	}
+
+	/**
+	 * Les instances existantes sont conservées : seules celles des nouvelles tranches sont créées
+	 */
+	private static synchronized DefinedMove[] grow(int maxFaceIndex) {
+		if (count(maxFaceIndex) > instances.length)
+			instances = createInstances(instances, maxFaceIndex);
+		return instances;
+	}
+
+	private static DefinedMove[] createInstances(DefinedMove[] existing, int maxFaceIndex) {
+		DefinedMove[] moves = Arrays.copyOf(existing, count(maxFaceIndex));
+		for (int faceIndex = existing.length / MOVES.length; faceIndex <= maxFaceIndex; faceIndex++) {
+			for (Move move : MOVES) {
+				int index = faceIndex == 0 ? NO_INDEX_FOR_FACE_MOVE : faceIndex;
+				moves[ordinal(move, index)] = new DefinedMove(move, index, ordinal(move, index));
+			}
 		}
-		return null;
+		return moves;
 	}
-	
+
 	public String toString() {
-		return move.name() + "@" + faceIndex;
+		return (move == null ? "NONE" : move.name()) + "@" + faceIndex;
 	}
-	
+
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + faceIndex;
-		result = prime * result + ((move == null) ? 0 : move.hashCode());
-		return result;
+		return ordinal;
 	}
+
+	/**
+	 * Les instances étant uniques, l'égalité est celle des références
+	 */
 	@Override
 	public boolean equals(Object obj) {
-		if (this == obj)
-			return true;
-		if (obj == null)
-			return false;
-		if (getClass() != obj.getClass())
-			return false;
-		DefinedMove other = (DefinedMove) obj;
-		if (faceIndex != other.faceIndex)
-			return false;
-		if (move != other.move)
-			return false;
-		return true;
+		return this == obj;
 	}
 }
@@ -56,6 +56,53 @@ public enum Move {
 		return index;
 	}
 
+	/**
+	 * Axe de rotation du mouvement
+	 */
+	public Axis getAxis() {
+		switch(this) {
+			case PITCH:
+			case DOUBLE_PITCH:
+			case UNPITCH:
+				return Axis.X;
+			case YAW:
+			case DOUBLE_YAW:
+			case UNYAW:
+				return Axis.Y;
+			default:
+				return Axis.Z;
+		}
+	}
+
+	/**
+	 * Nombre de quarts de tour (dans le sens de PITCH, YAW ou ROLL) équivalents au mouvement
+	 */
+	public int getQuarterTurns() {
+		switch(this) {
+			case DOUBLE_PITCH:
+			case DOUBLE_YAW:
+			case DOUBLE_ROLL:
+				return 2;
+			case UNPITCH:
+			case UNYAW:
+			case UNROLL:
+				return 3;
+			default:
+				return 1;
+		}
+	}
+
+	/**
+	 * Mouvement de <code>quarterTurns</code> quarts de tour (1 à 3, dans le sens de PITCH, YAW ou ROLL) autour de l'axe <code>axis</code>
+	 */
+	public static Move valueOf(Axis axis, int quarterTurns) {
+		for (Move move : values()) {
+			if (move.getAxis() == axis && move.getQuarterTurns() == quarterTurns)
+				return move;
+		}
+		throw new IllegalArgumentException("No move of " + quarterTurns + " quarter turns around the " + axis + " axis");
+	}
+
 	public static Move inverse(Move move) {
 		switch(move) {
 			case ROLL:
@@ -0,0 +1,211 @@
+package org.aforgues.rubikscube.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Suite de mouvements compacte : chaque mouvement est codé sur un <code>int</code> (mouvement et index de la tranche),
+ * au lieu d'une référence vers un {@link DefinedMove} dans une <code>List</code>. Les mouvements lus sont les instances
+ * uniques de {@link DefinedMove#of(Move, int)}.
+ *
+ * Lecture et ajout d'un mouvement en temps constant. Une sous-suite (cf. {@link #subSequence(int, int)}) est une vue
+ * qui partage le tableau de la suite d'origine, sans copie : elle n'est copiée qu'au moment où on lui ajoute un mouvement.
+ */
+public final class MoveSequence implements Iterable<DefinedMove> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	// Mouvement sur les 4 bits de poids faible, index de la tranche + 1 au-dessus (0 pour un mouvement de tout le cube)
+	private static final int MOVE_BITS = 4;
+	private static final int MOVE_MASK = (1 << MOVE_BITS) - 1;
+	private static final Move[] MOVES = Move.values();
+
+	private int[] codes;
+	private int offset;
+	private int length;
+
+	/**
+	 * Faux pour une vue : son tableau appartient à une autre suite
+	 */
+	private boolean owner;
+
+	public MoveSequence() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public MoveSequence(int capacity) {
+		this.codes = new int[Math.max(capacity, 1)];
+		this.owner = true;
+	}
+
+	// Only for subSequence method
+	private MoveSequence(int[] codes, int offset, int length) {
+		this.codes = codes;
+		this.offset = offset;
+		this.length = length;
+		this.owner = false;
+	}
+
+	public static MoveSequence of(List<DefinedMove> moves) {
+		MoveSequence sequence = new MoveSequence(moves.size());
+		for (DefinedMove move : moves) {
+			sequence.append(move);
+		}
+		return sequence;
+	}
+
+	public int size() {
+		return length;
+	}
+
+	public boolean isEmpty() {
+		return length == 0;
+	}
+
+	public Move getMove(int i) {
+		return MOVES[code(i) & MOVE_MASK];
+	}
+
+	/**
+	 * Index de la tranche du <code>i</code>-ème mouvement, -1 pour un mouvement de tout le cube (cf. {@link DefinedMove#getFaceIndex()})
+	 */
+	public int getFaceIndex(int i) {
+		return (code(i) >>> MOVE_BITS) - 1;
+	}
+
+	public boolean isFaceMove(int i) {
+		return (code(i) >>> MOVE_BITS) == 0;
+	}
+
+	public DefinedMove get(int i) {
+		return DefinedMove.of(getMove(i), getFaceIndex(i));
+	}
+
+	public MoveSequence append(DefinedMove move) {
+		return append(move.getMove(), move.getFaceIndex());
+	}
+
+	/**
+	 * Ajout d'un mouvement de la tranche <code>faceIndex</code>, ou de tout le cube pour -1
+	 */
+	public MoveSequence append(Move move, int faceIndex) {
+		if (move == null)
+			throw new IllegalArgumentException("Undefined move (DefinedMove.NONE ?)");
+		if (faceIndex < -1)
+			throw new IllegalArgumentException("Invalid face index : " + faceIndex);
+
+		ensureCapacity(length + 1);
+		codes[offset + length++] = ((faceIndex + 1) << MOVE_BITS) | move.ordinal();
+		return this;
+	}
+
+	public MoveSequence append(MoveSequence moves) {
+		int count = moves.length;
+		ensureCapacity(length + count);
+		System.arraycopy(moves.codes, moves.offset, codes, offset + length, count);
+		length += count;
+		return this;
+	}
+
+	/**
+	 * Suite inverse : les mouvements inverses dans l'ordre inverse (un demi-tour est son propre inverse)
+	 */
+	public MoveSequence inverse() {
+		MoveSequence inverse = new MoveSequence(length);
+		for (int i = length - 1; i >= 0; i--) {
+			Move move = getMove(i);
+			inverse.append(Move.valueOf(move.getAxis(), 4 - move.getQuarterTurns()), getFaceIndex(i));
+		}
+		return inverse;
+	}
+
+	/**
+	 * Vue des mouvements <code>from</code> (inclus) à <code>to</code> (exclu), sans copie
+	 */
+	public MoveSequence subSequence(int from, int to) {
+		if (from < 0 || to > length || from > to)
+			throw new IndexOutOfBoundsException("Sub sequence [" + from + ", " + to + "[ of a sequence of " + length + " moves");
+		return new MoveSequence(codes, offset + from, to - from);
+	}
+
+	public List<DefinedMove> toList() {
+		List<DefinedMove> moves = new ArrayList<DefinedMove>(length);
+		for (int i = 0; i < length; i++) {
+			moves.add(get(i));
+		}
+		return moves;
+	}
+
+	@Override
+	public Iterator<DefinedMove> iterator() {
+		return new Iterator<DefinedMove>() {
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < length;
+			}
+
+			@Override
+			public DefinedMove next() {
+				if (next >= length)
+					throw new NoSuchElementException();
+				return get(next++);
+			}
+		};
+	}
+
+	private int code(int i) {
+		if (i < 0 || i >= length)
+			throw new IndexOutOfBoundsException("Move " + i + " of a sequence of " + length + " moves");
+		return codes[offset + i];
+	}
+
+	/**
+	 * Avant un ajout : une vue reçoit son propre tableau, qui est agrandi si besoin
+	 */
+	private void ensureCapacity(int capacity) {
+		if (owner && offset + capacity <= codes.length)
+			return;
+
+		int[] newCodes = new int[Math.max(capacity, owner ? 2 * codes.length : length + DEFAULT_CAPACITY)];
+		System.arraycopy(codes, offset, newCodes, 0, length);
+		codes = newCodes;
+		offset = 0;
+		owner = true;
+	}
+
+	@Override
+	public String toString() {
+		return "MoveSequence " + toList();
+	}
+
+	@Override
+	public int hashCode() {
+		int result = 1;
+		for (int i = 0; i < length; i++) {
+			result = 31 * result + codes[offset + i];
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		MoveSequence other = (MoveSequence) obj;
+		if (length != other.length)
+			return false;
+		for (int i = 0; i < length; i++) {
+			if (codes[offset + i] != other.codes[other.offset + i])
+				return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,324 @@
+package org.aforgues.rubikscube.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compilation d'une suite de mouvements en une seule permutation (cf. {@link CompiledMoveSequence})
+ *
+ * La compilation suit chaque cubie de surface au fil des mouvements : sa position et la face d'origine de chacune
+ * de ses facettes. Les suites compilées par {@link #getCompiled(int, List)} sont mises en cache par taille, dans la
+ * limite de {@link #MAX_CACHED_SEQUENCES} suites : le cache est fait pour les algorithmes fixes de l'IA.
+ */
+public final class MoveSequenceCompiler {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MoveSequenceCompiler.class);
+
+	private static final Face[] FACES = Face.values();
+
+	/**
+	 * Face d'origine de la facette portée par chaque face après un quart de tour (cf. {@link Cubie#pitch()},
+	 * {@link Cubie#yaw()} et {@link Cubie#roll()})
+	 */
+	private static final Face[] PITCH_SOURCES = faceSources(Face.BOTTOM, Face.FRONT, Face.TOP, Face.BACK);
+	private static final Face[] YAW_SOURCES   = faceSources(Face.RIGHT, Face.FRONT, Face.LEFT, Face.BACK);
+	private static final Face[] ROLL_SOURCES  = faceSources(Face.LEFT, Face.TOP, Face.RIGHT, Face.BOTTOM);
+
+	/**
+	 * Au-delà, les suites sont compilées sans être mises en cache
+	 */
+	public static final int MAX_CACHED_SEQUENCES = 1024;
+
+	private static final ConcurrentMap<CacheKey, CompiledMoveSequence> CACHE = new ConcurrentHashMap<CacheKey, CompiledMoveSequence>();
+
+	private MoveSequenceCompiler() {}
+
+	/**
+	 * Retourne la suite compilée depuis le cache, en la compilant au premier appel (sans la mettre en cache s'il est plein)
+	 */
+	public static CompiledMoveSequence getCompiled(int size, List<DefinedMove> moves) {
+		CacheKey key = new CacheKey(size, moves);
+		CompiledMoveSequence compiled = CACHE.get(key);
+		if (compiled == null) {
+			compiled = compile(size, moves);
+			if (CACHE.size() >= MAX_CACHED_SEQUENCES) {
+				if (LOGGER.isDebugEnabled())
+					LOGGER.debug("Compiled moves cache is full ({} sequences) => {} not cached", CACHE.size(), moves);
+				return compiled;
+			}
+
+			CompiledMoveSequence previous = CACHE.putIfAbsent(new CacheKey(size, compiled.getMoves()), compiled);
+			if (previous != null)
+				compiled = previous;
+		}
+		return compiled;
+	}
+
+	public static CompiledMoveSequence compile(int size, List<DefinedMove> moves) {
+		if (LOGGER.isDebugEnabled())
+			LOGGER.debug("Compiling {} moves for size {} : {}", moves.size(), size, moves);
+
+		// Copie défensive de la liste (les mouvements sont immuables)
+		List<DefinedMove> movesCopy = new ArrayList<DefinedMove>(moves);
+
+		Tracker tracker = new Tracker(size);
+		for (DefinedMove move : movesCopy) {
+			tracker.move(move);
+		}
+		return tracker.toCompiledMoveSequence(movesCopy);
+	}
+
+	private static Face[] faceSources(Face first, Face second, Face third, Face fourth) {
+		// La facette de <code>first</code> arrive sur <code>second</code>, celle de <code>second</code> sur <code>third</code>, etc.
+		Face[] sources = FACES.clone();
+		sources[second.ordinal()] = first;
+		sources[third.ordinal()]  = second;
+		sources[fourth.ordinal()] = third;
+		sources[first.ordinal()]  = fourth;
+		return sources;
+	}
+
+	/**
+	 * Suivi de la position et de l'orientation des cubies de surface d'un Rubik's Cube au fil des mouvements
+	 */
+	private static final class Tracker {
+
+		private final int size;
+
+		// Cubie présent à chaque position (z, y, x), -1 pour un cubie intérieur non suivi
+		private final int[] cubieAt;
+
+		// Position de départ, position courante et orientation courante de chaque cubie suivi
+		private final int[] start;
+		private final int[] current;
+		private final Face[][] orientations;
+
+		private final int[] sliceBuffer;
+
+		Tracker(int size) {
+			this.size = size;
+			this.cubieAt = new int[size * size * size];
+			int surfaceCount = 6 * size * size - 12 * size + 8;
+			this.start = new int[surfaceCount];
+			this.current = new int[surfaceCount];
+			this.orientations = new Face[surfaceCount][];
+			this.sliceBuffer = new int[size * size];
+
+			int cubie = 0;
+			for (int position = 0; position < cubieAt.length; position++) {
+				if (isInner(position)) {
+					cubieAt[position] = -1;
+					continue;
+				}
+				cubieAt[position] = cubie;
+				start[cubie] = position;
+				current[cubie] = position;
+				orientations[cubie] = FACES;
+				cubie++;
+			}
+		}
+
+		void move(DefinedMove definedMove) {
+			if (definedMove == null || definedMove.getMove() == null)
+				return;
+
+			Move move = definedMove.getMove();
+			if (definedMove.isFaceMove()) {
+				for (int index = 1; index <= size; index++) {
+					turn(move.getAxis(), index, move.getQuarterTurns());
+				}
+			}
+			else if (definedMove.getFaceIndex() >= 1 && definedMove.getFaceIndex() <= size) {
+				turn(move.getAxis(), definedMove.getFaceIndex(), move.getQuarterTurns());
+			}
+			else {
+				LOGGER.error("### ERROR : Cannot compile move {} => allowed indexes are in [1-{}] range", definedMove, size);
+			}
+		}
+
+		private void turn(Axis axis, int index, int quarterTurns) {
+			for (int i = 0; i < quarterTurns; i++) {
+				int count = 0;
+				for (int a = 1; a <= size; a++) {
+					for (int b = 1; b <= size; b++) {
+						int cubie = cubieAt[slicePosition(axis, index, a, b)];
+						if (cubie >= 0)
+							sliceBuffer[count++] = cubie;
+					}
+				}
+
+				for (int j = 0; j < count; j++) {
+					int cubie = sliceBuffer[j];
+					current[cubie] = turnPosition(current[cubie], axis);
+					orientations[cubie] = compose(orientations[cubie], axis);
+					cubieAt[current[cubie]] = cubie;
+				}
+			}
+		}
+
+		private int slicePosition(Axis axis, int index, int a, int b) {
+			switch (axis) {
+				case X:
+					return position(index, b, a);
+				case Y:
+					return position(b, index, a);
+				default:
+					return position(b, a, index);
+			}
+		}
+
+		private int turnPosition(int position, Axis axis) {
+			int x = x(position);
+			int y = y(position);
+			int z = z(position);
+			switch (axis) {
+				case X:
+					return position(x, z, size - y + 1);
+				case Y:
+					return position(size - z + 1, y, x);
+				default:
+					return position(y, size - x + 1, z);
+			}
+		}
+
+		private static Face[] compose(Face[] orientation, Axis axis) {
+			Face[] turn;
+			switch (axis) {
+				case X:
+					turn = PITCH_SOURCES;
+					break;
+				case Y:
+					turn = YAW_SOURCES;
+					break;
+				default:
+					turn = ROLL_SOURCES;
+					break;
+			}
+			Face[] composed = new Face[FACES.length];
+			for (Face face : FACES) {
+				composed[face.ordinal()] = orientation[turn[face.ordinal()].ordinal()];
+			}
+			return composed;
+		}
+
+		CompiledMoveSequence toCompiledMoveSequence(List<DefinedMove> moves) {
+			int count = 0;
+			for (int cubie = 0; cubie < start.length; cubie++) {
+				if (isMoved(cubie))
+					count++;
+			}
+
+			int[] from = new int[count];
+			int[] to = new int[count];
+			Face[][] movedOrientations = new Face[count][];
+			int i = 0;
+			for (int cubie = 0; cubie < start.length; cubie++) {
+				if (isMoved(cubie)) {
+					from[i] = start[cubie];
+					to[i] = current[cubie];
+					movedOrientations[i] = orientations[cubie];
+					i++;
+				}
+			}
+
+			// Permutation équivalente des facettes visibles
+			PackedMoveTables tables = PackedMoveTables.forSize(size);
+			List<Integer> faceletSources = new ArrayList<Integer>();
+			List<Integer> faceletDestinations = new ArrayList<Integer>();
+			for (i = 0; i < count; i++) {
+				for (Face face : FACES) {
+					Face sourceFace = movedOrientations[i][face.ordinal()];
+					if (isOnFace(to[i], face) && isOnFace(from[i], sourceFace)) {
+						faceletSources.add(tables.indexOf(sourceFace, x(from[i]), y(from[i]), z(from[i])));
+						faceletDestinations.add(tables.indexOf(face, x(to[i]), y(to[i]), z(to[i])));
+					}
+				}
+			}
+
+			return new CompiledMoveSequence(size, moves, from, to, movedOrientations,
+											toArray(faceletSources), toArray(faceletDestinations));
+		}
+
+		private boolean isMoved(int cubie) {
+			return start[cubie] != current[cubie] || ! Arrays.equals(orientations[cubie], FACES);
+		}
+
+		private boolean isOnFace(int position, Face face) {
+			switch (face) {
+				case FRONT:
+					return z(position) == size;
+				case BACK:
+					return z(position) == 1;
+				case LEFT:
+					return x(position) == 1;
+				case RIGHT:
+					return x(position) == size;
+				case TOP:
+					return y(position) == size;
+				default:
+					return y(position) == 1;
+			}
+		}
+
+		private boolean isInner(int position) {
+			return x(position) > 1 && x(position) < size
+				&& y(position) > 1 && y(position) < size
+				&& z(position) > 1 && z(position) < size;
+		}
+
+		private int position(int x, int y, int z) {
+			return ((z - 1) * size + (y - 1)) * size + (x - 1);
+		}
+
+		private int x(int position) {
+			return position % size + 1;
+		}
+
+		private int y(int position) {
+			return (position / size) % size + 1;
+		}
+
+		private int z(int position) {
+			return position / (size * size) + 1;
+		}
+
+		private static int[] toArray(List<Integer> values) {
+			int[] array = new int[values.size()];
+			for (int i = 0; i < array.length; i++) {
+				array[i] = values.get(i);
+			}
+			return array;
+		}
+	}
+
+	private static final class CacheKey {
+		private final int size;
+		private final List<DefinedMove> moves;
+
+		CacheKey(int size, List<DefinedMove> moves) {
+			this.size = size;
+			this.moves = moves;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * size + moves.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			CacheKey other = (CacheKey) obj;
+			return size == other.size && moves.equals(other.moves);
+		}
+	}
+}
@@ -0,0 +1,232 @@
+package org.aforgues.rubikscube.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Orientation d'un Rubik's Cube : l'une des 24 rotations du cube entier, qui fait passer du repère dans lequel sont
+ * stockés les cubies (repère du cube) au repère de l'observateur, dans lequel sont exprimés mouvements et lectures.
+ *
+ * Les 24 orientations sont construites une fois pour toutes : tourner le cube entier revient à passer d'une orientation
+ * à une autre par une table de transitions, en temps constant. Les rotations des facettes sont déduites de celles d'un
+ * {@link Cubie}, pour rester cohérentes avec les mouvements des tranches.
+ */
+final class Orientation {
+
+	private static final Face[] FACES = Face.values();
+	private static final Axis[] AXES = Axis.values();
+
+	/**
+	 * Face atteinte par une face lors d'une rotation d'un quart de tour autour de chaque axe (index : axe, puis face)
+	 */
+	private static final Face[][] TURNED_FACES = new Face[AXES.length][FACES.length];
+
+	static final Orientation IDENTITY;
+
+	static {
+		for (Axis axis : AXES) {
+			for (Face face : FACES) {
+				TURNED_FACES[axis.ordinal()][face.ordinal()] = probeTurn(face, axis);
+			}
+		}
+
+		// Fermeture des rotations d'un quart de tour autour des 3 axes à partir de l'orientation initiale
+		List<Orientation> orientations = new ArrayList<Orientation>();
+		orientations.add(new Orientation(FACES.clone()));
+		for (int i = 0; i < orientations.size(); i++) {
+			Orientation orientation = orientations.get(i);
+			for (Axis axis : AXES) {
+				Face[] worldFaces = new Face[FACES.length];
+				for (Face face : FACES) {
+					worldFaces[face.ordinal()] = turn(orientation.worldFaces[face.ordinal()], axis, 1);
+				}
+				orientation.quarterTurned[axis.ordinal()] = find(orientations, worldFaces);
+			}
+		}
+		IDENTITY = orientations.get(0);
+	}
+
+	/**
+	 * Face de l'observateur qui montre chaque face du cube, et inversement
+	 */
+	private final Face[] worldFaces;
+	private final Face[] cubeFaces = new Face[FACES.length];
+
+	/**
+	 * Orientation obtenue par un quart de tour du cube entier autour de chaque axe de l'observateur
+	 */
+	private final Orientation[] quarterTurned = new Orientation[AXES.length];
+
+	/**
+	 * Pour chaque axe de l'observateur : axe du cube correspondant, s'il est de sens opposé, et nombre de quarts de tour
+	 * du cube équivalent à un quart de tour de l'observateur (1 ou 3)
+	 */
+	private final Axis[] cubeAxes = new Axis[AXES.length];
+	private final boolean[] reversed = new boolean[AXES.length];
+	private final int[] cubeQuarterTurns = new int[AXES.length];
+
+	private Orientation(Face[] worldFaces) {
+		this.worldFaces = worldFaces;
+		for (Face face : FACES) {
+			cubeFaces[worldFaces[face.ordinal()].ordinal()] = face;
+		}
+
+		for (Axis axis : AXES) {
+			Face cubeFace = cubeFaces[getLastFace(axis).ordinal()];
+			cubeAxes[axis.ordinal()] = getAxis(cubeFace);
+			reversed[axis.ordinal()] = cubeFace != getLastFace(cubeAxes[axis.ordinal()]);
+			cubeQuarterTurns[axis.ordinal()] = conjugateQuarterTurns(axis);
+		}
+	}
+
+	/**
+	 * Orientation obtenue en tournant le cube entier de <code>quarterTurns</code> quarts de tour autour de l'axe
+	 */
+	Orientation turn(Axis axis, int quarterTurns) {
+		Orientation orientation = this;
+		for (int i = 0; i < quarterTurns; i++) {
+			orientation = orientation.quarterTurned[axis.ordinal()];
+		}
+		return orientation;
+	}
+
+	/**
+	 * Face du cube vue sur la face <code>face</code> de l'observateur
+	 */
+	Face toCube(Face face) {
+		return cubeFaces[face.ordinal()];
+	}
+
+	/**
+	 * Face de l'observateur sur laquelle est vue la face <code>face</code> du cube
+	 */
+	Face toWorld(Face face) {
+		return worldFaces[face.ordinal()];
+	}
+
+	/**
+	 * Axe du cube de la tranche tournée par un mouvement de l'observateur autour de <code>axis</code>
+	 */
+	Axis toCubeAxis(Axis axis) {
+		return cubeAxes[axis.ordinal()];
+	}
+
+	/**
+	 * Index dans le cube de la tranche <code>index</code> de l'axe <code>axis</code> de l'observateur
+	 */
+	int toCubeIndex(Axis axis, int index, int size) {
+		return reversed[axis.ordinal()] ? size + 1 - index : index;
+	}
+
+	/**
+	 * Nombre de quarts de tour dans le cube d'une rotation de l'observateur autour de <code>axis</code>
+	 */
+	int toCubeQuarterTurns(Axis axis, int quarterTurns) {
+		return (quarterTurns * cubeQuarterTurns[axis.ordinal()]) & 3;
+	}
+
+	/**
+	 * Coordonnée selon l'axe <code>cubeAxis</code> du cube de la position (x, y, z) de l'observateur
+	 */
+	int toCubeCoordinate(Axis cubeAxis, int x, int y, int z, int size) {
+		Face worldFace = worldFaces[getLastFace(cubeAxis).ordinal()];
+		int coordinate = getCoordinate(getAxis(worldFace), x, y, z);
+		return worldFace == getLastFace(getAxis(worldFace)) ? coordinate : size + 1 - coordinate;
+	}
+
+	/**
+	 * Coordonnée selon l'axe <code>axis</code> de l'observateur de la position (x, y, z) du cube
+	 */
+	int toWorldCoordinate(Axis axis, int x, int y, int z, int size) {
+		int coordinate = getCoordinate(cubeAxes[axis.ordinal()], x, y, z);
+		return reversed[axis.ordinal()] ? size + 1 - coordinate : coordinate;
+	}
+
+	private int conjugateQuarterTurns(Axis axis) {
+		Axis cubeAxis = cubeAxes[axis.ordinal()];
+		for (int quarterTurns = 1; quarterTurns < 4; quarterTurns += 2) {
+			boolean matches = true;
+			for (Face face : FACES) {
+				matches &= worldFaces[turn(cubeFaces[face.ordinal()], cubeAxis, quarterTurns).ordinal()] == turn(face, axis, 1);
+			}
+			if (matches)
+				return quarterTurns;
+		}
+		throw new IllegalStateException("No rotation of the cube around " + cubeAxis + " matches a rotation around " + axis);
+	}
+
+	private static Face turn(Face face, Axis axis, int quarterTurns) {
+		for (int i = 0; i < quarterTurns; i++) {
+			face = TURNED_FACES[axis.ordinal()][face.ordinal()];
+		}
+		return face;
+	}
+
+	/**
+	 * Face atteinte par la facette d'un cubie portée par <code>face</code> après un quart de tour autour de l'axe
+	 */
+	private static Face probeTurn(Face face, Axis axis) {
+		Facelet[] facelets = new Facelet[FACES.length];
+		Arrays.fill(facelets, Facelet.NONE);
+		facelets[face.ordinal()] = Facelet.RED;
+
+		Cubie probe = new Cubie(1, new ThreeDimCoordinate(1, 1, 1),
+								facelets[Face.FRONT.ordinal()], facelets[Face.LEFT.ordinal()], facelets[Face.RIGHT.ordinal()],
+								facelets[Face.BOTTOM.ordinal()], facelets[Face.TOP.ordinal()], facelets[Face.BACK.ordinal()]);
+		probe.turn(axis, 1);
+		for (Face turned : FACES) {
+			if (probe.getFace(turned) == Facelet.RED)
+				return turned;
+		}
+		throw new IllegalStateException("Facelet lost by a rotation around " + axis);
+	}
+
+	private static Orientation find(List<Orientation> orientations, Face[] worldFaces) {
+		for (Orientation orientation : orientations) {
+			if (Arrays.equals(orientation.worldFaces, worldFaces))
+				return orientation;
+		}
+		Orientation orientation = new Orientation(worldFaces);
+		orientations.add(orientation);
+		return orientation;
+	}
+
+	/**
+	 * Face de coordonnée maximale (N) selon l'axe : droite, haut ou avant
+	 */
+	private static Face getLastFace(Axis axis) {
+		switch (axis) {
+			case X:
+				return Face.RIGHT;
+			case Y:
+				return Face.TOP;
+			default:
+				return Face.FRONT;
+		}
+	}
+
+	private static Axis getAxis(Face face) {
+		switch (face) {
+			case LEFT:
+			case RIGHT:
+				return Axis.X;
+			case BOTTOM:
+			case TOP:
+				return Axis.Y;
+			default:
+				return Axis.Z;
+		}
+	}
+
+	private static int getCoordinate(Axis axis, int x, int y, int z) {
+		switch (axis) {
+			case X:
+				return x;
+			case Y:
+				return y;
+			default:
+				return z;
+		}
+	}
+}
@@ -0,0 +1,268 @@
+package org.aforgues.rubikscube.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tables de permutation des facettes d'un {@link PackedRubiksCube}, construites une seule fois par taille de Rubik's Cube
+ *
+ * Une facette est repérée par sa face et par les coordonnées (u, v) du cubie qui la porte sur cette face :
+ * - faces FRONT et BACK  : u = y, v = x
+ * - faces TOP et BOTTOM  : u = z, v = x
+ * - faces LEFT et RIGHT  : u = z, v = y
+ * soit l'index <code>face.ordinal() * N² + (u - 1) * N + (v - 1)</code>, ce qui respecte l'ordre (z, y, x) des cubies d'une face.
+ *
+ * Pour chaque couple (Move, index de face) on ne conserve que les facettes réellement déplacées, sous la forme de deux
+ * tableaux <code>sources</code> / <code>destinations</code> : appliquer le mouvement revient à une seule passe de copie.
+ */
+final class PackedMoveTables {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PackedMoveTables.class);
+
+	private static final ConcurrentMap<Integer, PackedMoveTables> TABLES = new ConcurrentHashMap<Integer, PackedMoveTables>();
+
+	private static final Face[] FACES = Face.values();
+	private static final Move[] MOVES = Move.values();
+
+	private final int size;
+	private final Permutation[] permutations;
+
+	/**
+	 * Facettes déplacées par un mouvement : la facette <code>sources[i]</code> part en <code>destinations[i]</code>
+	 * (les champs final garantissent une publication sûre de la table construite paresseusement)
+	 */
+	static final class Permutation {
+		final int[] sources;
+		final int[] destinations;
+
+		private Permutation(int[] sources, int[] destinations) {
+			this.sources = sources;
+			this.destinations = destinations;
+		}
+	}
+
+	static PackedMoveTables forSize(int size) {
+		PackedMoveTables tables = TABLES.get(size);
+		if (tables == null) {
+			TABLES.putIfAbsent(size, new PackedMoveTables(size));
+			tables = TABLES.get(size);
+		}
+		return tables;
+	}
+
+	private PackedMoveTables(int size) {
+		this.size = size;
+		this.permutations = new Permutation[DefinedMove.count(size)];
+	}
+
+	int getFaceletCount() {
+		return 6 * size * size;
+	}
+
+	/**
+	 * Index dense d'un mouvement : son ordinal (cf. {@link DefinedMove#getOrdinal()})
+	 */
+	int ordinal(DefinedMove definedMove) {
+		return definedMove.getOrdinal();
+	}
+
+	/**
+	 * Même chose pour le mouvement <code>move</code> de la tranche <code>faceIndex</code>, ou de tout le cube pour 0
+	 */
+	int ordinal(Move move, int faceIndex) {
+		return faceIndex * MOVES.length + move.ordinal();
+	}
+
+	Permutation getPermutation(int ordinal) {
+		Permutation permutation = permutations[ordinal];
+		if (permutation == null) {
+			synchronized (this) {
+				permutation = permutations[ordinal];
+				if (permutation == null) {
+					permutation = build(ordinal);
+					permutations[ordinal] = permutation;
+				}
+			}
+		}
+		return permutation;
+	}
+
+	private Permutation build(int ordinal) {
+		Move move = MOVES[ordinal % MOVES.length];
+		int faceIndex = ordinal / MOVES.length;
+
+		if (LOGGER.isTraceEnabled())
+			LOGGER.trace("Building facelet permutation table of {}@{} for size {}", move.name(), faceIndex, size);
+
+		Axis axis = move.getAxis();
+		int quarterTurns = move.getQuarterTurns();
+
+		int[] moved = new int[getFaceletCount()];
+		int[] target = new int[getFaceletCount()];
+		int count = 0;
+		for (int facelet = 0; facelet < getFaceletCount(); facelet++) {
+			if (faceIndex != 0 && getCoordinate(facelet, axis) != faceIndex)
+				continue;
+
+			int destination = facelet;
+			for (int i = 0; i < quarterTurns; i++) {
+				destination = turn(destination, axis);
+			}
+			if (destination != facelet) {
+				moved[count] = facelet;
+				target[count] = destination;
+				count++;
+			}
+		}
+
+		int[] moveSources = new int[count];
+		int[] moveDestinations = new int[count];
+		System.arraycopy(moved, 0, moveSources, 0, count);
+		System.arraycopy(target, 0, moveDestinations, 0, count);
+
+		return new Permutation(moveSources, moveDestinations);
+	}
+
+	/**
+	 * Index où arrive la facette <code>facelet</code> après le mouvement <code>definedMove</code>
+	 */
+	int destination(int facelet, DefinedMove definedMove) {
+		Axis axis = definedMove.getMove().getAxis();
+		if (! definedMove.isFaceMove() && getCoordinate(facelet, axis) != definedMove.getFaceIndex())
+			return facelet;
+
+		int destination = facelet;
+		for (int i = 0; i < definedMove.getMove().getQuarterTurns(); i++) {
+			destination = turn(destination, axis);
+		}
+		return destination;
+	}
+
+	/**
+	 * Index de la facette portée par la face <code>face</code> du cubie de coordonnées (x, y, z)
+	 */
+	int indexOf(Face face, int x, int y, int z) {
+		int u;
+		int v;
+		switch (face) {
+			case FRONT:
+			case BACK:
+				u = y;
+				v = x;
+				break;
+			case TOP:
+			case BOTTOM:
+				u = z;
+				v = x;
+				break;
+			default:
+				u = z;
+				v = y;
+				break;
+		}
+		return face.ordinal() * size * size + (u - 1) * size + (v - 1);
+	}
+
+	Face getFace(int facelet) {
+		return FACES[facelet / (size * size)];
+	}
+
+	/**
+	 * Coordonnée sur l'axe <code>axis</code> du cubie qui porte la facette
+	 */
+	int getCoordinate(int facelet, Axis axis) {
+		Face face = getFace(facelet);
+		int rest = facelet % (size * size);
+		int u = rest / size + 1;
+		int v = rest % size + 1;
+
+		switch (axis) {
+			case X:
+				if (face == Face.LEFT)
+					return 1;
+				if (face == Face.RIGHT)
+					return size;
+				return v;
+			case Y:
+				if (face == Face.BOTTOM)
+					return 1;
+				if (face == Face.TOP)
+					return size;
+				return face == Face.FRONT || face == Face.BACK ? u : v;
+			default:
+				if (face == Face.BACK)
+					return 1;
+				if (face == Face.FRONT)
+					return size;
+				return u;
+		}
+	}
+
+	/**
+	 * Destination de la facette après un quart de tour autour de l'axe <code>axis</code> (cf. {@link Cubie#pitch()},
+	 * {@link Cubie#yaw()} et {@link Cubie#roll()})
+	 */
+	private int turn(int facelet, Axis axis) {
+		Face face = getFace(facelet);
+		int x = getCoordinate(facelet, Axis.X);
+		int y = getCoordinate(facelet, Axis.Y);
+		int z = getCoordinate(facelet, Axis.Z);
+
+		switch (axis) {
+			case X:
+				return indexOf(pitchFace(face), x, z, size - y + 1);
+			case Y:
+				return indexOf(yawFace(face), size - z + 1, y, x);
+			default:
+				return indexOf(rollFace(face), y, size - x + 1, z);
+		}
+	}
+
+	private static Face pitchFace(Face face) {
+		switch (face) {
+			case BOTTOM:
+				return Face.FRONT;
+			case BACK:
+				return Face.BOTTOM;
+			case TOP:
+				return Face.BACK;
+			case FRONT:
+				return Face.TOP;
+			default:
+				return face;
+		}
+	}
+
+	private static Face yawFace(Face face) {
+		switch (face) {
+			case RIGHT:
+				return Face.FRONT;
+			case BACK:
+				return Face.RIGHT;
+			case LEFT:
+				return Face.BACK;
+			case FRONT:
+				return Face.LEFT;
+			default:
+				return face;
+		}
+	}
+
+	private static Face rollFace(Face face) {
+		switch (face) {
+			case LEFT:
+				return Face.TOP;
+			case BOTTOM:
+				return Face.LEFT;
+			case RIGHT:
+				return Face.BOTTOM;
+			case TOP:
+				return Face.RIGHT;
+			default:
+				return face;
+		}
+	}
+}
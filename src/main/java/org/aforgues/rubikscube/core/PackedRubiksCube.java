@@ -0,0 +1,346 @@
+package org.aforgues.rubikscube.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rubik's Cube dont l'état est un simple tableau de 6 * N² couleurs de facettes (une par octet)
+ *
+ * Chaque mouvement est appliqué en une seule passe grâce aux tables de permutation pré-calculées par taille
+ * (cf. {@link PackedMoveTables}) : aucune allocation n'est faite lors d'un mouvement.
+ * Les cubies ne sont pas stockés, ils sont reconstruits à la demande (cf. {@link #getCubie(int, int, int)}).
+ */
+public class PackedRubiksCube implements Cloneable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PackedRubiksCube.class);
+
+	private final static int MIN_SIZE = 2;
+
+	private static final Face[] FACES = Face.values();
+	private static final Facelet[] FACELETS = Facelet.values();
+	private static final Move[] MOVES = Move.values();
+
+	private final int size;
+	private final PackedMoveTables tables;
+
+	/**
+	 * Couleur de chaque facette : <code>Facelet.ordinal()</code>
+	 */
+	private final byte[] facelets;
+
+	// Buffer de travail pour appliquer une permutation
+	private final byte[] buffer;
+
+	public int getSize() {
+		return size;
+	}
+
+	public PackedRubiksCube(int size) {
+		if (size < MIN_SIZE) {
+			LOGGER.warn("RubiksCube size cannot be less than {} (actual : {}) => forcing size to {}", MIN_SIZE, size, MIN_SIZE);
+			size = MIN_SIZE;
+		}
+		this.size = size;
+		this.tables = PackedMoveTables.forSize(size);
+		this.facelets = new byte[tables.getFaceletCount()];
+		this.buffer = new byte[tables.getFaceletCount()];
+		initConfig();
+	}
+
+	/**
+	 * Construit un PackedRubiksCube dans la même configuration que le RubiksCube donné
+	 */
+	public PackedRubiksCube(RubiksCube rc) {
+		this(rc.getSize());
+		for (int facelet = 0; facelet < facelets.length; facelet++) {
+			Face face = tables.getFace(facelet);
+			Facelet color = rc.getFacelet(face,
+										  tables.getCoordinate(facelet, Axis.X),
+										  tables.getCoordinate(facelet, Axis.Y),
+										  tables.getCoordinate(facelet, Axis.Z));
+			facelets[facelet] = (byte) color.ordinal();
+		}
+	}
+
+	// Only for clone and snapshot methods
+	private PackedRubiksCube(PackedRubiksCube rc) {
+		this.size = rc.size;
+		this.tables = rc.tables;
+		this.facelets = rc.facelets.clone();
+		this.buffer = new byte[rc.buffer.length];
+	}
+
+	@Override
+	public Object clone() throws CloneNotSupportedException {
+		return new PackedRubiksCube(this);
+	}
+
+	/**
+	 * Instantané de la configuration : une seule copie du tableau de facettes
+	 */
+	public PackedRubiksCube snapshot() {
+		return new PackedRubiksCube(this);
+	}
+
+	/**
+	 * Initialisation de la configuration d'un Rubik's Cube terminé (mêmes couleurs que {@link RubiksCube})
+	 */
+	private void initConfig() {
+		fillFace(Face.FRONT,  Facelet.RED);
+		fillFace(Face.LEFT,   Facelet.BLUE);
+		fillFace(Face.RIGHT,  Facelet.GREEN);
+		fillFace(Face.BOTTOM, Facelet.WHITE);
+		fillFace(Face.TOP,    Facelet.YELLOW);
+		fillFace(Face.BACK,   Facelet.ORANGE);
+	}
+
+	private void fillFace(Face face, Facelet color) {
+		int start = face.ordinal() * size * size;
+		Arrays.fill(facelets, start, start + size * size, (byte) color.ordinal());
+	}
+
+	public void reset() {
+		this.initConfig();
+	}
+
+	public void move(DefinedMove definedMove) {
+		if (definedMove == null || definedMove.getMove() == null)
+			return;
+
+		move(definedMove.getMove(), definedMove.getFaceIndex(), definedMove.isFaceMove());
+	}
+
+	/**
+	 * Application d'une suite de mouvements compacte, sans allocation
+	 */
+	public void move(MoveSequence moves) {
+		for (int i = 0; i < moves.size(); i++) {
+			move(moves.getMove(i), moves.getFaceIndex(i), moves.isFaceMove(i));
+		}
+	}
+
+	private void move(Move move, int faceIndex, boolean faceMove) {
+		if (! faceMove && (faceIndex < 1 || faceIndex > size)) {
+			LOGGER.error("### ERROR : Cannot move RubiksCube face n°{} => allowed indexes are in [1-{}] range", faceIndex, size);
+			return;
+		}
+
+		if (LOGGER.isTraceEnabled())
+			LOGGER.trace("Moving {}@{}", move, faceIndex);
+
+		PackedMoveTables.Permutation permutation = tables.getPermutation(tables.ordinal(move, faceMove ? 0 : faceIndex));
+		int[] sources = permutation.sources;
+		int[] destinations = permutation.destinations;
+
+		for (int i = 0; i < sources.length; i++) {
+			buffer[i] = facelets[sources[i]];
+		}
+		for (int i = 0; i < destinations.length; i++) {
+			facelets[destinations[i]] = buffer[i];
+		}
+	}
+
+	/**
+	 * Application d'une suite de mouvements compilée en une seule passe
+	 */
+	public void move(CompiledMoveSequence compiled) {
+		if (compiled.getSize() != size) {
+			LOGGER.error("### ERROR : Cannot apply moves compiled for size {} on a RubiksCube of size {}", compiled.getSize(), size);
+			return;
+		}
+
+		int[] sources = compiled.faceletSources;
+		int[] destinations = compiled.faceletDestinations;
+
+		for (int i = 0; i < sources.length; i++) {
+			buffer[i] = facelets[sources[i]];
+		}
+		for (int i = 0; i < destinations.length; i++) {
+			facelets[destinations[i]] = buffer[i];
+		}
+	}
+
+	public void move(List<DefinedMove> moves) {
+		if (moves != null) {
+			for (DefinedMove move : moves) {
+				this.move(move);
+			}
+		}
+	}
+
+	public void shuffle(int nbMove) {
+		Random moveRandomGenerator = new Random();
+		Random faceRandomGenerator = new Random();
+
+		for (int i = 1; i <= nbMove; i++) {
+			if (LOGGER.isTraceEnabled())
+				LOGGER.trace("Shuffle move number {}", i);
+
+			move(MOVES[moveRandomGenerator.nextInt(MOVES.length)], faceRandomGenerator.nextInt(size) + 1, false);
+		}
+	}
+
+	/**
+	 * Indique si le RubiksCube est résolu : toutes les facettes d'une même face ont la même couleur
+	 */
+	public boolean isSolved() {
+		for (Face face : FACES) {
+			if (! isFaceSolved(face))
+				return false;
+		}
+		return true;
+	}
+
+	public boolean isFaceSolved(Face face) {
+		int start = face.ordinal() * size * size;
+		for (int facelet = start + 1; facelet < start + size * size; facelet++) {
+			if (facelets[facelet] != facelets[start])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Couleur de la facette portée par la face <code>face</code> du cubie de coordonnées (x, y, z)
+	 */
+	public Facelet getFacelet(Face face, int x, int y, int z) {
+		return FACELETS[facelets[tables.indexOf(face, x, y, z)]];
+	}
+
+	/**
+	 * Index de la facette portée par la face <code>face</code> du cubie de coordonnées (x, y, z)
+	 */
+	public int indexOf(Face face, int x, int y, int z) {
+		return tables.indexOf(face, x, y, z);
+	}
+
+	/**
+	 * Couleur de la facette d'index <code>index</code> (cf. {@link #indexOf(Face, int, int, int)})
+	 */
+	public Facelet getFacelet(int index) {
+		return FACELETS[facelets[index]];
+	}
+
+	/**
+	 * Face qui porte la facette d'index <code>index</code>
+	 */
+	public Face getFace(int index) {
+		return tables.getFace(index);
+	}
+
+	/**
+	 * Index où arrive la facette d'index <code>index</code> après le mouvement <code>definedMove</code>, sans l'appliquer
+	 */
+	public int getDestination(int index, DefinedMove definedMove) {
+		return tables.destination(index, definedMove);
+	}
+
+	/**
+	 * Vue du cubie de coordonnées (x, y, z) : le cubie retourné est une copie qui n'évolue pas avec les mouvements suivants
+	 */
+	public Cubie getCubie(int x, int y, int z) {
+		if (x < 1 || x > size
+		 || y < 1 || y > size
+		 || z < 1 || z > size) {
+			LOGGER.error("### ERROR : Cannot get Cubie on coord x={}, y={}, z={} => allowed coords are in [1-{}] range", x, y, z, size);
+			return null;
+		}
+
+		return new Cubie(size,
+						 new ThreeDimCoordinate(x, y, z),
+						 z == size ? getFacelet(Face.FRONT,  x, y, z) : Facelet.NONE,
+						 x == 1    ? getFacelet(Face.LEFT,   x, y, z) : Facelet.NONE,
+						 x == size ? getFacelet(Face.RIGHT,  x, y, z) : Facelet.NONE,
+						 y == 1    ? getFacelet(Face.BOTTOM, x, y, z) : Facelet.NONE,
+						 y == size ? getFacelet(Face.TOP,    x, y, z) : Facelet.NONE,
+						 z == 1    ? getFacelet(Face.BACK,   x, y, z) : Facelet.NONE);
+	}
+
+	/**
+	 * Vues des cubies de la tranche <code>index</code> de l'axe <code>axis</code>, dans l'ordre de {@link RubiksCube#getCubies(int, Axis)}
+	 */
+	public List<Cubie> getCubies(int index, Axis axis) {
+		if (index < 1 || index > size) {
+			LOGGER.error("### ERROR : Cannot get RubiksCube face n°{} on {} axis => allowed indexes are in [1-{}] range", index, axis.name(), size);
+			return new ArrayList<Cubie>();
+		}
+
+		List<Cubie> cubes = new ArrayList<Cubie>(size * size);
+		for (int a = 1; a <= size; a++) {
+			for (int b = 1; b <= size; b++) {
+				switch (axis) {
+					case X:
+						cubes.add(getCubie(index, b, a));
+						break;
+					case Y:
+						cubes.add(getCubie(b, index, a));
+						break;
+					case Z:
+						cubes.add(getCubie(b, a, index));
+						break;
+				}
+			}
+		}
+		return cubes;
+	}
+
+	/**
+	 * Clé exacte de la configuration, identique à celle d'un {@link RubiksCube} dans la même configuration
+	 */
+	public CubeStateKey exactStateKey() {
+		long[] words = CubeStateKey.newWords(size);
+		for (int facelet = 0; facelet < facelets.length; facelet++) {
+			CubeStateKey.setFacelet(words, facelet, FACELETS[facelets[facelet]]);
+		}
+		return new CubeStateKey(size, words);
+	}
+
+	// Dump
+	//-----
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("PackedRubiksCube [size=" + this.size + ", facelets=\n");
+		for (Face face : FACES) {
+			s.append(face).append(" : ");
+			int start = face.ordinal() * size * size;
+			for (int facelet = start; facelet < start + size * size; facelet++) {
+				s.append(FACELETS[facelets[facelet]]);
+			}
+			s.append("\n");
+		}
+		s.append("]");
+
+		return s.toString();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Arrays.hashCode(facelets);
+		result = prime * result + size;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		PackedRubiksCube other = (PackedRubiksCube) obj;
+		if (size != other.size)
+			return false;
+		if (! Arrays.equals(facelets, other.facelets))
+			return false;
+		return true;
+	}
+}
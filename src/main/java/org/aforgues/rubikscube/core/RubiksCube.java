@@ -2,11 +2,18 @@ package org.aforgues.rubikscube.core;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
+import org.aforgues.rubikscube.ai.AnytimeSolver;
+import org.aforgues.rubikscube.ai.CancellationToken;
+import org.aforgues.rubikscube.ai.PortfolioSolver;
 import org.aforgues.rubikscube.ai.RubiksCubeAI;
+import org.aforgues.rubikscube.ai.Solver;
+import org.aforgues.rubikscube.ai.Solvers;
+import org.aforgues.rubikscube.ai.SolvingStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,38 +40,159 @@ public class RubiksCube implements Cloneable {
     private static final Logger LOGGER = LoggerFactory.getLogger(RubiksCube.class);
 	
 	private final static int MIN_SIZE = 2;
+
+	private static final Face[] FACES = Face.values();
+	private static final int COLOR_COUNT = Facelet.values().length;
 	
 	private int size;
-    private List<Cubie> config;
+
+	/**
+	 * Mode de stockage réduit à la surface : les (N-2)³ cubies intérieurs, jamais visibles, ne sont pas conservés
+	 */
+	private boolean surfaceOnly;
+
+	/**
+	 * Cubies indexés par leurs coordonnées (cf. {@link #indexOf(int, int, int)}) : z, puis y, puis x
+	 */
+    private Cubie[] config;
+
+	/**
+	 * Copie sur écriture : la configuration est partagée avec un instantané (cf. {@link #snapshot()}) tant qu'aucun
+	 * mouvement n'est effectué. Au premier mouvement seul le tableau est copié, puis chaque cubie partagé n'est cloné
+	 * qu'au moment où il est déplacé (<code>ownedCubies</code> vaut <code>null</code> quand tous les cubies sont propres à ce Rubik's Cube).
+	 */
+	private boolean configShared;
+	private boolean[] ownedCubies;
+	private int ownedCubieCount;
+
+	// Buffer de travail pour replacer les cubies d'une tranche après rotation
+	private Cubie[] sliceBuffer;
+
+	// Buffer de travail pour appliquer une suite de mouvements compilée (alloué à la demande)
+	private Cubie[] sequenceBuffer;
+
+	// Buffer de travail pour réorienter un cubie dans le repère du cube
+	private final Face[] orientationBuffer = new Face[FACES.length];
+
+	/**
+	 * Orientation du cube entier : les cubies sont stockés dans le repère du cube, une rotation du cube entier ne change
+	 * que l'orientation (en temps constant), les mouvements des tranches et les lectures étant convertis dans ce repère
+	 */
+	private Orientation orientation;
+
+	/**
+	 * Clé de hachage de Zobrist de la configuration vue par l'observateur, mise à jour à chaque mouvement de tranche
+	 * (cf. {@link #stateKey()}) : une rotation du cube entier changeant le repère, elle est alors recalculée à la demande
+	 */
+	private long stateKey;
+	private boolean stateKeyValid;
+
+	/**
+	 * Nombre de facettes de chaque couleur sur chaque face (index <code>face * COLOR_COUNT + couleur</code>), mis à jour à chaque mouvement
+	 */
+	private int[] faceColorCounts;
+
+	private PackedMoveTables faceletTables;
+	private ZobristKeys zobristKeys;
 
     private RubiksCubeAI ai;
 
 	public int getSize() {
 		return size;
 	}
+
+	public boolean isSurfaceOnly() {
+		return surfaceOnly;
+	}
 	
-	// Only for clone method
-	private RubiksCube(int size, List<Cubie> config) {
+	// Only for clone and snapshot methods
+	private RubiksCube(int size, boolean surfaceOnly, Cubie[] config, boolean configShared, Orientation orientation, long stateKey, int[] faceColorCounts) {
 		this.size = size;
-		this.config = new ArrayList<Cubie>(config);
+		this.surfaceOnly = surfaceOnly;
+		this.config = config;
+		this.configShared = configShared;
+		this.orientation = orientation;
+		this.sliceBuffer = new Cubie[size * size];
+		this.faceletTables = PackedMoveTables.forSize(size);
+		this.zobristKeys = ZobristKeys.forSize(size);
+		this.stateKey = stateKey;
+		this.stateKeyValid = true;
+		this.faceColorCounts = faceColorCounts;
 	}
 	
 	public RubiksCube(int size) {
+		this(size, false);
+	}
+
+	/**
+	 * @param surfaceOnly si vrai, seuls les 6N² - 12N + 8 cubies de surface sont stockés (cf. grands Rubik's Cube) :
+	 *                    {@link #getCubie(int, int, int)} retourne alors <code>null</code> pour un cubie intérieur
+	 */
+	public RubiksCube(int size, boolean surfaceOnly) {
 		if (size < MIN_SIZE) {
 			LOGGER.warn("RubiksCube size cannot be less than {} (actual : {}) => forcing size to {}", MIN_SIZE, size, MIN_SIZE);
 			size = MIN_SIZE;
 		}
 		this.size = size;
+		this.surfaceOnly = surfaceOnly;
+		this.faceletTables = PackedMoveTables.forSize(size);
+		this.zobristKeys = ZobristKeys.forSize(size);
 		initConfig();
 	}
 	
 	@Override
 	public Object clone() throws CloneNotSupportedException {
-		List<Cubie> configClone = new ArrayList<Cubie>();
-		for (Cubie cubie : this.config) {
-			configClone.add((Cubie) cubie.clone());
+		Cubie[] configClone = new Cubie[this.config.length];
+		for (int i = 0; i < this.config.length; i++) {
+			configClone[i] = (Cubie) this.config[i].clone();
 		}
-		return new RubiksCube(this.size, configClone);
+		return new RubiksCube(this.size, this.surfaceOnly, configClone, false, this.orientation, this.stateKey(), this.faceColorCounts.clone());
+	}
+
+	/**
+	 * Instantané de la configuration en temps constant : les cubies sont partagés entre les deux Rubik's Cube et ne sont
+	 * copiés qu'au moment où l'un des deux les déplace (cf. {@link #clone()} pour une copie complète immédiate).
+	 * Les cubies obtenus d'un Rubik's Cube partagé ne doivent donc être modifiés que par ses propres mouvements.
+	 */
+	public RubiksCube snapshot() {
+		this.configShared = true;
+		return new RubiksCube(this.size, this.surfaceOnly, this.config, true, this.orientation, this.stateKey(), this.faceColorCounts.clone());
+	}
+
+	/**
+	 * Avant un mouvement : copie du tableau de la configuration s'il est partagé avec un instantané
+	 */
+	private void prepareWrite() {
+		if (! configShared)
+			return;
+
+		config = config.clone();
+		if (ownedCubies == null)
+			ownedCubies = new boolean[config.length];
+		else
+			Arrays.fill(ownedCubies, false);
+		ownedCubieCount = 0;
+		configShared = false;
+	}
+
+	/**
+	 * Cubie de la position donnée, cloné au préalable s'il est encore partagé avec un instantané
+	 */
+	private Cubie ownedCubie(int position) {
+		Cubie cube = config[position];
+		if (ownedCubies == null || ownedCubies[position])
+			return cube;
+
+		try {
+			cube = (Cubie) cube.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+		config[position] = cube;
+		ownedCubies[position] = true;
+		if (++ownedCubieCount == config.length)
+			ownedCubies = null;
+		return cube;
 	}
 	    
 	/**
@@ -83,7 +211,11 @@ public class RubiksCube implements Cloneable {
 		 * Face arrière : orange 
 		 */
 		
-		config = new ArrayList<Cubie>();
+		config = new Cubie[surfaceOnly ? getSurfaceCubieCount() : getSize() * getSize() * getSize()];
+		configShared = false;
+		orientation = Orientation.IDENTITY;
+		ownedCubies = null;
+		sliceBuffer = new Cubie[getSize() * getSize()];
 		
 		for (int z = 1; z <= getSize(); z++) {
 			// Construction des N niveaux centraux de la face : axe y
@@ -97,20 +229,29 @@ public class RubiksCube implements Cloneable {
 				
 				ThreeDimCoordinate coord = new ThreeDimCoordinate(x, y, z);
 				Cubie cube = new Cubie(getSize(), coord, frontColor, Facelet.BLUE, Facelet.NONE, bottomColor, topColor, backColor);
-				config.add(cube);
+				config[indexOf(x, y, z)] = cube;
 				
 				for (x = 2; x < getSize(); x++) {
+					if (surfaceOnly && isInnerCubie(x, y, z))
+						continue;
+					
 					ThreeDimCoordinate centerCoord = new ThreeDimCoordinate(x, y, z);
 					Cubie centerCube = new Cubie(getSize(), centerCoord, frontColor, Facelet.NONE, Facelet.NONE, bottomColor, topColor, backColor);
-					config.add(centerCube);
+					config[indexOf(x, y, z)] = centerCube;
 				}
 				
 				ThreeDimCoordinate lastCoord = new ThreeDimCoordinate(x, y, z);
 				Cubie lastCube = new Cubie(getSize(), lastCoord, frontColor, Facelet.NONE, Facelet.GREEN, bottomColor, topColor, backColor);
-				config.add(lastCube);
+				config[indexOf(x, y, z)] = lastCube;
 			}
 		}		
 		
+		stateKey = 0L;
+		stateKeyValid = true;
+		faceColorCounts = new int[FACES.length * COLOR_COUNT];
+		for (Cubie cube : config) {
+			addToState(cube);
+		}
 	}
 	
 	public void reset() {
@@ -119,140 +260,215 @@ public class RubiksCube implements Cloneable {
 	}
 	
 	/**
-	 * Rotation selon l'axe X de 90° vers l'avant (comme une roulade avant ou un frontflip en snowboard) : tangage
+	 * Rotation d'une tranche de <code>quarterTurns</code> quarts de tour en une seule passe (cf. {@link Move#getQuarterTurns()}) :
+	 * seuls les N² cubies de la tranche sont tournés puis replacés à leurs nouvelles coordonnées, sans aucune allocation
+	 * 
+	 * - axe X : tangage, comme une roulade avant (PITCH) ou arrière (UNPITCH)
+	 * - axe Y : lacet, comme une toupie dans le sens des aiguilles d'une montre vue de haut (YAW) ou inverse (UNYAW)
+	 * - axe Z : roulis, comme pour fermer une porte à clef dans le sens des aiguilles d'une montre vue de face (ROLL) ou l'ouvrir (UNROLL)
 	 */
-	private void pitch(int index) {
-		if (LOGGER.isTraceEnabled())
-			LOGGER.trace("Pitching (rotation on X axis) Rubik's Cube on face {}", index);
+	private void rotateSlice(int index, Axis axis, int quarterTurns) {
+		if (! isValidIndex(index, axis))
+			return;
 		
-		List<Cubie> cubes = getCubies(index, Axis.X);
+		prepareWrite();
 		
-		for (Cubie cube : cubes) {
-			cube.pitch();
+		// Les positions d'une tranche sont les mêmes avant et après rotation : tous ses cubies deviennent propres à ce Rubik's Cube
+		int count = 0;
+		for (int a = 1; a <= getSize(); a++) {
+			for (int b = 1; b <= getSize(); b += sliceStep(index, a)) {
+				Cubie cube = ownedCubie(slicePosition(index, axis, a, b));
+				removeFromState(cube);
+				cube.turn(axis, quarterTurns);
+				sliceBuffer[count++] = cube;
+			}
 		}
 		
-		Collections.sort(config);
+		// Une fois tous les cubies tournés, on les replace dans la configuration selon leurs nouvelles coordonnées
+		for (int i = 0; i < count; i++) {
+			Cubie cube = sliceBuffer[i];
+			ThreeDimCoordinate coord = cube.getCoordinates();
+			config[indexOf(coord.getX(), coord.getY(), coord.getZ())] = cube;
+			addToState(cube);
+			sliceBuffer[i] = null;
+		}
 	}
-	
+
 	/**
-	 * Rotation selon l'axe X de 90° vers l'avant (comme une roulade arrière ou un backflip en snowboard) : tangage
+	 * Position dans la configuration du cubie de coordonnées (x, y, z) : -1 pour un cubie intérieur non stocké
 	 */
-	private void unpitch(int index) {
-        if (LOGGER.isTraceEnabled())
-			LOGGER.trace("Unpitching (inverse rotation on X axis) Rubik's Cube on face {} through 3 pitches", index);
+	private int indexOf(int x, int y, int z) {
+		if (! surfaceOnly)
+			return ((z - 1) * getSize() + (y - 1)) * getSize() + (x - 1);
+		
+		// Les faces arrière (z = 1) et avant (z = N) sont complètes, les niveaux intermédiaires ne sont qu'une couronne de 4N - 4 cubies
+		int faceSize = getSize() * getSize();
+		int ringSize = 4 * getSize() - 4;
+		if (z == 1)
+			return (y - 1) * getSize() + (x - 1);
+		if (z == getSize())
+			return faceSize + (getSize() - 2) * ringSize + (y - 1) * getSize() + (x - 1);
+		
+		int ringStart = faceSize + (z - 2) * ringSize;
+		if (y == 1)
+			return ringStart + (x - 1);
+		if (y == getSize())
+			return ringStart + getSize() + 2 * (getSize() - 2) + (x - 1);
+		if (x == 1 || x == getSize())
+			return ringStart + getSize() + 2 * (y - 2) + (x == 1 ? 0 : 1);
+		return -1;
+	}
 
-		pitch(index);
-		pitch(index);
-		pitch(index);
+	private boolean isInnerCubie(int x, int y, int z) {
+		return x > 1 && x < getSize()
+			&& y > 1 && y < getSize()
+			&& z > 1 && z < getSize();
 	}
-	
+
+	private int getSurfaceCubieCount() {
+		return 6 * getSize() * getSize() - 12 * getSize() + 8;
+	}
+
 	/**
-	 * Rotation selon l'axe Y de 90° vers la droite (comme un toupis dans le sens des aiguilles d'une montre vue de haut) : lacet
+	 * Pas de parcours de la ligne <code>a</code> d'une tranche : en mode surface, une tranche intérieure n'a que ses bords stockés
 	 */
-	private void yaw(int index) {
-        if (LOGGER.isTraceEnabled())
-			LOGGER.trace("Yawing (rotation on Y axis) Rubik's Cube on face {}", index);
-		
-		List<Cubie> cubes = getCubies(index, Axis.Y);
-		
-		for (Cubie cube : cubes) {
-			cube.yaw();
+	private int sliceStep(int index, int a) {
+		if (! surfaceOnly || index == 1 || index == getSize() || a == 1 || a == getSize())
+			return 1;
+		return getSize() - 1;
+	}
+
+	/**
+	 * Position dans la configuration du cubie (a, b) de la tranche <code>index</code> de l'axe <code>axis</code>,
+	 * en respectant l'ordre de tri des coordonnées (z, puis y, puis x)
+	 */
+	private int slicePosition(int index, Axis axis, int a, int b) {
+		switch (axis) {
+			case X:
+				return indexOf(index, b, a);
+			case Y:
+				return indexOf(b, index, a);
+			default:
+				return indexOf(b, a, index);
 		}
-		
-		Collections.sort(config);
 	}
-	
+
 	/**
-	 * Rotation selon l'axe Y de 90° vers la gauche (comme un toupis de gaucher dans le sens inverse des aiguilles d'une montre vue de haut) : lacet
+	 * Position dans la configuration du cubie vu par l'observateur en (x, y, z)
 	 */
-	private void unyaw(int index) {
-        if (LOGGER.isTraceEnabled())
-			LOGGER.trace("Unyawing (inverse rotation on Y axis) Rubik's Cube on face {} through 3 yaws", index);
-		
-		yaw(index);
-		yaw(index);
-		yaw(index);
+	private int worldIndexOf(int x, int y, int z) {
+		if (orientation == Orientation.IDENTITY)
+			return indexOf(x, y, z);
+		return indexOf(orientation.toCubeCoordinate(Axis.X, x, y, z, getSize()),
+					   orientation.toCubeCoordinate(Axis.Y, x, y, z, getSize()),
+					   orientation.toCubeCoordinate(Axis.Z, x, y, z, getSize()));
 	}
 
 	/**
-	 * Rotation selon l'axe Z de 90° vers la droite (comme pour fermer une porte à clef dans le sens des aiguilles d'une montre vue de face)  : roulis
+	 * Même chose que {@link #slicePosition(int, Axis, int, int)} pour une tranche vue par l'observateur
 	 */
-	private void roll(int index) {
-        if (LOGGER.isTraceEnabled())
-			LOGGER.trace("Rolling (rotation on Z axis) Rubik's Cube on face {}", index);
-		
-		List<Cubie> cubes = getCubies(index, Axis.Z);
-		
-		for (Cubie cube : cubes) {
-			cube.roll();
+	private int worldSlicePosition(int index, Axis axis, int a, int b) {
+		switch (axis) {
+			case X:
+				return worldIndexOf(index, b, a);
+			case Y:
+				return worldIndexOf(b, index, a);
+			default:
+				return worldIndexOf(b, a, index);
 		}
-		
-		Collections.sort(config);
+	}
+
+	private int worldCoordinate(Axis axis, ThreeDimCoordinate coord) {
+		return orientation.toWorldCoordinate(axis, coord.getX(), coord.getY(), coord.getZ(), getSize());
 	}
 
 	/**
-	 * Rotation selon l'axe Z de 90° vers la gauche (comme pour ouvrir une porte à clef dans le sens inverse des aiguilles d'une montre vue de face)  : roulis
+	 * Cubie tel que vu par l'observateur : le cubie stocké si le cube entier n'a pas été tourné, sinon une copie
+	 * exprimée dans le repère de l'observateur (qui ne suit donc pas les mouvements suivants)
 	 */
-	private void unroll(int index) {
-        if (LOGGER.isTraceEnabled())
-			LOGGER.trace("Unrolling (inverse rotation on Z axis) Rubik's Cube on face {} through 3 rolls", index);
-		
-		roll(index);
-		roll(index);
-		roll(index);
+	private Cubie toWorld(Cubie cube) {
+		if (orientation == Orientation.IDENTITY)
+			return cube;
+
+		ThreeDimCoordinate coord = cube.getCoordinates();
+		ThreeDimCoordinate worldCoord = new ThreeDimCoordinate(worldCoordinate(Axis.X, coord), worldCoordinate(Axis.Y, coord), worldCoordinate(Axis.Z, coord));
+		return new Cubie(getSize(), worldCoord,
+						 cube.getFace(orientation.toCube(Face.FRONT)),
+						 cube.getFace(orientation.toCube(Face.LEFT)),
+						 cube.getFace(orientation.toCube(Face.RIGHT)),
+						 cube.getFace(orientation.toCube(Face.BOTTOM)),
+						 cube.getFace(orientation.toCube(Face.TOP)),
+						 cube.getFace(orientation.toCube(Face.BACK)));
+	}
+
+	/**
+	 * Réorientation d'un cubie (cf. {@link Cubie#reorient(Face[], int, int, int)}) exprimée dans le repère du cube
+	 */
+	private Face[] toCube(Face[] sources) {
+		if (orientation == Orientation.IDENTITY)
+			return sources;
+
+		for (Face face : FACES) {
+			orientationBuffer[face.ordinal()] = orientation.toCube(sources[orientation.toWorld(face).ordinal()]);
+		}
+		return orientationBuffer;
+	}
+
+	private boolean isValidIndex(int index, Axis axis) {
+		if (index < 1 || index > getSize()) {
+			LOGGER.error("### ERROR : Cannot rotate RubiksCube face n°{} on {} axis => allowed indexes are in [1-{}] range", index, axis.name(), getSize());
+			return false;
+		}
+		return true;
 	}
 
 	public List<Cubie> getAllCubies() {
-	    return this.config;
+		if (orientation == Orientation.IDENTITY)
+			return Arrays.asList(this.config);
+
+		// Même ordre que la configuration, mais dans le repère de l'observateur
+		List<Cubie> cubes = new ArrayList<Cubie>(this.config.length);
+		for (int z = 1; z <= getSize(); z++) {
+			for (int y = 1; y <= getSize(); y++) {
+				for (int x = 1; x <= getSize(); x++) {
+					if (! surfaceOnly || ! isInnerCubie(x, y, z))
+						cubes.add(toWorld(this.config[worldIndexOf(x, y, z)]));
+				}
+			}
+		}
+		return cubes;
     }
 
 	public List<Cubie> getCubies(int index, Axis axis) {
         if (LOGGER.isTraceEnabled())
 			LOGGER.trace("Retrieving cubes of axis {} on face n°{}", axis.name(), index);
 		
-		if (index < 1 || index > getSize()) {
-			LOGGER.error("### ERROR : Cannot rotate RubiksCube face n°{} on {} axis => allowed indexes are in [1-{}] range", index, axis.name(), getSize());
+		if (! isValidIndex(index, axis))
 			return Collections.emptyList();
-		}
 		
-		List<Cubie> cubes = new ArrayList<Cubie>();
-		for (Cubie cube : config) {
-			ThreeDimCoordinate coord = cube.getCoordinates();
-			
-			int i;
-			switch (axis) {
-				case X:
-					i = coord.getX();
-					break;
-				case Y:
-					i = coord.getY();
-					break;
-				case Z:
-					i = coord.getZ();
-					break;	
-				default:
-					continue;
-			}
-			
-			if (i == index) {
-				cubes.add(cube);
+		List<Cubie> cubes = new ArrayList<Cubie>(getSize() * getSize());
+		for (int a = 1; a <= getSize(); a++) {
+			for (int b = 1; b <= getSize(); b += sliceStep(index, a)) {
+				cubes.add(toWorld(config[worldSlicePosition(index, axis, a, b)]));
 			}
 		}
 		return cubes;
 	}
 	
 	public void shuffle(int nbMove) {
-		List<DefinedMove> moves = generateShuffleMoves(nbMove);
-		
-		// On va effectuer <code>moves</code> mouvements aléatoires à la suite
+		shuffle(generateShuffleMoves(nbMove));
+	}
+
+	/**
+	 * Mélange du Rubik's Cube par une suite de mouvements donnée (par exemple un mélange de compétition)
+	 */
+	public void shuffle(MoveSequence moves) {
+		// On va effectuer <code>moves</code> mouvements à la suite
 		for (int i = 1; i <= moves.size(); i++) {
             if (LOGGER.isTraceEnabled())
 				LOGGER.trace("Shuffle move number {}", i);
 			
-			DefinedMove definedMove = moves.get(i - 1);
-			
-			// On récupère un des 9 mouvements possibles aléatoirement
-			internalMove(definedMove);
+			internalMove(moves.getMove(i - 1), moves.getFaceIndex(i - 1), moves.isFaceMove(i - 1));
 		}
 
 		this.resetSolvingPath();
@@ -280,64 +496,28 @@ public class RubiksCube implements Cloneable {
     }
 
 	private void internalMove(DefinedMove definedMove) {
-		if (definedMove != null && definedMove.getMove() != null) {
-			// On définit la liste d'index à déplacer
-			List<Integer> indexes = new ArrayList<Integer>();
-			if (definedMove.isFaceMove()) {
-				for (int i = 1; i <= getSize(); i++) {
-					indexes.add(Integer.valueOf(i));
-				}
-                if (LOGGER.isTraceEnabled())
-					LOGGER.trace("Moving all face with {}", definedMove.getMove().name());
-			}
-			else {
-				indexes.add(definedMove.getFaceIndex());
-                if (LOGGER.isTraceEnabled())
-					LOGGER.trace("Moving {}", definedMove);
-			}
-			
-			// Ensuite on boucle sur ces indexes pour déplacer la ou les faces du cube souhaitées
-			for (int index : indexes) {
-				switch (definedMove.getMove()) {
-					// On tourne le cube autour de l'axe X 
-					case PITCH:
-						pitch(index);
-						break;
-					case DOUBLE_PITCH:
-						pitch(index);
-						pitch(index);
-						break;
-					// On tourne le cube autour de l'axe X 
-					case UNPITCH:
-						unpitch(index);
-						break;
-					// On tourne le cube autour de l'axe Y 
-					case YAW:
-						yaw(index);
-						break;
-					case DOUBLE_YAW:
-						yaw(index);
-						yaw(index);
-						break;
-					// On tourne le cube autour de l'axe Y 
-					case UNYAW:
-						unyaw(index);
-						break;
-					// On tourne le cube autour de l'axe Z globalement
-					case ROLL:
-						roll(index);
-						break;
-					case DOUBLE_ROLL:
-						roll(index);
-						roll(index);
-						break;
-					// On tourne le cube autour de l'axe Z globalement
-					case UNROLL:
-						unroll(index);
-						break;	
-				}
-			}
+		if (definedMove != null && definedMove.getMove() != null)
+			internalMove(definedMove.getMove(), definedMove.getFaceIndex(), definedMove.isFaceMove());
+	}
+
+	private void internalMove(Move move, int faceIndex, boolean faceMove) {
+		// Un mouvement de tout le cube ne change que son orientation
+		if (faceMove) {
+            if (LOGGER.isTraceEnabled())
+				LOGGER.trace("Moving all face with {}", move.name());
+			orientation = orientation.turn(move.getAxis(), move.getQuarterTurns());
+			stateKeyValid = false;
+			return;
 		}
+		
+        if (LOGGER.isTraceEnabled())
+			LOGGER.trace("Moving {}@{}", move, faceIndex);
+		
+		// Sinon on tourne la tranche correspondante dans le repère du cube : les demi-tours et les mouvements inverses sont faits en une seule passe
+		Axis axis = move.getAxis();
+		rotateSlice(orientation.toCubeIndex(axis, faceIndex, getSize()),
+					orientation.toCubeAxis(axis),
+					orientation.toCubeQuarterTurns(axis, move.getQuarterTurns()));
 	}
 	
 	public void move(List<DefinedMove> moves) {
@@ -347,15 +527,67 @@ public class RubiksCube implements Cloneable {
 			}
 		}
 	}
+
+	/**
+	 * Application d'une suite de mouvements compacte, sans allocation
+	 */
+	public void move(MoveSequence moves) {
+		for (int i = 0; i < moves.size(); i++) {
+			internalMove(moves.getMove(i), moves.getFaceIndex(i), moves.isFaceMove(i));
+		}
+	}
+
+	/**
+	 * Application d'une suite de mouvements compilée (cf. {@link MoveSequenceCompiler}) : chaque cubie déplacé n'est touché qu'une fois
+	 */
+	public void move(CompiledMoveSequence compiled) {
+		if (compiled.getSize() != getSize()) {
+			LOGGER.error("### ERROR : Cannot apply moves compiled for size {} on a RubiksCube of size {}", compiled.getSize(), getSize());
+			return;
+		}
+
+		if (LOGGER.isTraceEnabled())
+			LOGGER.trace("Moving {}", compiled);
+
+		prepareWrite();
+
+		int count = compiled.from.length;
+		if (sequenceBuffer == null || sequenceBuffer.length < count)
+			sequenceBuffer = new Cubie[count];
+
+		// Les positions compilées sont celles vues par l'observateur
+		int faceSize = getSize() * getSize();
+		for (int i = 0; i < count; i++) {
+			int position = compiled.from[i];
+			sequenceBuffer[i] = ownedCubie(worldIndexOf(position % getSize() + 1, (position / getSize()) % getSize() + 1, position / faceSize + 1));
+			removeFromState(sequenceBuffer[i]);
+		}
+
+		for (int i = 0; i < count; i++) {
+			int position = compiled.to[i];
+			int worldX = position % getSize() + 1;
+			int worldY = (position / getSize()) % getSize() + 1;
+			int worldZ = position / faceSize + 1;
+			int x = orientation.toCubeCoordinate(Axis.X, worldX, worldY, worldZ, getSize());
+			int y = orientation.toCubeCoordinate(Axis.Y, worldX, worldY, worldZ, getSize());
+			int z = orientation.toCubeCoordinate(Axis.Z, worldX, worldY, worldZ, getSize());
+
+			Cubie cube = sequenceBuffer[i];
+			cube.reorient(toCube(compiled.orientations[i]), x, y, z);
+			config[indexOf(x, y, z)] = cube;
+			addToState(cube);
+			sequenceBuffer[i] = null;
+		}
+	}
 	
 	/**
 	 * Méthode permettant de mélanger le Rubik's Cube
 	 */
-	private List<DefinedMove> generateShuffleMoves(int nbMove) {
+	private MoveSequence generateShuffleMoves(int nbMove) {
         if (LOGGER.isTraceEnabled())
 			LOGGER.trace("Starting shuffling Rubik's Cube in {} moves ...", nbMove);
 		
-		List<DefinedMove> moves = new ArrayList<DefinedMove>(nbMove);
+		MoveSequence moves = new MoveSequence(nbMove);
 		
 		Random moveRandomGenerator = new Random();
 		Random faceRandomGenerator = new Random();
@@ -367,19 +599,60 @@ public class RubiksCube implements Cloneable {
 			
 			// On récupère un des 9 mouvements possibles aléatoirement
 			int move = moveRandomGenerator.nextInt(Move.values().length - 1);
-			moves.add(new DefinedMove(DefinedMove.getMove(move), faceRandomGenerator.nextInt(getSize()) + 1));
+			moves.append(DefinedMove.getMove(move), faceRandomGenerator.nextInt(getSize()) + 1);
 		}
 		return moves;
 	}
 
 	/**
 	 *  Using artificial intelligence to solve the RubiksCube
+	 *
+	 *  Hors simulation, la solution est calculée en tâche de fond : {@link #moveToNextPosition()} attend si besoin
+	 *  que le mouvement suivant soit calculé, les premiers mouvements étant disponibles avant la fin du calcul.
 	 */
 	public void solve(boolean isSimulation) {
-		this.ai = new RubiksCubeAI(this, isSimulation);
+		solve(isSimulation, SolvingStrategy.DEFAULT);
+	}
+
+	public void solve(boolean isSimulation, SolvingStrategy strategy) {
+		this.ai = new RubiksCubeAI(this, isSimulation, strategy);
 		ai.computeArtificialIntelligence();
 	}
 
+	/**
+	 *  Résolution bornée dans le temps : renvoie la meilleure solution trouvée en <code>timeBudgetMillis</code> ms ou avant
+	 *  l'annulation de <code>token</code> (null si aucune), quitte à ce qu'elle soit plus longue (cf. {@link AnytimeSolver}).
+	 *  Le RubiksCube n'est pas modifié, la solution est ensuite jouée par {@link #moveToNextPosition()}.
+	 */
+	public List<DefinedMove> solve(long timeBudgetMillis, CancellationToken token) {
+		this.ai = new RubiksCubeAI(this, false);
+		return ai.computeArtificialIntelligence(timeBudgetMillis, token);
+	}
+
+	/**
+	 *  Résolution par le plus rapide des moteurs déclarés (cf. {@link Solvers}) dont les solutions font au plus
+	 *  <code>maxLength</code> mouvements en au plus <code>maxLatencyMillis</code> ms, qui est aussi le temps accordé au calcul.
+	 *  Renvoie la solution (null si aucune), qui est ensuite jouée par {@link #moveToNextPosition()}.
+	 */
+	public List<DefinedMove> solve(int maxLength, long maxLatencyMillis, CancellationToken token) {
+		Solver solver = Solvers.select(getSize(), maxLength, maxLatencyMillis);
+		if (solver == null) {
+			LOGGER.warn("No solver for a RubiksCube of size {} in {} ms", getSize(), maxLatencyMillis);
+			return null;
+		}
+
+		return solve(solver, maxLength, maxLatencyMillis, token);
+	}
+
+	/**
+	 *  Résolution par un moteur donné (par exemple un {@link PortfolioSolver} qui met plusieurs moteurs en concurrence) :
+	 *  renvoie sa solution (null si aucune), qui est ensuite jouée par {@link #moveToNextPosition()}.
+	 */
+	public List<DefinedMove> solve(Solver solver, int targetLength, long timeBudgetMillis, CancellationToken token) {
+		this.ai = new RubiksCubeAI(this, false);
+		return ai.computeArtificialIntelligence(solver, targetLength, timeBudgetMillis, token);
+	}
+
 	private DefinedMove getNextMove() {
 		if (this.ai != null) {
 		    DefinedMove nextMove = this.ai.getNextMove();
@@ -411,52 +684,30 @@ public class RubiksCube implements Cloneable {
 	 * @return
 	 */
 	public boolean isSolved() {
-		// On regarde face après face, si tous les cubes ont bien la même couleur
-		for (Face face : Face.values()) {
-			if (! this.checkFaceSolved(face))
+		// On regarde face après face, si toutes les facettes ont bien la même couleur
+		for (Face face : FACES) {
+			if (! this.isFaceSolved(face))
 				return false;
 		}
 		return true;
 	}
-	
-	private boolean checkFaceSolved(Face face) {
-		Facelet faceColor = null;
-		for (Cubie cube : getFaceCubies(face)) {
-			if (faceColor == null || faceColor.equals(cube.getFace(face)))
-				faceColor = cube.getFace(face);
-			else
-				return false;
-		}
-        if (LOGGER.isDebugEnabled())
-			LOGGER.debug("Checking RubiksCube solved : {} Face matched !", face);
-		
-		return true;
+
+	/**
+	 * Indique si toutes les facettes de la face ont la même couleur : O(1) grâce aux compteurs de couleurs par face
+	 */
+	public boolean isFaceSolved(Face face) {
+		return getMismatchCount(face) == 0;
 	}
 
-	private List<Cubie> getFaceCubies(Face face) {
-		List<Cubie> cubes = null;
-		switch(face) {
-			case FRONT:
-				cubes = this.getFrontFaceCubes();
-				break;
-			case LEFT:
-				cubes = this.getLeftFaceCubes();
-				break;
-			case TOP:
-				cubes = this.getTopFaceCubes();
-				break;
-			case RIGHT:
-				cubes = this.getRightFaceCubes();
-				break;
-			case BOTTOM:
-				cubes = this.getBottomFaceCubes();
-				break;
-			case BACK:
-				cubes = this.getBackFaceCubes();
-				break;
+	/**
+	 * Nombre de facettes de la face qui diffèrent de sa couleur majoritaire
+	 */
+	public int getMismatchCount(Face face) {
+		int majorityCount = 0;
+		for (int color = 0; color < COLOR_COUNT; color++) {
+			majorityCount = Math.max(majorityCount, faceColorCounts[orientation.toCube(face).ordinal() * COLOR_COUNT + color]);
 		}
-		
-		return cubes;
+		return getSize() * getSize() - majorityCount;
 	}
 
 	public List<Cubie> getBackFaceCubes() {
@@ -491,22 +742,113 @@ public class RubiksCube implements Cloneable {
 			return null;
 		}
 		
-		for (Cubie cubie : this.config) {
-			ThreeDimCoordinate coord = cubie.getCoordinates();
-			
-			if (coord.getX() == x && coord.getY() == y && coord.getZ() == z)
-				return cubie;
+		if (surfaceOnly && isInnerCubie(x, y, z)) {
+			if (LOGGER.isDebugEnabled())
+				LOGGER.debug("Cubie on coord x={}, y={}, z={} is not stored in surface only mode", x, y, z);
+			return null;
 		}
-		return null;
+		
+		return toWorld(this.config[worldIndexOf(x, y, z)]);
+	}
+
+	/**
+	 * Couleur de la facette portée par la face <code>face</code> du cubie en (x, y, z), sans copie du cubie
+	 * (cf. {@link #getCubie(int, int, int)} lorsque le cube entier a été tourné)
+	 */
+	public Facelet getFacelet(Face face, int x, int y, int z) {
+		return this.config[worldIndexOf(x, y, z)].getFace(orientation.toCube(face));
 	}
 	
+	/**
+	 * Clé de hachage 64 bits (Zobrist) de la configuration vue par l'observateur, maintenue à chaque mouvement de tranche :
+	 * O(1), sauf à la première lecture qui suit une rotation du cube entier (qui change le repère de toutes les facettes)
+	 *
+	 * Deux configurations identiques ont toujours la même clé, l'inverse n'étant vrai qu'avec une très forte
+	 * probabilité : utiliser {@link #exactStateKey()} lorsqu'une clé sans collision est nécessaire.
+	 */
+	public long stateKey() {
+		if (! stateKeyValid) {
+			long key = 0L;
+			for (Cubie cube : config) {
+				key ^= worldStateKey(cube);
+			}
+			stateKey = key;
+			stateKeyValid = true;
+		}
+		return stateKey;
+	}
+
+	/**
+	 * Clé exacte de la configuration, sans collision possible (2 <code>long</code> pour un 2x2, 3 pour un 3x3)
+	 */
+	public CubeStateKey exactStateKey() {
+		long[] words = CubeStateKey.newWords(getSize());
+		for (Cubie cube : config) {
+			ThreeDimCoordinate coord = cube.getCoordinates();
+			int x = worldCoordinate(Axis.X, coord);
+			int y = worldCoordinate(Axis.Y, coord);
+			int z = worldCoordinate(Axis.Z, coord);
+			for (Face face : FACES) {
+				Facelet facelet = cube.getFace(face);
+				if (facelet != Facelet.NONE)
+					CubeStateKey.setFacelet(words, faceletTables.indexOf(orientation.toWorld(face), x, y, z), facelet);
+			}
+		}
+		return new CubeStateKey(getSize(), words);
+	}
+
+	/**
+	 * Retrait des facettes visibles d'un cubie de la clé de Zobrist et des compteurs de couleurs, avant son déplacement
+	 */
+	private void removeFromState(Cubie cube) {
+		updateState(cube, -1);
+	}
+
+	/**
+	 * Ajout des facettes visibles d'un cubie à la clé de Zobrist et aux compteurs de couleurs, à sa (nouvelle) position
+	 */
+	private void addToState(Cubie cube) {
+		updateState(cube, 1);
+	}
+
+	private void updateState(Cubie cube, int delta) {
+		// Clé laissée à recalculer après une rotation du cube entier
+		if (stateKeyValid)
+			stateKey ^= worldStateKey(cube);
+
+		for (Face face : FACES) {
+			Facelet facelet = cube.getFace(face);
+			if (facelet != Facelet.NONE)
+				faceColorCounts[face.ordinal() * COLOR_COUNT + facelet.ordinal()] += delta;
+		}
+	}
+
+	/**
+	 * Part d'un cubie dans la clé de Zobrist : ses facettes visibles, à leur position vue par l'observateur
+	 */
+	private long worldStateKey(Cubie cube) {
+		ThreeDimCoordinate coord = cube.getCoordinates();
+		boolean identity = orientation == Orientation.IDENTITY;
+		int x = identity ? coord.getX() : worldCoordinate(Axis.X, coord);
+		int y = identity ? coord.getY() : worldCoordinate(Axis.Y, coord);
+		int z = identity ? coord.getZ() : worldCoordinate(Axis.Z, coord);
+
+		long key = 0L;
+		for (Face face : FACES) {
+			Facelet facelet = cube.getFace(face);
+			if (facelet != Facelet.NONE)
+				key ^= zobristKeys.get(faceletTables.indexOf(identity ? face : orientation.toWorld(face), x, y, z), facelet);
+		}
+		return key;
+	}
+
 	// Dump
 	//-----
 	
 	@Override
 	public String toString() {
-		StringBuilder s = new StringBuilder("RubiksCube [size=" + this.size + ", config=\n");
-		for (Cubie cube : config) {
+		StringBuilder s = new StringBuilder("RubiksCube [size=" + this.size + (this.surfaceOnly ? ", surfaceOnly" : "") + ", config=\n");
+		for (Cubie cube : getAllCubies()) {
 			s.append(cube).append("\n");
 		}
 		s.append("]");
@@ -519,8 +861,10 @@ public class RubiksCube implements Cloneable {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((config == null) ? 0 : config.hashCode());
+		long key = stateKey();
+		result = prime * result + (int) (key ^ (key >>> 32));
 		result = prime * result + size;
+		result = prime * result + (surfaceOnly ? 1231 : 1237);
 		return result;
 	}
 
@@ -534,14 +878,16 @@ public class RubiksCube implements Cloneable {
 		if (getClass() != obj.getClass())
 			return false;
 		RubiksCube other = (RubiksCube) obj;
-		if (config == null) {
-			if (other.config != null)
-				return false;
-		} else if (!config.equals(other.config))
+		if (stateKey() != other.stateKey())
 			return false;
 		if (size != other.size)
 			return false;
-		return true;
+		if (surfaceOnly != other.surfaceOnly)
+			return false;
+		// Cubies stockés dans le même repère : comparables directement
+		if (orientation == other.orientation)
+			return Arrays.equals(config, other.config);
+		return exactStateKey().equals(other.exactStateKey());
 	}
 
 
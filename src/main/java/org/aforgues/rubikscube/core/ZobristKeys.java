@@ -0,0 +1,42 @@
+package org.aforgues.rubikscube.core;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Clés aléatoires de hachage de Zobrist : une clé 64 bits par couple (facette, couleur), construites une seule fois par taille
+ *
+ * La clé d'un état est le XOR des clés de toutes ses facettes visibles : un mouvement met la clé à jour en retirant
+ * puis en rajoutant uniquement les facettes des cubies déplacés. Le générateur est initialisé avec la taille du
+ * Rubik's Cube afin que les clés restent identiques d'une exécution à l'autre.
+ */
+final class ZobristKeys {
+
+	private static final ConcurrentMap<Integer, ZobristKeys> KEYS = new ConcurrentHashMap<Integer, ZobristKeys>();
+
+	private static final int COLOR_COUNT = Facelet.values().length;
+
+	private final long[] keys;
+
+	static ZobristKeys forSize(int size) {
+		ZobristKeys keys = KEYS.get(size);
+		if (keys == null) {
+			KEYS.putIfAbsent(size, new ZobristKeys(size));
+			keys = KEYS.get(size);
+		}
+		return keys;
+	}
+
+	private ZobristKeys(int size) {
+		Random random = new Random(0x5DEECE66DL ^ size);
+		this.keys = new long[6 * size * size * COLOR_COUNT];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = random.nextLong();
+		}
+	}
+
+	long get(int facelet, Facelet color) {
+		return keys[facelet * COLOR_COUNT + color.ordinal()];
+	}
+}
@@ -27,19 +27,19 @@ public class Main {
 		asciiFormat.show();
 		
 		LOGGER.info("Rotating face 1 of Rubik's Cube one time on Z axis");
-		r.move(new DefinedMove(Move.ROLL, 1));
+		r.move(DefinedMove.of(Move.ROLL, 1));
 		asciiFormat.show();
 
 		LOGGER.info("Rotating face 1 of Rubik's Cube one time on X axis");
-		r.move(new DefinedMove(Move.PITCH, 1));
+		r.move(DefinedMove.of(Move.PITCH, 1));
 		asciiFormat.show();
 
 		LOGGER.info("Rotating face 2 of Rubik's Cube one time on Y axis");
-		r.move(new DefinedMove(Move.YAW,2));
+		r.move(DefinedMove.of(Move.YAW,2));
 		asciiFormat.show();
 		
 		LOGGER.info("Rotating face 3 of Rubik's Cube one time on Z axis");
-		r.move(new DefinedMove(Move.ROLL,3));
+		r.move(DefinedMove.of(Move.ROLL,3));
 		asciiFormat.show();
 	}
 
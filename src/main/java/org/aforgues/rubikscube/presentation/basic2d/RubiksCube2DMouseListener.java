@@ -59,13 +59,13 @@ final class RubiksCube2DMouseListener implements MouseListener {
 				if (horizontalDelta >= MOVE_SIZE) {
 					if (LOGGER.isDebugEnabled())
 						LOGGER.debug("### Horizontal move from left to right detected !");
-					return new DefinedMove(Move.UNYAW);
+					return DefinedMove.of(Move.UNYAW);
 				}
 				// Mouvement explicite de droite à gauche
 				else if (horizontalDelta <= - MOVE_SIZE) {
 					if (LOGGER.isDebugEnabled())
 						LOGGER.debug("### Horizontal move from right to left detected !");
-					return new DefinedMove(Move.YAW);
+					return DefinedMove.of(Move.YAW);
 				}
 			}
 		}
@@ -81,13 +81,13 @@ final class RubiksCube2DMouseListener implements MouseListener {
 				if (verticalDelta >= MOVE_SIZE) {
 					if (LOGGER.isDebugEnabled())
 						LOGGER.debug("### Vertical move from up to down detected !");
-					return new DefinedMove(Move.UNPITCH);
+					return DefinedMove.of(Move.UNPITCH);
 				}
 				// Mouvement explicite de bas en haut
 				else if (verticalDelta <= - MOVE_SIZE) {
 					if (LOGGER.isDebugEnabled())
 						LOGGER.debug("### Vertical move from down to up detected !");
-					return new DefinedMove(Move.PITCH);
+					return DefinedMove.of(Move.PITCH);
 				}
 			}
 		}
@@ -107,12 +107,12 @@ final class RubiksCube2DMouseListener implements MouseListener {
 							if (verticalDelta >= MOVE_SIZE) {
 								if (LOGGER.isDebugEnabled())
 									LOGGER.debug("### Anti hour circular move detected !");
-								return new DefinedMove(Move.UNROLL);
+								return DefinedMove.of(Move.UNROLL);
 							}
 							else if (verticalDelta <= - MOVE_SIZE) {
 								if (LOGGER.isDebugEnabled())
 									LOGGER.debug("### Hour circular move detected !");
-								return new DefinedMove(Move.ROLL);
+								return DefinedMove.of(Move.ROLL);
 							} 
 							break;
 							
@@ -120,12 +120,12 @@ final class RubiksCube2DMouseListener implements MouseListener {
 							if (verticalDelta >= MOVE_SIZE) {
 								if (LOGGER.isDebugEnabled())
 									LOGGER.debug("### Hour circular move detected !");
-								return new DefinedMove(Move.ROLL);
+								return DefinedMove.of(Move.ROLL);
 							}
 							else if (verticalDelta <= - MOVE_SIZE) {
 								if (LOGGER.isDebugEnabled())
 									LOGGER.debug("### Anti hour circular move detected !");
-								return new DefinedMove(Move.UNROLL);
+								return DefinedMove.of(Move.UNROLL);
 							} 
 							break;
 							
@@ -133,12 +133,12 @@ final class RubiksCube2DMouseListener implements MouseListener {
 							if (horizontalDelta >= MOVE_SIZE) {
 								if (LOGGER.isDebugEnabled())
 									LOGGER.debug("### Hour circular move detected !");
-								return new DefinedMove(Move.ROLL);
+								return DefinedMove.of(Move.ROLL);
 							}
 							else if (horizontalDelta <= - MOVE_SIZE) {
 								if (LOGGER.isDebugEnabled())
 									LOGGER.debug("### Anti hour circular move detected !");
-								return new DefinedMove(Move.UNROLL);
+								return DefinedMove.of(Move.UNROLL);
 							} 
 							break;
 							
@@ -146,12 +146,12 @@ final class RubiksCube2DMouseListener implements MouseListener {
 							if (horizontalDelta >= MOVE_SIZE) {
 								if (LOGGER.isDebugEnabled())
 									LOGGER.debug("### Anti hour circular move detected !");
-								return new DefinedMove(Move.UNROLL);
+								return DefinedMove.of(Move.UNROLL);
 							}
 							else if (horizontalDelta <= - MOVE_SIZE) {
 								if (LOGGER.isDebugEnabled())
 									LOGGER.debug("### Hour circular move detected !");
-								return new DefinedMove(Move.ROLL);
+								return DefinedMove.of(Move.ROLL);
 							} 
 							break;
 					
@@ -167,7 +167,7 @@ final class RubiksCube2DMouseListener implements MouseListener {
 							|| matchStartAndEndFaces(Face.BOTTOM, Face.LEFT)) {
 						if (LOGGER.isDebugEnabled())
 							LOGGER.debug("### Hour circular move detected !");
-						return new DefinedMove(Move.ROLL);
+						return DefinedMove.of(Move.ROLL);
 					}
 					else if (matchStartAndEndFaces(Face.LEFT, Face.BOTTOM)
 							|| matchStartAndEndFaces(Face.BOTTOM, Face.RIGHT)
@@ -175,7 +175,7 @@ final class RubiksCube2DMouseListener implements MouseListener {
 							|| matchStartAndEndFaces(Face.TOP, Face.LEFT)) {
 						if (LOGGER.isDebugEnabled())
 							LOGGER.debug("### Anti hour circular move detected !");
-						return new DefinedMove(Move.UNROLL);
+						return DefinedMove.of(Move.UNROLL);
 					}
 				}
 			}
@@ -365,7 +365,8 @@ final class RubiksCube2DMouseListener implements MouseListener {
 		Face endFace     = this.applet.getReleasedFaceIdentified();
 		Point endPoint   = this.applet.getPointOnReleasedFaceIdentified();
 		
-		DefinedMove definedMove = new DefinedMove();
+		Move sliceMove = null;
+		int faceIndex = 0;
 		
 		// On doit d'abord voir si les points sont cohérents :
 		// Sur une des faces horizontales
@@ -386,14 +387,14 @@ final class RubiksCube2DMouseListener implements MouseListener {
 				double move = endPoint.getX() + endPointOffset - startPoint.getX() - startPointOffset;
 				
 				if (move > 0) {
-					definedMove.setMove(Move.UNYAW);
+					sliceMove = Move.UNYAW;
 				}
 				else if (move < 0) {
-					definedMove.setMove(Move.YAW);
+					sliceMove = Move.YAW;
 				}
 				
 				if (move != 0) {
-					definedMove.setFaceIndex(size - Double.valueOf(startPoint.getY()).intValue());
+					faceIndex = size - Double.valueOf(startPoint.getY()).intValue();
 				}
 			}
 		}
@@ -419,14 +420,14 @@ final class RubiksCube2DMouseListener implements MouseListener {
 				double move = endPoint.getY() + endPointOffset - startPoint.getY() - startPointOffset;
 				
 				if (move > 0) {
-					definedMove.setMove(Move.UNPITCH);
+					sliceMove = Move.UNPITCH;
 				}
 				else if (move < 0) {
-					definedMove.setMove(Move.PITCH);
+					sliceMove = Move.PITCH;
 				}
 				
 				if (move != 0) {
-					definedMove.setFaceIndex(Double.valueOf(startPoint.getX()).intValue() + 1);
+					faceIndex = Double.valueOf(startPoint.getX()).intValue() + 1;
 				}
 			}
 		}
@@ -440,38 +441,38 @@ final class RubiksCube2DMouseListener implements MouseListener {
 				
 					if (startFace.isAnHorizontalLateralFace() && startPoint.getX() == endPoint.getX()) {
 						if (startFace == Face.LEFT) {
-							definedMove.setFaceIndex(Double.valueOf(startPoint.getX()).intValue() + 1);
+							faceIndex = Double.valueOf(startPoint.getX()).intValue() + 1;
 
 							if (endPoint.getY() < startPoint.getY()) 
-								definedMove.setMove(Move.ROLL);
+								sliceMove = Move.ROLL;
 							else if (endPoint.getY() > startPoint.getY())
-								definedMove.setMove(Move.UNROLL);
+								sliceMove = Move.UNROLL;
 						}
 						else if (startFace == Face.RIGHT) {
-							definedMove.setFaceIndex(size - Double.valueOf(startPoint.getX()).intValue());
+							faceIndex = size - Double.valueOf(startPoint.getX()).intValue();
 							
 							if (endPoint.getY() > startPoint.getY())
-								definedMove.setMove(Move.ROLL);
+								sliceMove = Move.ROLL;
 							else if (endPoint.getY() < startPoint.getY())
-								definedMove.setMove(Move.UNROLL);
+								sliceMove = Move.UNROLL;
 						}
 					}
 					else if (startFace.isAVerticalLateralFace() && startPoint.getY() == endPoint.getY()) {
 						if (startFace == Face.TOP) {
-							definedMove.setFaceIndex(Double.valueOf(startPoint.getY()).intValue() + 1);
+							faceIndex = Double.valueOf(startPoint.getY()).intValue() + 1;
 							
 							if (endPoint.getX() > startPoint.getX())
-								definedMove.setMove(Move.ROLL);
+								sliceMove = Move.ROLL;
 							else if (endPoint.getX() < startPoint.getX())
-								definedMove.setMove(Move.UNROLL);
+								sliceMove = Move.UNROLL;
 						}
 						else if (startFace == Face.BOTTOM) {
-							definedMove.setFaceIndex(size - Double.valueOf(startPoint.getY()).intValue());
+							faceIndex = size - Double.valueOf(startPoint.getY()).intValue();
 							
 							if (endPoint.getX() < startPoint.getX())
-								definedMove.setMove(Move.ROLL);
+								sliceMove = Move.ROLL;
 							else if (endPoint.getX() > startPoint.getX())
-								definedMove.setMove(Move.UNROLL);
+								sliceMove = Move.UNROLL;
 						}
 					}	
 				}
@@ -481,41 +482,41 @@ final class RubiksCube2DMouseListener implements MouseListener {
 						LOGGER.debug("### Circular face move from a specific face to a different one");
 					
 					if (matchStartAndEndFaces(Face.TOP, Face.RIGHT) && startPoint.getY() == (size - endPoint.getX() - 1)) {
-						definedMove.setFaceIndex(Double.valueOf(startPoint.getY()).intValue() + 1);
-						definedMove.setMove(Move.ROLL);
+						faceIndex = Double.valueOf(startPoint.getY()).intValue() + 1;
+						sliceMove = Move.ROLL;
 					}
 					else if (matchStartAndEndFaces(Face.RIGHT, Face.BOTTOM) && startPoint.getX() == endPoint.getY()) {
-						definedMove.setFaceIndex(Double.valueOf(size - startPoint.getX()).intValue());
-						definedMove.setMove(Move.ROLL);	
+						faceIndex = Double.valueOf(size - startPoint.getX()).intValue();
+						sliceMove = Move.ROLL;	
 					}
 					else if (matchStartAndEndFaces(Face.BOTTOM, Face.LEFT) && startPoint.getY() == (size - endPoint.getX() - 1)) {
-						definedMove.setFaceIndex(Double.valueOf(size - startPoint.getY()).intValue());
-						definedMove.setMove(Move.ROLL);	
+						faceIndex = Double.valueOf(size - startPoint.getY()).intValue();
+						sliceMove = Move.ROLL;	
 					}
 					else if (matchStartAndEndFaces(Face.LEFT, Face.TOP) && startPoint.getX() == endPoint.getY()) {
-						definedMove.setFaceIndex(Double.valueOf(startPoint.getX()).intValue() + 1);
-						definedMove.setMove(Move.ROLL);	
+						faceIndex = Double.valueOf(startPoint.getX()).intValue() + 1;
+						sliceMove = Move.ROLL;	
 					}
 					else if (matchStartAndEndFaces(Face.TOP, Face.LEFT) && startPoint.getY() == endPoint.getX()) {
-						definedMove.setFaceIndex(Double.valueOf(startPoint.getY()).intValue() + 1);
-						definedMove.setMove(Move.UNROLL);	
+						faceIndex = Double.valueOf(startPoint.getY()).intValue() + 1;
+						sliceMove = Move.UNROLL;	
 					}
 					else if (matchStartAndEndFaces(Face.LEFT, Face.BOTTOM) && startPoint.getX() == (size - endPoint.getY() - 1)) {
-						definedMove.setFaceIndex(Double.valueOf(startPoint.getX()).intValue() + 1);
-						definedMove.setMove(Move.UNROLL);	
+						faceIndex = Double.valueOf(startPoint.getX()).intValue() + 1;
+						sliceMove = Move.UNROLL;	
 					}
 					else if (matchStartAndEndFaces(Face.BOTTOM, Face.RIGHT) && startPoint.getY() == endPoint.getX()) {
-						definedMove.setFaceIndex(Double.valueOf(size - startPoint.getY()).intValue());
-						definedMove.setMove(Move.UNROLL);	
+						faceIndex = Double.valueOf(size - startPoint.getY()).intValue();
+						sliceMove = Move.UNROLL;	
 					}
 					else if (matchStartAndEndFaces(Face.RIGHT, Face.TOP) && startPoint.getX() == (size - endPoint.getY() - 1)) {
-						definedMove.setFaceIndex(Double.valueOf(size - startPoint.getX()).intValue());
-						definedMove.setMove(Move.UNROLL);	
+						faceIndex = Double.valueOf(size - startPoint.getX()).intValue();
+						sliceMove = Move.UNROLL;	
 					}
 				}
 			}
 		}
 		
-		return definedMove;
+		return sliceMove == null ? null : DefinedMove.of(sliceMove, faceIndex);
 	}
 }
\ No newline at end of file
@@ -60,7 +60,7 @@ public class RotationHandler {
     }
 
     public RotationHandler(Node rubiksCubeNode, RubiksCube rubiksCube, int index, Move rotation) {
-        this.move = new DefinedMove(rotation, index);
+        this.move = DefinedMove.of(rotation, index);
 
         computeRotationNodes(rubiksCubeNode, rubiksCube, index, rotation);
     }
@@ -0,0 +1,99 @@
+package org.aforgues.rubikscube.ai;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.aforgues.rubikscube.core.PackedRubiksCube;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchSolverTest {
+
+    private static final int NB_STATE = 40;
+    private static final int NB_WORKER = 3;
+    private static final int NB_SHUFFLE_MOVE = 20;
+    private static final int MAX_FIRST_SOLUTION_LENGTH = 24;
+    private static final int SMALL_QUEUE_CAPACITY = 4;
+    private static final long ABORT_TIMEOUT_SECONDS = 30;
+
+    @Test
+    public void test_batch_states_are_all_solved_once() throws Exception {
+        // Given a few dozen randomised RubiksCubes
+        List<PackedRubiksCube> states = new ArrayList<PackedRubiksCube>();
+        for (int i = 0; i < NB_STATE; i++) {
+            PackedRubiksCube state = new PackedRubiksCube(3);
+            state.shuffle(NB_SHUFFLE_MOVE);
+            states.add(state);
+        }
+
+        // When they are solved by several workers
+        ConcurrentLinkedQueue<BatchSolver.Solution> solutions = new ConcurrentLinkedQueue<BatchSolver.Solution>();
+        BatchSolver.Statistics statistics = new BatchSolver(NB_WORKER).solve(states.iterator(), solutions::add);
+
+        // Then every state is solved exactly once, by the first solution found
+        Assert.assertEquals(NB_STATE, statistics.getCount());
+        Assert.assertEquals(0, statistics.getFailures());
+        Assert.assertEquals(NB_STATE, solutions.size());
+
+        boolean[] seen = new boolean[NB_STATE];
+        for (BatchSolver.Solution solution : solutions) {
+            int index = (int) solution.getIndex();
+            Assert.assertFalse("State " + index + " solved twice", seen[index]);
+            seen[index] = true;
+
+            Assert.assertTrue(solution.isSolved());
+            Assert.assertSame(states.get(index), solution.getState());
+            Assert.assertTrue(solution.getMoves().size() <= MAX_FIRST_SOLUTION_LENGTH);
+            PackedRubiksCube state = solution.getState().snapshot();
+            state.move(solution.getMoves());
+            Assert.assertTrue("State " + index + " not solved", state.isSolved());
+        }
+    }
+
+    @Test
+    public void test_consumer_failure_aborts_the_batch() throws Exception {
+        // Given an endless stream of randomised RubiksCubes
+        Iterator<PackedRubiksCube> states = new Iterator<PackedRubiksCube>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public PackedRubiksCube next() {
+                PackedRubiksCube state = new PackedRubiksCube(3);
+                state.shuffle(NB_SHUFFLE_MOVE);
+                return state;
+            }
+        };
+        final IllegalStateException consumerFailure = new IllegalStateException("consumer failure");
+        BatchSolver batchSolver = new BatchSolver(2, TwoPhaseSolver.DEFAULT_MAX_LENGTH, TwoPhaseSolver.DEFAULT_TIMEOUT_MILLIS, SMALL_QUEUE_CAPACITY);
+
+        // When the consumer of the solutions fails
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<BatchSolver.Statistics> batch = executor.submit(() -> batchSolver.solve(states, solution -> {
+                throw consumerFailure;
+            }));
+
+            // Then the batch stops reading states and rethrows the failure
+            try {
+                batch.get(ABORT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                Assert.fail("The consumer failure should abort the batch");
+            }
+            catch (ExecutionException e) {
+                Assert.assertSame(consumerFailure, e.getCause());
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
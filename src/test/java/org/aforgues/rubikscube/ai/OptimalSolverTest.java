@@ -0,0 +1,98 @@
+package org.aforgues.rubikscube.ai;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.aforgues.rubikscube.core.DefinedMove;
+import org.aforgues.rubikscube.core.Move;
+import org.aforgues.rubikscube.core.RubiksCube;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Opt-in (-Drubikscube.optimal.tests=true) : the pattern databases take about 40 s to generate on the first run
+ */
+public class OptimalSolverTest {
+
+    private static final String OPT_IN_PROPERTY = "rubikscube.optimal.tests";
+
+    /**
+     * Generated on the first run (about 90 MB), then reused by the next ones
+     */
+    private static final File PATTERN_DATABASES_FILE = new File(System.getProperty("java.io.tmpdir"), "rubikscube-pattern-databases.bin");
+
+    private static final int NB_PARALLEL_THREAD = 2;
+    private static final int NB_SHUFFLE_MOVE = 40;
+    private static final long TIME_BUDGET_MILLIS = 200;
+
+    private static OptimalSolver sequentialSolver;
+    private static OptimalSolver parallelSolver;
+
+    @BeforeClass
+    public static void loadPatternDatabases() throws Exception {
+        Assume.assumeTrue("Optimal solver tests are disabled (-D" + OPT_IN_PROPERTY + "=true to run them)", Boolean.getBoolean(OPT_IN_PROPERTY));
+
+        sequentialSolver = new OptimalSolver(PATTERN_DATABASES_FILE);
+        // Every iteration goes through the ForkJoinPool
+        parallelSolver = new OptimalSolver(PATTERN_DATABASES_FILE, new ForkJoinPool(NB_PARALLEL_THREAD), 0);
+    }
+
+    @Test
+    public void test_short_scramble_is_solved_optimally() {
+        // Given the "pons asinorum" checkerboard : R2 L2 U2 D2 F2 B2, whose optimal solution has 6 moves
+        RubiksCube rc = new RubiksCube(3);
+        rc.move(DefinedMove.of(Move.DOUBLE_PITCH, 3));
+        rc.move(DefinedMove.of(Move.DOUBLE_PITCH, 1));
+        rc.move(DefinedMove.of(Move.DOUBLE_YAW, 3));
+        rc.move(DefinedMove.of(Move.DOUBLE_YAW, 1));
+        rc.move(DefinedMove.of(Move.DOUBLE_ROLL, 3));
+        rc.move(DefinedMove.of(Move.DOUBLE_ROLL, 1));
+
+        // When I solve it with the sequential search
+        List<DefinedMove> path = sequentialSolver.solve(rc);
+
+        // Then the solution is optimal and solves it
+        assertOptimalSolution(rc, path, 6);
+    }
+
+    @Test
+    public void test_parallel_search_stops_at_optimal_solution() {
+        // Given the "six spot" pattern : U D' R L' F B' U D', whose optimal solution has 8 moves
+        RubiksCube rc = new RubiksCube(3);
+        for (Move move : new Move[] { Move.YAW, Move.PITCH, Move.ROLL, Move.YAW }) {
+            rc.move(DefinedMove.of(move, 3));
+            rc.move(DefinedMove.of(move, 1));
+        }
+
+        // When I solve it with the parallel search
+        List<DefinedMove> path = parallelSolver.solve(rc);
+
+        // Then the solution is optimal and solves it
+        assertOptimalSolution(rc, path, 8);
+    }
+
+    @Test
+    public void test_search_stops_when_time_budget_is_elapsed() {
+        // Given a randomised RubiksCube, whose optimal solution takes far longer than the time budget
+        RubiksCube rc = new RubiksCube(3);
+        rc.shuffle(NB_SHUFFLE_MOVE);
+
+        // When I solve it as a Solver with this time budget
+        long start = System.currentTimeMillis();
+        List<DefinedMove> path = parallelSolver.solve(rc, OptimalSolver.GODS_NUMBER, TIME_BUDGET_MILLIS, new CancellationToken());
+
+        // Then the search stops without solution soon after the time budget
+        Assert.assertNull(path);
+        Assert.assertTrue(System.currentTimeMillis() - start < 5 * TIME_BUDGET_MILLIS);
+    }
+
+    private static void assertOptimalSolution(RubiksCube rc, List<DefinedMove> path, int optimalLength) {
+        Assert.assertNotNull(path);
+        Assert.assertEquals(optimalLength, path.size());
+        rc.move(path);
+        Assert.assertTrue(rc.isSolved());
+    }
+}
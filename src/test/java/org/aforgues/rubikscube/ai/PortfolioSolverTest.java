@@ -0,0 +1,126 @@
+package org.aforgues.rubikscube.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.aforgues.rubikscube.core.DefinedMove;
+import org.aforgues.rubikscube.core.Move;
+import org.aforgues.rubikscube.core.RubiksCube;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PortfolioSolverTest {
+
+    private static final int TARGET_LENGTH = 20;
+    private static final int SHORT_LENGTH = 10;
+    private static final int LONG_LENGTH = 50;
+    private static final long SLOW_SOLVER_MILLIS = 200;
+
+    @Test
+    public void test_short_solution_wins_within_time_budget() {
+        // Given a slow solver with a short solution, a fast solver with a long one and a failing solver
+        StubSolver slowShort = new StubSolver(SLOW_SOLVER_MILLIS, SHORT_LENGTH, false);
+        StubSolver fastLong = new StubSolver(0, LONG_LENGTH, false);
+        StubSolver failing = new StubSolver(0, 0, true);
+        PortfolioSolver portfolio = new PortfolioSolver(Arrays.<Solver>asList(slowShort, fastLong, failing));
+
+        // When they race with a time budget long enough for the slow solver
+        List<DefinedMove> path = portfolio.solve(new RubiksCube(3), TARGET_LENGTH, 10 * SLOW_SOLVER_MILLIS, new CancellationToken());
+
+        // Then the short solution wins, despite the failure, and the race is cancelled for the other solvers
+        Assert.assertSame(slowShort.path, path);
+        Assert.assertTrue(slowShort.token.isCancelled());
+        Assert.assertTrue(fastLong.token.isCancelled());
+    }
+
+    @Test
+    public void test_best_solution_is_returned_when_time_budget_is_elapsed() {
+        // Given a short solution which comes too late, a fast long one and a failing solver
+        StubSolver slowShort = new StubSolver(10 * SLOW_SOLVER_MILLIS, SHORT_LENGTH, false);
+        StubSolver fastLong = new StubSolver(0, LONG_LENGTH, false);
+        StubSolver failing = new StubSolver(0, 0, true);
+        PortfolioSolver portfolio = new PortfolioSolver(Arrays.<Solver>asList(slowShort, fastLong, failing));
+
+        // When they race with a shorter time budget
+        long start = System.currentTimeMillis();
+        List<DefinedMove> path = portfolio.solve(new RubiksCube(3), TARGET_LENGTH, SLOW_SOLVER_MILLIS / 4, new CancellationToken());
+
+        // Then the long solution is returned once the time budget is elapsed, the slow solver being cancelled
+        Assert.assertSame(fastLong.path, path);
+        Assert.assertTrue(System.currentTimeMillis() - start < SLOW_SOLVER_MILLIS);
+        Assert.assertTrue(slowShort.token.isCancelled());
+    }
+
+    @Test
+    public void test_default_portfolio_races_distinct_engines() {
+        // Given the portfolio of the registered solvers
+        PortfolioSolver portfolio = new PortfolioSolver();
+
+        // When I look at the solvers racing on a 3x3 RubiksCube
+        List<Class<?>> racing = new ArrayList<Class<?>>();
+        for (Solver solver : portfolio.getSolvers()) {
+            if (solver.supports(3))
+                racing.add(solver.getClass());
+        }
+
+        // Then the beginner method, the two-phase and the optimal solvers race, without the composite anytime solver
+        Assert.assertEquals(Arrays.<Class<?>>asList(BeginnerMethodSolver.class, TwoPhaseSolver.class, OptimalSolver.class), racing);
+    }
+
+    /**
+     * Solver returning a given number of moves after a delay, or failing : it stops as soon as the race is cancelled
+     */
+    private static final class StubSolver implements Solver {
+        private final long delayMillis;
+        private final List<DefinedMove> path;
+        private final boolean failing;
+        private volatile CancellationToken token;
+
+        StubSolver(long delayMillis, int length, boolean failing) {
+            this.delayMillis = delayMillis;
+            this.path = Collections.nCopies(length, DefinedMove.of(Move.PITCH, 1));
+            this.failing = failing;
+        }
+
+        @Override
+        public String getName() {
+            return "stub";
+        }
+
+        @Override
+        public boolean supports(int size) {
+            return true;
+        }
+
+        @Override
+        public long getExpectedLatencyMillis(int size) {
+            return delayMillis;
+        }
+
+        @Override
+        public int getExpectedLength(int size) {
+            return path.size();
+        }
+
+        @Override
+        public List<DefinedMove> solve(RubiksCube rc, int targetLength, long timeBudgetMillis, CancellationToken token) {
+            this.token = token;
+            if (failing)
+                throw new IllegalStateException("Failing solver");
+
+            long deadline = System.currentTimeMillis() + delayMillis;
+            while (System.currentTimeMillis() < deadline) {
+                if (token.isCancelled())
+                    return null;
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return null;
+                }
+            }
+            return path;
+        }
+    }
+}
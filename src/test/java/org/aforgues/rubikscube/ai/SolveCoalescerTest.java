@@ -0,0 +1,120 @@
+package org.aforgues.rubikscube.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aforgues.rubikscube.core.DefinedMove;
+import org.aforgues.rubikscube.core.Move;
+import org.aforgues.rubikscube.core.RubiksCube;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SolveCoalescerTest {
+
+    private static final int NB_SIMULTANEOUS_SOLVE = 8;
+    private static final int NB_SHUFFLE_MOVE = 20;
+    private static final int MAX_SOLUTION_LENGTH = 30;
+    private static final long MAX_LATENCY_MILLIS = 1000;
+    private static final long MAX_WAIT_MILLIS = 5000;
+
+    @Test
+    public void test_simultaneous_solves_share_one_computation() throws Exception {
+        // Given copies of a randomised RubiksCube, half of them turned as a whole
+        RubiksCube rc = new RubiksCube(3);
+        rc.shuffle(NB_SHUFFLE_MOVE);
+        List<RubiksCube> cubes = new ArrayList<RubiksCube>();
+        for (int i = 0; i < NB_SIMULTANEOUS_SOLVE; i++) {
+            RubiksCube cube = rc.snapshot();
+            if (i % 2 == 1) {
+                cube.move(DefinedMove.of(Move.PITCH));
+                cube.move(DefinedMove.of(Move.UNROLL));
+            }
+            cubes.add(cube);
+        }
+        Solver solver = Solvers.select(3, MAX_SOLUTION_LENGTH, MAX_LATENCY_MILLIS);
+
+        // When they are solved simultaneously, the first computation waiting for all the other solves
+        SolveCoalescer coalescer = new SolveCoalescer();
+        AtomicInteger nbComputation = new AtomicInteger();
+        List<Callable<List<DefinedMove>>> solves = new ArrayList<Callable<List<DefinedMove>>>();
+        for (RubiksCube cube : cubes) {
+            solves.add(() -> coalescer.solve(SolutionCache.keyOf(cube), () -> {
+                nbComputation.incrementAndGet();
+                awaitCoalescedCount(coalescer, NB_SIMULTANEOUS_SOLVE - 1);
+                return solver.solve(cube, MAX_SOLUTION_LENGTH, MAX_LATENCY_MILLIS, new CancellationToken());
+            }));
+        }
+        List<List<DefinedMove>> paths = invokeAll(solves);
+
+        // Then a single computation solves every cube
+        Assert.assertEquals(1, nbComputation.get());
+        Assert.assertEquals(NB_SIMULTANEOUS_SOLVE - 1, coalescer.getCoalescedCount());
+        Assert.assertEquals(0, coalescer.getInFlightCount());
+        for (int i = 0; i < NB_SIMULTANEOUS_SOLVE; i++) {
+            Assert.assertNotNull(paths.get(i));
+            cubes.get(i).move(paths.get(i));
+            Assert.assertTrue("Cube " + i + " not solved", cubes.get(i).isSolved());
+        }
+    }
+
+    @Test
+    public void test_waiting_solve_computes_its_own_solution_when_first_one_finds_none() throws Exception {
+        // Given two simultaneous solves of the same position, the first computation finding no solution
+        RubiksCube rc = new RubiksCube(3);
+        rc.shuffle(NB_SHUFFLE_MOVE);
+        SolutionCache.Key key = SolutionCache.keyOf(rc);
+        SolveCoalescer coalescer = new SolveCoalescer();
+        AtomicInteger nbComputation = new AtomicInteger();
+        List<DefinedMove> ownSolution = Collections.singletonList(DefinedMove.of(Move.PITCH, 1));
+
+        // When they run
+        List<Callable<List<DefinedMove>>> solves = new ArrayList<Callable<List<DefinedMove>>>();
+        for (int i = 0; i < 2; i++) {
+            solves.add(() -> coalescer.solve(key, () -> {
+                if (nbComputation.incrementAndGet() > 1)
+                    return ownSolution;
+                awaitCoalescedCount(coalescer, 1);
+                return null;
+            }));
+        }
+        List<List<DefinedMove>> paths = invokeAll(solves);
+
+        // Then the waiting solve runs its own computation
+        Assert.assertEquals(2, nbComputation.get());
+        Assert.assertEquals(1, coalescer.getCoalescedCount());
+        Assert.assertEquals(0, coalescer.getInFlightCount());
+        Assert.assertTrue(paths.contains(null));
+        Assert.assertTrue(paths.contains(ownSolution));
+    }
+
+    private static List<List<DefinedMove>> invokeAll(List<Callable<List<DefinedMove>>> solves) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(solves.size());
+        try {
+            List<List<DefinedMove>> paths = new ArrayList<List<DefinedMove>>();
+            for (Future<List<DefinedMove>> future : executor.invokeAll(solves)) {
+                paths.add(future.get());
+            }
+            return paths;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitCoalescedCount(SolveCoalescer coalescer, long count) {
+        long deadline = System.currentTimeMillis() + MAX_WAIT_MILLIS;
+        while (coalescer.getCoalescedCount() < count && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
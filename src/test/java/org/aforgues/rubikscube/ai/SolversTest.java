@@ -0,0 +1,39 @@
+package org.aforgues.rubikscube.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SolversTest {
+
+    @Test
+    public void test_every_engine_is_registered() {
+        // Given the solvers registered as services
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+        for (Solver solver : Solvers.getSolvers()) {
+            classes.add(solver.getClass());
+        }
+
+        // Then each engine is registered on its own, next to the anytime composite
+        Assert.assertTrue(classes.contains(BeginnerMethodSolver.class));
+        Assert.assertTrue(classes.contains(PocketCubeSolver.class));
+        Assert.assertTrue(classes.contains(TwoPhaseSolver.class));
+        Assert.assertTrue(classes.contains(ReductionSolver.class));
+        Assert.assertTrue(classes.contains(OptimalSolver.class));
+        Assert.assertTrue(classes.contains(AnytimeSolver.class));
+    }
+
+    @Test
+    public void test_solver_is_selected_by_size_and_constraints() {
+        // Given the registered solvers
+        // When they are selected for each size and constraint
+        // Then the dedicated engine is chosen
+        Assert.assertEquals(PocketCubeSolver.class, Solvers.select(2, 11, 1000).getClass());
+        Assert.assertEquals(TwoPhaseSolver.class, Solvers.select(3, 30, 1000).getClass());
+        Assert.assertEquals(BeginnerMethodSolver.class, Solvers.select(3, 200, 5).getClass());
+        Assert.assertEquals(OptimalSolver.class, Solvers.select(3, 20, 120000).getClass());
+        Assert.assertEquals(ReductionSolver.class, Solvers.select(5, 1000, 1000).getClass());
+    }
+}
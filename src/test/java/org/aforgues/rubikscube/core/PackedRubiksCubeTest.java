@@ -0,0 +1,50 @@
+package org.aforgues.rubikscube.core;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PackedRubiksCubeTest {
+
+    private static final int NB_RANDOM_MOVE = 200;
+
+    @Test
+    public void test_moves_match_rubikscube() {
+        for (int size = 2; size <= 5; size++) {
+            // Given a RubiksCube and a PackedRubiksCube of the same size
+            RubiksCube rc = new RubiksCube(size);
+            PackedRubiksCube packed = new PackedRubiksCube(size);
+            Random random = new Random(size);
+
+            for (int i = 0; i < NB_RANDOM_MOVE; i++) {
+                // When I apply the same move to both of them
+                Move move = Move.values()[random.nextInt(Move.values().length)];
+                int faceIndex = random.nextInt(size + 1);
+                DefinedMove definedMove = faceIndex == 0 ? DefinedMove.of(move) : DefinedMove.of(move, faceIndex);
+                rc.move(definedMove);
+                packed.move(definedMove);
+
+                // Then they stay in the same configuration
+                Assert.assertEquals("Size " + size + " after " + definedMove, new PackedRubiksCube(rc), packed);
+                Assert.assertEquals(rc.isSolved(), packed.isSolved());
+            }
+        }
+    }
+
+    @Test
+    public void test_inverse_moves_solve_packed_rubikscube() {
+        // Given a solved PackedRubiksCube
+        PackedRubiksCube packed = new PackedRubiksCube(4);
+
+        // When I move it and then apply the inverse moves
+        packed.move(DefinedMove.of(Move.PITCH, 2));
+        packed.move(DefinedMove.of(Move.DOUBLE_ROLL, 4));
+        Assert.assertFalse(packed.isSolved());
+        packed.move(DefinedMove.of(Move.DOUBLE_ROLL, 4));
+        packed.move(DefinedMove.of(Move.UNPITCH, 2));
+
+        // Then it is solved again
+        Assert.assertTrue(packed.isSolved());
+    }
+}
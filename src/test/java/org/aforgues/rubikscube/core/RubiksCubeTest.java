@@ -1,8 +1,19 @@
 package org.aforgues.rubikscube.core;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.aforgues.rubikscube.ai.CancellationToken;
+import org.aforgues.rubikscube.ai.MoveOptimizer;
+import org.aforgues.rubikscube.ai.PeepholeOptimizer;
+import org.aforgues.rubikscube.ai.SolutionCache;
+import org.aforgues.rubikscube.ai.SolvingStrategy;
 import org.aforgues.rubikscube.presentation.ascii.RubiksCubeAsciiFormat;
 import org.junit.After;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -14,6 +25,12 @@ public class RubiksCubeTest {
 
     private static final int RUBIKS_CUBE_SIZE = 3;
     private static final int NB_SHUFFLE_MOVE = 20;
+    private static final int NB_ALLOCATION_MOVE = 100000;
+    private static final long TIME_BUDGET_MILLIS = 200;
+    private static final int MAX_SOLUTION_LENGTH = 30;
+    private static final long MAX_LATENCY_MILLIS = 1000;
+    private static final int NB_CACHED_SOLUTION = 10;
+    private static final int NB_OPTIMIZED_MOVE = 1000;
 
     private RubiksCube rc;
 
@@ -43,11 +60,580 @@ public class RubiksCubeTest {
         Assert.assertTrue(rc.isSolved());
     }
 
+    @Test
+    public void test_solve_rubikscube_with_beginner_method() {
+        // Given a randomised RubiksCube
+        rc.shuffle(NB_SHUFFLE_MOVE);
+
+        // When I run the AI with the seven step beginner method
+        rc.solve(false, SolvingStrategy.BEGINNER_METHOD);
+
+        // Then
+        boolean next = true;
+        while(next) {
+            next = rc.moveToNextPosition();
+        }
+
+        Assert.assertTrue(rc.isSolved());
+    }
+
+    @Test
+    public void test_beginner_method_path_is_played_as_in_3d_game() {
+        // Given a randomised RubiksCube solved with the beginner method (which turns the whole cube between its steps)
+        rc.shuffle(NB_SHUFFLE_MOVE);
+        rc.solve(false, SolvingStrategy.BEGINNER_METHOD);
+
+        // When its path is played as the 3D game does : the cubies of the slice are animated, then the move is applied
+        int nbMove = 0;
+        DefinedMove move;
+        while ((move = rc.simulateNextPosition()) != null) {
+            List<Cubie> animatedCubies = rc.getCubies(move.getFaceIndex(), move.getMove().getAxis());
+            Assert.assertFalse("No cubie to animate for move " + move, animatedCubies.isEmpty());
+            rc.move(DefinedMove.of(move.getMove(), move.getFaceIndex()));
+            nbMove++;
+        }
+
+        // Then every move was animated, and the RubiksCube is solved
+        Assert.assertTrue(nbMove > 0);
+        Assert.assertTrue(rc.isSolved());
+    }
+
+    @Test
+    public void test_streamed_path_is_played_while_computed() {
+        // Given a randomised RubiksCube whose solving path is computed in background
+        rc.shuffle(NB_SHUFFLE_MOVE);
+        rc.solve(false);
+
+        // When its moves are played as soon as they are published
+        int nbMove = 0;
+        while (rc.moveToNextPosition()) {
+            nbMove++;
+        }
+
+        // Then the whole path is played, and the RubiksCube is solved
+        Assert.assertTrue(nbMove > 0);
+        Assert.assertTrue(rc.isSolved());
+    }
+
+    @Test
+    public void test_reset_during_computation_is_handled_quietly() throws InterruptedException {
+        // Given a randomised big RubiksCube whose first moves are published while the next ones are computed
+        rc = new RubiksCube(5);
+        rc.shuffle(NB_SHUFFLE_MOVE * 5);
+        List<Throwable> uncaughtErrors = new ArrayList<Throwable>();
+        Thread.UncaughtExceptionHandler defaultHandler = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> uncaughtErrors.add(e));
+        try {
+            rc.solve(false);
+            DefinedMove firstMove = rc.simulateNextPosition();
+            Assert.assertNotNull(firstMove);
+
+            // When the solving path is reset in the middle of the computation
+            RubiksCube beforeReset = rc.snapshot();
+            rc.resetSolvingPath();
+            joinComputations();
+
+            // Then the computation stops without error, and leaves the RubiksCube unchanged
+            Assert.assertTrue(uncaughtErrors.isEmpty());
+            Assert.assertEquals(beforeReset, rc);
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(defaultHandler);
+        }
+
+        // And a new solving path can be computed and played
+        boolean next = true;
+        while(next) {
+            next = rc.moveToNextPosition();
+        }
+        Assert.assertTrue(rc.isSolved());
+    }
+
+    @Test
+    public void test_interrupted_wait_for_next_move_keeps_interrupt_status() {
+        // Given a randomised RubiksCube whose solving path is computed in background
+        rc.shuffle(NB_SHUFFLE_MOVE);
+        rc.solve(false);
+
+        // When the thread waiting for the next move is interrupted
+        Thread.currentThread().interrupt();
+        DefinedMove move = rc.simulateNextPosition();
+
+        // Then no move is returned, and the thread is still interrupted
+        Assert.assertNull(move);
+        Assert.assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    public void test_solve_rubikscube_within_time_budget() {
+        // Given a randomised RubiksCube and an already cancelled computation
+        rc.shuffle(NB_SHUFFLE_MOVE);
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        // When I run the AI with a time budget
+        List<DefinedMove> path = rc.solve(TIME_BUDGET_MILLIS, token);
+
+        // Then the first solution found (beginner method) is returned and played
+        Assert.assertNotNull(path);
+        int nbMove = 0;
+        while(rc.moveToNextPosition()) {
+            nbMove++;
+        }
+
+        Assert.assertTrue(rc.isSolved());
+        Assert.assertEquals(path.size(), nbMove);
+    }
+
+    @Test
+    public void test_solve_rubikscube_with_selected_solver() {
+        // Given a randomised RubiksCube
+        rc.shuffle(NB_SHUFFLE_MOVE);
+
+        // When I run the fastest solver giving short solutions
+        List<DefinedMove> path = rc.solve(MAX_SOLUTION_LENGTH, MAX_LATENCY_MILLIS, new CancellationToken());
+
+        // Then a short enough solution is returned and played
+        Assert.assertNotNull(path);
+        Assert.assertTrue(path.size() <= MAX_SOLUTION_LENGTH);
+        boolean next = true;
+        while(next) {
+            next = rc.moveToNextPosition();
+        }
+
+        Assert.assertTrue(rc.isSolved());
+    }
+
+    @Test
+    public void test_solve_pocket_cube() {
+        // Given a randomised 2x2 RubiksCube
+        rc = new RubiksCube(2);
+        rc.shuffle(NB_SHUFFLE_MOVE);
+
+        // When I run the AI to solve it
+        rc.solve(false);
+
+        // Then it is solved in at most 11 moves (optimal solution)
+        int nbMove = 0;
+        while(rc.moveToNextPosition()) {
+            nbMove++;
+        }
+
+        Assert.assertTrue(rc.isSolved());
+        Assert.assertTrue(nbMove <= 11);
+    }
+
+    @Test
+    public void test_solve_big_rubikscube() {
+        // Given randomised 4x4 and 5x5 RubiksCube (even and odd sizes have different parities)
+        for (int size = 4; size <= 5; size++) {
+            rc = new RubiksCube(size);
+            rc.shuffle(NB_SHUFFLE_MOVE * size);
+
+            // When I run the AI to solve it
+            rc.solve(false);
+
+            // Then
+            boolean next = true;
+            while(next) {
+                next = rc.moveToNextPosition();
+            }
+
+            Assert.assertTrue(rc.isSolved());
+        }
+    }
+
+    @Test
+    public void test_solution_cache_serves_rotated_positions() {
+        // Given a cached solution of a randomised RubiksCube
+        SolutionCache cache = new SolutionCache(NB_CACHED_SOLUTION);
+        rc.shuffle(NB_SHUFFLE_MOVE);
+        List<DefinedMove> solution = rc.solve(MAX_SOLUTION_LENGTH, MAX_LATENCY_MILLIS, new CancellationToken());
+        Assert.assertNotNull(solution);
+        cache.put(SolutionCache.keyOf(rc), solution);
+        RubiksCube rotated = rc.snapshot();
+
+        // And a missing solution, which is not cached
+        RubiksCube other = new RubiksCube(RUBIKS_CUBE_SIZE);
+        other.shuffle(NB_SHUFFLE_MOVE);
+        cache.put(SolutionCache.keyOf(other), null);
+        Assert.assertEquals(1, cache.size());
+
+        // When the same position is looked up after a whole cube rotation
+        rotated.move(DefinedMove.of(Move.PITCH));
+        rotated.move(DefinedMove.of(Move.UNROLL));
+        List<DefinedMove> path = cache.get(SolutionCache.keyOf(rotated));
+
+        // Then the cached solution solves it
+        Assert.assertNotNull(path);
+        rotated.move(path);
+        Assert.assertTrue(rotated.isSolved());
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void test_optimized_path_reaches_same_state() {
+        // Given a random path where moves around the same axis often follow each other (slices and whole cube)
+        Random random = new Random(42);
+        Move[] allMoves = Move.values();
+        List<DefinedMove> path = new ArrayList<DefinedMove>();
+        Move move = allMoves[0];
+        for (int i = 0; i < NB_OPTIMIZED_MOVE; i++) {
+            if (random.nextInt(4) == 0)
+                move = allMoves[random.nextInt(allMoves.length)];
+            else
+                move = Move.valueOf(move.getAxis(), 1 + random.nextInt(3));
+            int faceIndex = random.nextInt(RUBIKS_CUBE_SIZE + 1);
+            path.add(faceIndex == 0 ? DefinedMove.of(move) : DefinedMove.of(move, faceIndex));
+        }
+
+        // When I optimize it
+        List<DefinedMove> optimizedPath = MoveOptimizer.optimize(path, RUBIKS_CUBE_SIZE);
+
+        // Then it is shorter, and both paths lead to the same state
+        LOGGER.info("Optimized path : {} moves => {} moves", path.size(), optimizedPath.size());
+        Assert.assertTrue(optimizedPath.size() < path.size());
+        RubiksCube optimized = rc.snapshot();
+        rc.move(path);
+        optimized.move(optimizedPath);
+        Assert.assertEquals(rc, optimized);
+
+        // And it is made of slice moves only
+        for (DefinedMove optimizedMove : optimizedPath) {
+            Assert.assertFalse("Whole cube move in optimized path : " + optimizedMove, optimizedMove.isFaceMove());
+        }
+
+        // And the path followed by its inverse is optimized into an empty path
+        List<DefinedMove> identityPath = new ArrayList<DefinedMove>(path);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            DefinedMove inverse = path.get(i);
+            Move inverseMove = Move.valueOf(inverse.getMove().getAxis(), 4 - inverse.getMove().getQuarterTurns());
+            identityPath.add(inverse.isFaceMove() ? DefinedMove.of(inverseMove) : DefinedMove.of(inverseMove, inverse.getFaceIndex()));
+        }
+        Assert.assertTrue(MoveOptimizer.optimize(identityPath, RUBIKS_CUBE_SIZE).isEmpty());
+    }
+
+    @Test
+    public void test_peephole_optimized_path_reaches_same_state() {
+        // Given a random path and a slice turned between a whole cube rotation and its inverse
+        Random random = new Random(42);
+        Move[] allMoves = Move.values();
+        List<DefinedMove> path = new ArrayList<DefinedMove>();
+        for (int i = 0; i < NB_OPTIMIZED_MOVE; i++) {
+            int faceIndex = random.nextInt(RUBIKS_CUBE_SIZE + 1);
+            Move move = allMoves[random.nextInt(allMoves.length)];
+            path.add(faceIndex == 0 ? DefinedMove.of(move) : DefinedMove.of(move, faceIndex));
+        }
+        List<DefinedMove> conjugate = new ArrayList<DefinedMove>();
+        conjugate.add(DefinedMove.of(Move.YAW));
+        conjugate.add(DefinedMove.of(Move.PITCH, 1));
+        conjugate.add(DefinedMove.of(Move.UNYAW));
+
+        // When I optimize them
+        List<DefinedMove> optimizedPath = PeepholeOptimizer.getInstance().optimize(path);
+        List<DefinedMove> optimizedConjugate = PeepholeOptimizer.getInstance().optimize(conjugate);
+
+        // Then they are shorter, and lead to the same state
+        LOGGER.info("Peephole optimized path : {} moves => {} moves", path.size(), optimizedPath.size());
+        Assert.assertTrue(optimizedPath.size() < path.size());
+        RubiksCube optimized = rc.snapshot();
+        rc.move(path);
+        optimized.move(optimizedPath);
+        Assert.assertEquals(rc, optimized);
+
+        Assert.assertEquals(1, optimizedConjugate.size());
+        Assert.assertFalse(optimizedConjugate.get(0).isFaceMove());
+        rc.move(conjugate);
+        optimized.move(optimizedConjugate);
+        Assert.assertEquals(rc, optimized);
+    }
+
+    @Test
+    public void test_state_key_is_restored_by_inverse_moves() {
+        // Given a solved RubiksCube and its state keys
+        long solvedKey = rc.stateKey();
+        CubeStateKey solvedExactKey = rc.exactStateKey();
+
+        // When I move it
+        rc.move(DefinedMove.of(Move.PITCH, 1));
+        rc.move(DefinedMove.of(Move.DOUBLE_YAW, 2));
+
+        // Then its keys change
+        Assert.assertNotEquals(solvedKey, rc.stateKey());
+        Assert.assertNotEquals(solvedExactKey, rc.exactStateKey());
+
+        // And they come back once inverse moves are applied
+        rc.move(DefinedMove.of(Move.DOUBLE_YAW, 2));
+        rc.move(DefinedMove.of(Move.UNPITCH, 1));
+        Assert.assertEquals(solvedKey, rc.stateKey());
+        Assert.assertEquals(solvedExactKey, rc.exactStateKey());
+        Assert.assertEquals(new RubiksCube(RUBIKS_CUBE_SIZE), rc);
+    }
+
+    @Test
+    public void test_move_sequence_is_applied_and_inverted() {
+        // Given a random sequence of moves, also as a list
+        Random random = new Random(42);
+        MoveSequence moves = new MoveSequence();
+        for (int i = 0; i < NB_SHUFFLE_MOVE; i++) {
+            // Face index -1 : whole cube move
+            int faceIndex = random.nextInt(RUBIKS_CUBE_SIZE + 1);
+            moves.append(Move.values()[random.nextInt(Move.values().length)], faceIndex == 0 ? -1 : faceIndex);
+        }
+        List<DefinedMove> movesAsList = moves.toList();
+        Assert.assertEquals(moves, MoveSequence.of(movesAsList));
+
+        // When both are applied
+        RubiksCube movedAsList = rc.snapshot();
+        rc.move(moves);
+        movedAsList.move(movesAsList);
+
+        // Then the RubiksCube are the same, and the inverse sequence solves them
+        Assert.assertEquals(movedAsList, rc);
+        rc.move(moves.inverse());
+        Assert.assertTrue(rc.isSolved());
+
+        // And a sub sequence is a view, which does not change its sequence when moves are appended to it
+        MoveSequence firstMoves = moves.subSequence(0, 2);
+        Assert.assertEquals(movesAsList.get(1), firstMoves.get(1));
+        firstMoves.append(Move.PITCH, 1);
+        Assert.assertEquals(3, firstMoves.size());
+        Assert.assertEquals(movesAsList, moves.toList());
+    }
+
+    @Test
+    public void test_compiled_move_sequence_matches_moves_applied_one_by_one() {
+        // Given a random sequence of moves, starting with a whole cube move and a double move
+        Random random = new Random(42);
+        List<DefinedMove> moves = new ArrayList<DefinedMove>();
+        moves.add(DefinedMove.of(Move.DOUBLE_YAW));
+        moves.add(DefinedMove.of(Move.DOUBLE_PITCH, 2));
+        for (int i = 0; i < NB_SHUFFLE_MOVE; i++) {
+            Move move = Move.values()[random.nextInt(Move.values().length)];
+            int faceIndex = random.nextInt(RUBIKS_CUBE_SIZE + 1);
+            moves.add(faceIndex == 0 ? DefinedMove.of(move) : DefinedMove.of(move, faceIndex));
+        }
+        rc.shuffle(NB_SHUFFLE_MOVE);
+        RubiksCube movedOneByOne = rc.snapshot();
+        PackedRubiksCube packed = new PackedRubiksCube(rc);
+        PackedRubiksCube packedOneByOne = packed.snapshot();
+
+        // When it is compiled and applied in a single pass, or applied move by move
+        CompiledMoveSequence compiled = MoveSequenceCompiler.compile(RUBIKS_CUBE_SIZE, moves);
+        rc.move(compiled);
+        packed.move(compiled);
+        for (DefinedMove move : moves) {
+            movedOneByOne.move(move);
+            packedOneByOne.move(move);
+        }
+
+        // Then the RubiksCube are the same
+        Assert.assertEquals(movedOneByOne, rc);
+        Assert.assertEquals(movedOneByOne.exactStateKey(), rc.exactStateKey());
+        Assert.assertEquals(packedOneByOne, packed);
+        Assert.assertEquals(new PackedRubiksCube(movedOneByOne), packed);
+    }
+
+    @Test
+    public void test_whole_cube_rotation_matches_slice_rotations() {
+        // Given two identical shuffled RubiksCube
+        rc.shuffle(NB_SHUFFLE_MOVE);
+        RubiksCube turnedBySlices = rc.snapshot();
+
+        // When one is turned as a whole and the other one slice by slice, then both get the same moves
+        rc.move(DefinedMove.of(Move.YAW));
+        rc.move(DefinedMove.of(Move.DOUBLE_ROLL));
+        for (int faceIndex = 1; faceIndex <= RUBIKS_CUBE_SIZE; faceIndex++) {
+            turnedBySlices.move(DefinedMove.of(Move.YAW, faceIndex));
+        }
+        for (int faceIndex = 1; faceIndex <= RUBIKS_CUBE_SIZE; faceIndex++) {
+            turnedBySlices.move(DefinedMove.of(Move.DOUBLE_ROLL, faceIndex));
+        }
+        rc.move(DefinedMove.of(Move.PITCH, 1));
+        turnedBySlices.move(DefinedMove.of(Move.PITCH, 1));
+
+        // Then they are seen the same way
+        Assert.assertEquals(turnedBySlices, rc);
+        Assert.assertEquals(turnedBySlices.stateKey(), rc.stateKey());
+        Assert.assertEquals(turnedBySlices.exactStateKey(), rc.exactStateKey());
+        Assert.assertEquals(turnedBySlices.getCubies(1, Axis.X), rc.getCubies(1, Axis.X));
+        Assert.assertEquals(turnedBySlices.getCubie(1, RUBIKS_CUBE_SIZE, 1), rc.getCubie(1, RUBIKS_CUBE_SIZE, 1));
+        for (Face face : Face.values()) {
+            Assert.assertEquals(turnedBySlices.getMismatchCount(face), rc.getMismatchCount(face));
+        }
+    }
+
+    @Test
+    public void test_surface_only_rubikscube_matches_full_rubikscube() {
+        // Given a 5x5 RubiksCube storing only its surface cubies and a full one
+        int size = 5;
+        RubiksCube surfaceOnly = new RubiksCube(size, true);
+        RubiksCube full = new RubiksCube(size);
+        Assert.assertTrue(surfaceOnly.isSurfaceOnly());
+
+        // When both get the same random slice moves, inner slices included
+        Random random = new Random(42);
+        Move[] allMoves = Move.values();
+        List<DefinedMove> moves = new ArrayList<DefinedMove>();
+        for (int i = 0; i < NB_SHUFFLE_MOVE * size; i++) {
+            int faceIndex = i < size ? i + 1 : random.nextInt(size) + 1;
+            DefinedMove move = DefinedMove.of(allMoves[random.nextInt(allMoves.length)], faceIndex);
+            surfaceOnly.move(move);
+            full.move(move);
+            moves.add(move);
+
+            // Then they show the same facelets
+            Assert.assertEquals(new PackedRubiksCube(full), new PackedRubiksCube(surfaceOnly));
+            Assert.assertEquals(full.isSolved(), surfaceOnly.isSolved());
+        }
+
+        // And both are solved again once the moves are undone
+        for (int i = moves.size() - 1; i >= 0; i--) {
+            Move move = moves.get(i).getMove();
+            DefinedMove inverse = DefinedMove.of(Move.valueOf(move.getAxis(), 4 - move.getQuarterTurns()), moves.get(i).getFaceIndex());
+            surfaceOnly.move(inverse);
+            full.move(inverse);
+        }
+        Assert.assertEquals(new PackedRubiksCube(full), new PackedRubiksCube(surfaceOnly));
+        Assert.assertTrue(full.isSolved());
+        Assert.assertTrue(surfaceOnly.isSolved());
+    }
+
+    @Test
+    public void test_state_key_is_maintained_after_whole_cube_rotation() {
+        // Given a shuffled RubiksCube turned as a whole, and the same one turned slice by slice
+        rc.shuffle(NB_SHUFFLE_MOVE);
+        RubiksCube turnedBySlices = rc.snapshot();
+        rc.move(DefinedMove.of(Move.PITCH));
+        rc.move(DefinedMove.of(Move.UNYAW));
+        for (int faceIndex = 1; faceIndex <= RUBIKS_CUBE_SIZE; faceIndex++) {
+            turnedBySlices.move(DefinedMove.of(Move.PITCH, faceIndex));
+        }
+        for (int faceIndex = 1; faceIndex <= RUBIKS_CUBE_SIZE; faceIndex++) {
+            turnedBySlices.move(DefinedMove.of(Move.UNYAW, faceIndex));
+        }
+
+        // When both get the same slice moves, their key being read after each one
+        Random random = new Random(42);
+        for (int i = 0; i < NB_OPTIMIZED_MOVE; i++) {
+            DefinedMove move = DefinedMove.of(Move.values()[random.nextInt(Move.values().length)], random.nextInt(RUBIKS_CUBE_SIZE) + 1);
+            rc.move(move);
+            turnedBySlices.move(move);
+
+            // Then the key maintained in the rotated frame is the one of the same configuration
+            Assert.assertEquals(turnedBySlices.stateKey(), rc.stateKey());
+        }
+        Assert.assertEquals(turnedBySlices, rc);
+    }
+
+    @Test
+    public void test_snapshot_is_not_affected_by_moves() {
+        // Given a snapshot of a shuffled RubiksCube
+        rc.shuffle(20);
+        RubiksCube snapshot = rc.snapshot();
+        CubeStateKey snapshotKey = snapshot.exactStateKey();
+        Assert.assertEquals(rc, snapshot);
+
+        // When both RubiksCube are moved independently
+        rc.move(DefinedMove.of(Move.PITCH, 1));
+        snapshot.move(DefinedMove.of(Move.ROLL, 3));
+
+        // Then each one only sees its own move
+        snapshot.move(DefinedMove.of(Move.UNROLL, 3));
+        Assert.assertEquals(snapshotKey, snapshot.exactStateKey());
+        Assert.assertNotEquals(snapshotKey, rc.exactStateKey());
+        rc.move(DefinedMove.of(Move.UNPITCH, 1));
+        Assert.assertEquals(snapshot, rc);
+    }
+
+    @Test
+    public void test_moves_do_not_allocate() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled());
+
+        // Given every kind of move (single, double and inverse turns, on one slice or on the whole cube)
+        DefinedMove[] moves = new DefinedMove[Move.values().length * (RUBIKS_CUBE_SIZE + 1)];
+        int i = 0;
+        for (Move move : Move.values()) {
+            moves[i++] = DefinedMove.of(move);
+            for (int faceIndex = 1; faceIndex <= RUBIKS_CUBE_SIZE; faceIndex++) {
+                moves[i++] = DefinedMove.of(move, faceIndex);
+            }
+        }
+        for (DefinedMove move : moves) {
+            rc.move(move);
+        }
+
+        // When I apply them many times
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (i = 0; i < NB_ALLOCATION_MOVE; i++) {
+            rc.move(moves[i % moves.length]);
+        }
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        // Then nothing is allocated (a few bytes may come from the measure itself)
+        LOGGER.info("Allocated bytes for {} moves : {}", NB_ALLOCATION_MOVE, allocated);
+        Assert.assertTrue("Moves allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    @Test
+    public void test_defined_moves_are_interned() {
+        // Given the moves of a bigger cube than the ones already used
+        int size = 7;
+        List<DefinedMove> moves = DefinedMove.values(size);
+
+        // When I look them up again
+        // Then I get the same instances, numbered densely from 0
+        Assert.assertEquals(DefinedMove.count(size), moves.size());
+        for (int ordinal = 0; ordinal < moves.size(); ordinal++) {
+            DefinedMove move = moves.get(ordinal);
+            Assert.assertEquals(ordinal, move.getOrdinal());
+            Assert.assertSame(move, DefinedMove.valueOf(ordinal));
+            Assert.assertSame(move, move.isFaceMove() ? DefinedMove.of(move.getMove()) : DefinedMove.of(move.getMove(), move.getFaceIndex()));
+        }
+        Assert.assertSame(DefinedMove.of(Move.PITCH, 2), new MoveSequence().append(Move.PITCH, 2).get(0));
+    }
+
+    @Test
+    public void test_no_move_is_rejected_by_ordinal_indexed_tables() {
+        // Given the absence of move
+        DefinedMove none = DefinedMove.NONE;
+
+        // When it is applied, it is ignored
+        rc.move(none);
+        Assert.assertTrue(rc.isSolved());
+
+        // Then it cannot index a table, nor be part of a sequence of moves
+        try {
+            none.getOrdinal();
+            Assert.fail("DefinedMove.NONE has an ordinal");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        try {
+            new MoveSequence().append(none);
+            Assert.fail("DefinedMove.NONE appended to a sequence of moves");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
     @After
     public void clean() {
         this.rc = null;
     }
 
+    /**
+     * Waits for the background computations of the AI (cf. RubiksCubeAI#computeArtificialIntelligence())
+     */
+    private static void joinComputations() throws InterruptedException {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if ("RubiksCubeAI".equals(thread.getName()))
+                thread.join(MAX_LATENCY_MILLIS);
+        }
+    }
+
     private void printRubiksCubeState(String phase) {
         LOGGER.info(phase + " : {}", rc);
 